@@ -0,0 +1,85 @@
+package com.ethpalser.cli.console;
+
+import com.ethpalser.cli.menu.BenchmarkMenus;
+import com.ethpalser.cli.menu.MenuOptions;
+import com.ethpalser.cli.menu.command.CommandGrammar;
+import com.ethpalser.cli.menu.command.CommandSpec;
+import com.ethpalser.cli.menu.command.ParsedCommand;
+import com.ethpalser.cli.util.Pair;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks ConsoleReader against an endless input. The reader has no writer, so nothing is printed. The option
+ * selected by name is the last one, which is the worst case for a lookup over the option list.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConsoleReaderBenchmark {
+
+    private static final String COMMAND_REGEX = "^option\\d+\\s+-[yn]$";
+
+    @Param({"10", "1000", "100000"})
+    private int children;
+
+    private MenuOptions options;
+    private ConsoleReader indexReader;
+    private ConsoleReader nameReader;
+    private ConsoleReader commandReader;
+    private ConsoleReader grammarReader;
+    private CommandGrammar grammar;
+
+    @Setup
+    public void setup() {
+        List<String> names = new ArrayList<>(this.children);
+        for (int i = 0; i < this.children; i++) {
+            names.add(BenchmarkMenus.childName(i));
+        }
+        this.options = MenuOptions.of(names);
+        String last = BenchmarkMenus.childName(this.children - 1);
+        this.indexReader = new ConsoleReader(new BufferedReader(new RepeatingReader("1 arg")));
+        this.nameReader = new ConsoleReader(new BufferedReader(new RepeatingReader(last + " arg")));
+        this.commandReader = new ConsoleReader(new BufferedReader(new RepeatingReader(last + " -y")));
+        this.grammarReader = new ConsoleReader(new BufferedReader(new RepeatingReader("confirm -y")));
+        this.grammar = CommandGrammar.of(CommandSpec.builder("confirm").flag("-y").flag("-n").build());
+    }
+
+    @Benchmark
+    public Pair<String, String[]> readOption_byIndex() throws IOException {
+        return this.indexReader.readOption(this.options);
+    }
+
+    @Benchmark
+    public Pair<String, String[]> readOption_byName() throws IOException {
+        return this.nameReader.readOption(this.options);
+    }
+
+    @Benchmark
+    public Pair<String, String[]> readCommand_regex() throws IOException {
+        return this.commandReader.readCommand(this.options, COMMAND_REGEX);
+    }
+
+    @Benchmark
+    public ParsedCommand readCommand_grammar() throws IOException {
+        return this.grammarReader.readCommand(this.options, this.grammar);
+    }
+
+}
@@ -0,0 +1,32 @@
+package com.ethpalser.cli.console;
+
+import java.io.Reader;
+
+/**
+ * Reader that endlessly repeats the same line, so a ConsoleReader can be benchmarked without running out of input.
+ */
+class RepeatingReader extends Reader {
+
+    private final char[] line;
+    private int position;
+
+    RepeatingReader(String line) {
+        this.line = (line + "\n").toCharArray();
+        this.position = 0;
+    }
+
+    @Override
+    public int read(char[] buffer, int offset, int length) {
+        for (int i = 0; i < length; i++) {
+            buffer[offset + i] = this.line[this.position];
+            this.position = (this.position + 1) % this.line.length;
+        }
+        return length;
+    }
+
+    @Override
+    public void close() {
+        // Nothing to release
+    }
+
+}
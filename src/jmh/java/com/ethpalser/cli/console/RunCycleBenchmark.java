@@ -0,0 +1,57 @@
+package com.ethpalser.cli.console;
+
+import com.ethpalser.cli.menu.BenchmarkMenus;
+import com.ethpalser.cli.menu.exception.InvalidContextException;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks a full ConsoleRunner.runCycle using the test doubles. MockConsoleReader is advanced past its scripted
+ * inputs during setup, so every measured cycle renders the menu, collects the visible options and handles
+ * "exit -y", which is the steady state of the mock.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RunCycleBenchmark {
+
+    private static final int MOCK_SCRIPTED_READS = 4;
+
+    @Param({"10", "100", "1000", "10000", "100000"})
+    private int children;
+
+    private ConsoleRunner runner;
+    private MockConsoleReader reader;
+    private MockConsoleWriter writer;
+
+    @Setup
+    public void setup() {
+        this.runner = new ConsoleRunner(BenchmarkMenus.simpleMenu("main", this.children));
+        this.reader = new MockConsoleReader();
+        this.writer = new MockConsoleWriter();
+        for (int i = 0; i < MOCK_SCRIPTED_READS; i++) {
+            this.reader.readOption(List.of(BenchmarkMenus.childName(0)));
+        }
+    }
+
+    @Benchmark
+    public boolean runCycle() throws IOException, InvalidContextException {
+        return this.runner.runCycle(this.reader, this.writer);
+    }
+
+}
@@ -0,0 +1,28 @@
+package com.ethpalser.cli.menu;
+
+import com.ethpalser.cli.menu.event.EventType;
+
+/**
+ * Builds menus of a given size for benchmarks. Every child has a SELECT listener so it is never disabled.
+ */
+public final class BenchmarkMenus {
+
+    private BenchmarkMenus() {
+    }
+
+    public static SimpleMenu simpleMenu(String name, int children) {
+        SimpleMenu menu = new SimpleMenu(name);
+        for (int i = 0; i < children; i++) {
+            MenuItem child = new MenuItem("option" + i);
+            child.addEventListener(EventType.SELECT, event -> {
+            });
+            menu.addChild(child);
+        }
+        return menu;
+    }
+
+    public static String childName(int index) {
+        return "option" + index;
+    }
+
+}
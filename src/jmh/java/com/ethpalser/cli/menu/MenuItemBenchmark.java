@@ -0,0 +1,70 @@
+package com.ethpalser.cli.menu;
+
+import com.ethpalser.cli.menu.event.Event;
+import com.ethpalser.cli.menu.event.EventType;
+import com.ethpalser.cli.menu.event.Result;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MenuItemBenchmark {
+
+    private MenuItem item;
+    private Event selectEvent;
+    private Event preRenderEvent;
+    private Event renderEvent;
+    private Event postRenderEvent;
+
+    @Setup
+    public void setup() {
+        this.item = new MenuItem("item");
+        this.item.addEventListener(EventType.SELECT, event -> {
+        });
+        this.selectEvent = new Event(EventType.SELECT, "item");
+        this.preRenderEvent = new Event(EventType.PRE_RENDER);
+        this.renderEvent = new Event(EventType.RENDER);
+        this.postRenderEvent = new Event(EventType.POST_RENDER);
+    }
+
+    @Benchmark
+    public Result receiveEvent_withListener() {
+        return this.item.receiveEvent(this.selectEvent);
+    }
+
+    @Benchmark
+    public Result receiveEvent_withoutListener() {
+        return this.item.receiveEvent(this.renderEvent);
+    }
+
+    @Benchmark
+    public void receiveEvent_reusedRenderEvents(Blackhole bh) {
+        // Mirrors ConsoleRunner.runCycle, which reuses an Event for each render phase
+        bh.consume(this.item.receiveEvent(this.preRenderEvent));
+        bh.consume(this.item.receiveEvent(this.renderEvent));
+        bh.consume(this.item.receiveEvent(this.postRenderEvent));
+    }
+
+    @Benchmark
+    public void receiveEvent_newEventPerCall(Blackhole bh) {
+        // Baseline of creating a new Event for each render phase
+        bh.consume(this.item.receiveEvent(new Event(EventType.PRE_RENDER)));
+        bh.consume(this.item.receiveEvent(new Event(EventType.RENDER)));
+        bh.consume(this.item.receiveEvent(new Event(EventType.POST_RENDER)));
+    }
+
+}
@@ -0,0 +1,64 @@
+package com.ethpalser.cli.menu;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class SearchIndexBenchmark {
+
+    private static final String[] MATERIALS = {"iron", "steel", "bronze", "silver", "golden", "obsidian", "oak",
+            "bone", "crystal", "dragon"};
+    private static final String[] KINDS = {"sword", "axe", "shield", "helm", "boots", "bow", "staff", "ring",
+            "amulet", "potion"};
+
+    @Param({"1000", "1000000"})
+    private int items;
+
+    @Param({"dragon sword 42", "obsidan amulet", "sword"})
+    private String query;
+
+    private SearchIndex index;
+
+    @Setup
+    public void setup() {
+        // Three levels, with as many menus at each level as items in each menu at the last
+        int width = (int) Math.ceil(Math.cbrt(this.items));
+        Menu root = new SimpleMenu("root");
+        int count = 0;
+        for (int i = 0; i < width && count < this.items; i++) {
+            Menu region = new SimpleMenu("region" + i);
+            for (int j = 0; j < width && count < this.items; j++) {
+                Menu shop = new SimpleMenu("shop" + i + "-" + j);
+                for (int k = 0; k < width && count < this.items; k++, count++) {
+                    shop.addChild(new MenuItem(MATERIALS[count % MATERIALS.length] + " "
+                            + KINDS[count / MATERIALS.length % KINDS.length] + " " + count));
+                }
+                region.addChild(shop);
+            }
+            root.addChild(region);
+        }
+        this.index = SearchIndex.of(root);
+    }
+
+    @Benchmark
+    public List<MenuItem> search() {
+        return this.index.search(this.query, 5);
+    }
+
+}
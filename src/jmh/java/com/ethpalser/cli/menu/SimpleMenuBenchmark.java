@@ -0,0 +1,39 @@
+package com.ethpalser.cli.menu;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SimpleMenuBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    private int children;
+
+    private SimpleMenu menu;
+
+    @Setup
+    public void setup() {
+        this.menu = BenchmarkMenus.simpleMenu("main", this.children);
+    }
+
+    @Benchmark
+    public String getTextDisplay() {
+        return this.menu.getTextDisplay();
+    }
+
+}
@@ -1,25 +1,86 @@
 package com.ethpalser.cli;
 
+import com.ethpalser.cli.console.BatchReport;
+import com.ethpalser.cli.console.ConfirmPolicy;
 import com.ethpalser.cli.console.ConsoleRunner;
+import com.ethpalser.cli.console.SessionRecorder;
+import com.ethpalser.cli.console.SessionReplayer;
+import com.ethpalser.cli.menu.LazyMenu;
 import com.ethpalser.cli.menu.Menu;
+import com.ethpalser.cli.menu.MenuItem;
 import com.ethpalser.cli.menu.SimpleMenu;
+import com.ethpalser.cli.menu.exception.InvalidContextException;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Locale;
 
 public class Main {
 
     public static void main(String[] args) {
         Menu main = testMenu();
         ConsoleRunner menu = new ConsoleRunner(main);
+        if (args.length >= 2 && "--script".equals(args[0])) {
+            // Usage: --script <file> [accept|reject|script]
+            try {
+                ConfirmPolicy policy = args.length >= 3 ? parsePolicy(args[2]) : ConfirmPolicy.ACCEPT;
+                if (policy == null) {
+                    System.err.println("unknown confirm policy: " + args[2] + ", expected one of "
+                            + Arrays.toString(ConfirmPolicy.values()).toLowerCase(Locale.ROOT));
+                    return;
+                }
+                BatchReport report = menu.runScript(Path.of(args[1]), policy);
+                System.err.println(report);
+            } catch (IOException | InvalidContextException e) {
+                System.err.println(e.getMessage());
+            } finally {
+                menu.close();
+            }
+            return;
+        }
+        if (args.length >= 2 && "--replay".equals(args[0])) {
+            // Usage: --replay <file> [--paced]
+            boolean paced = args.length >= 3 && "--paced".equals(args[2]);
+            try {
+                BatchReport report = new SessionReplayer(menu).setRecordedPace(paced).setVerify(true)
+                        .replay(Path.of(args[1]));
+                System.err.println(report);
+            } catch (IOException | InvalidContextException e) {
+                System.err.println(e.getMessage());
+            } finally {
+                menu.close();
+            }
+            return;
+        }
+        if (args.length >= 2 && "--record".equals(args[0])) {
+            // Usage: --record <file>
+            try {
+                menu.setRecorder(SessionRecorder.open(Path.of(args[1])));
+            } catch (IOException e) {
+                System.err.println(e.getMessage());
+            }
+        }
         menu.open();
     }
 
+    private static ConfirmPolicy parsePolicy(String name) {
+        try {
+            return ConfirmPolicy.valueOf(name.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
     private static Menu testMenu() {
         Menu main = new SimpleMenu("main");
         main.addChild(new Menu("Resume"));
 
-        Menu sub = new SimpleMenu("Start");
-        sub.addChild(new Menu("Basic"));
-        sub.addChild(new Menu("Advanced"));
-        sub.addChild(new Menu("Custom"));
+        // Created when first opened, as most players never look through every option
+        Menu sub = new LazyMenu("Start", () -> new MenuItem[]{
+                new Menu("Basic"),
+                new Menu("Advanced"),
+                new Menu("Custom")
+        });
 
         main.addChild(sub);
         main.addChild(new Menu("Exit"));
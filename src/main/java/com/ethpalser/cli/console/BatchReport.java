@@ -0,0 +1,126 @@
+package com.ethpalser.cli.console;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * BatchReport summarizes a script run by ConsoleRunner.runScript: how many commands were executed, how long it took
+ * and which commands failed. A command fails if its input could not be resolved or an event it caused returned a
+ * Result with an error. Only the first failures are kept in detail, while all are counted.
+ */
+public final class BatchReport {
+
+    static final int FAILURE_DETAIL_LIMIT = 100;
+
+    private final long commands;
+    private final long failureCount;
+    private final List<String> failures;
+    private final long elapsedNanos;
+    private final boolean escaped;
+
+    private BatchReport(final Builder builder, final long elapsedNanos) {
+        this.commands = builder.commands;
+        this.failureCount = builder.failureCount;
+        this.failures = Collections.unmodifiableList(new ArrayList<>(builder.failures));
+        this.elapsedNanos = elapsedNanos;
+        this.escaped = builder.escaped;
+    }
+
+    /**
+     * Returns the number of commands executed, which excludes blank lines, comments and confirmation answers.
+     *
+     * @return long
+     */
+    public long getCommands() {
+        return this.commands;
+    }
+
+    public long getFailureCount() {
+        return this.failureCount;
+    }
+
+    /**
+     * Returns a description of each of the first failures, including the line of the script it occurred on.
+     *
+     * @return List of String
+     */
+    public List<String> getFailures() {
+        return this.failures;
+    }
+
+    public long getElapsedNanos() {
+        return this.elapsedNanos;
+    }
+
+    /**
+     * Determines if the script stopped early because an escape command closed the program.
+     *
+     * @return boolean (true/false)
+     */
+    public boolean isEscaped() {
+        return this.escaped;
+    }
+
+    public double getCommandsPerSecond() {
+        if (this.elapsedNanos <= 0) {
+            return 0;
+        }
+        return this.commands * 1_000_000_000.0 / this.elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(this.commands).append(" commands in ")
+                .append(String.format("%.3f", this.elapsedNanos / 1_000_000_000.0)).append("s (")
+                .append(String.format("%.0f", this.getCommandsPerSecond())).append(" commands/s), ")
+                .append(this.failureCount).append(" failed");
+        if (this.escaped) {
+            sb.append(", stopped by escape");
+        }
+        for (String failure : this.failures) {
+            sb.append("\n  ").append(failure);
+        }
+        if (this.failureCount > this.failures.size()) {
+            sb.append("\n  ... ").append(this.failureCount - this.failures.size()).append(" more");
+        }
+        return sb.toString();
+    }
+
+    static final class Builder {
+
+        private final long startNanos;
+        private final List<String> failures;
+        private long commands;
+        private long failureCount;
+        private int line;
+        private boolean escaped;
+
+        Builder() {
+            this.startNanos = System.nanoTime();
+            this.failures = new ArrayList<>();
+        }
+
+        void command(int line) {
+            this.line = line;
+            this.commands++;
+        }
+
+        void failure(String message) {
+            this.failureCount++;
+            if (this.failures.size() < FAILURE_DETAIL_LIMIT) {
+                this.failures.add("line " + this.line + ": " + (message == null ? "failed" : message.strip()));
+            }
+        }
+
+        void escaped() {
+            this.escaped = true;
+        }
+
+        BatchReport build() {
+            return new BatchReport(this, System.nanoTime() - this.startNanos);
+        }
+    }
+
+}
@@ -0,0 +1,22 @@
+package com.ethpalser.cli.console;
+
+/**
+ * ConfirmPolicy decides how a confirmation, such as whether to close the program or save changes, is answered when
+ * running a script instead of asking the user. Flags given with a command, such as "exit -y", are used before the
+ * policy.
+ */
+public enum ConfirmPolicy {
+    /**
+     * Every confirmation is answered yes.
+     */
+    ACCEPT,
+    /**
+     * Every confirmation is answered no.
+     */
+    REJECT,
+    /**
+     * Each confirmation is answered by the next line of the script, which is yes if it is "y" or "yes". If the
+     * script has ended, the answer is no.
+     */
+    SCRIPT
+}
@@ -1,42 +1,152 @@
 package com.ethpalser.cli.console;
 
+import com.ethpalser.cli.menu.MenuOptions;
+import com.ethpalser.cli.menu.PathNavigator;
+import com.ethpalser.cli.menu.OptionResolver;
+import com.ethpalser.cli.menu.command.CommandGrammar;
+import com.ethpalser.cli.menu.command.CommandSpec;
+import com.ethpalser.cli.menu.command.ParsedCommand;
+import com.ethpalser.cli.metrics.MetricsRegistry;
+import com.ethpalser.cli.util.InputTokenizer;
 import com.ethpalser.cli.util.Pair;
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.IOException;
-import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
 public class ConsoleReader {
 
+    /**
+     * Returned by readOption and readCommand when a read timeout is set and no input arrived before it. Compare
+     * with == to tell it apart from input.
+     */
+    public static final Pair<String, String[]> NO_INPUT = new Pair<>("", null);
+    /**
+     * Returned by {@link #readCommand(MenuOptions, CommandGrammar)} when a read timeout is set and no input arrived
+     * before it. Compare with == to tell it apart from input.
+     */
+    public static final ParsedCommand NO_COMMAND = ParsedCommand.ofOption("", null);
+
     private static final String READER_PREFIX = "> ";
     private static final String READER_CLOSED_ERROR_MESSAGE = "reader closed\n";
     private static final String INPUT_INVALID_MESSAGE = "input invalid\n";
     private static final String INPUT_NULL_MESSAGE = "input unexpected\n";
+    private static final String INPUT_AMBIGUOUS_MESSAGE = "input ambiguous, did you mean: ";
+    private static final String COMMAND_INVALID_MESSAGE = "input invalid, ";
+    private static final int AMBIGUOUS_CANDIDATE_LIMIT = 5;
+    private static final int PATTERN_CACHE_LIMIT = 32;
+    private static final ParsedCommand ESCAPE_COMMAND = CommandGrammar.of(CommandSpec.builder("exit").build())
+            .parse("exit");
 
     private final Set<String> escapeCommands;
     private final Set<String> backCommands;
     private final Set<String> helpCommands;
+    private final Set<String> gotoCommands;
     private final BufferedReader br;
+    private final String[] reservedCommands;
+    private final InputTokenizer tokenizer;
+    private final Map<String, Pattern> patterns;
     private boolean canRead;
-    private BufferedWriter bw;
-    private boolean canWrite;
+    private ConsoleWriter writer;
+    private String lastError;
+    private InputSource source;
+    private boolean sourceReadsReader; // whether the source was created from br, which it then owns
+    private long timeoutNanos;
+    private boolean timedOut; // whether the last read gave up waiting, rather than reaching the end of input
 
     public ConsoleReader(final BufferedReader ioReader) {
         this.br = ioReader;
+        this.tokenizer = new InputTokenizer();
+        this.patterns = new HashMap<>();
         this.canRead = true;
-        this.canWrite = false;
+        this.writer = null;
+        this.source = null;
+        this.sourceReadsReader = false;
+        this.timeoutNanos = -1;
         this.escapeCommands = Set.of("exit", "close", "quit");
         this.backCommands = Set.of("back", "previous", "prev");
         this.helpCommands = Set.of("help");
+        this.gotoCommands = Set.of("goto");
+        this.reservedCommands = Stream.of(this.helpCommands, this.backCommands, this.escapeCommands, this.gotoCommands)
+                .flatMap(Set::stream).toArray(String[]::new);
     }
 
     public ConsoleReader(final BufferedReader ioReader, final BufferedWriter ioWriter) {
+        this(ioReader, ioWriter == null ? null : new ConsoleWriter(ioWriter));
+    }
+
+    /**
+     * Creates a reader that writes its prompts and error messages with a ConsoleWriter. Sharing the writer used to
+     * display menus lets everything written before a read, including any open frame, be flushed together right
+     * before waiting for input.
+     *
+     * @param ioReader BufferedReader to read input from
+     * @param writer   ConsoleWriter to write prompts and errors to
+     */
+    public ConsoleReader(final BufferedReader ioReader, final ConsoleWriter writer) {
         this(ioReader);
-        this.bw = ioWriter;
-        this.canWrite = ioWriter != null;
+        this.writer = writer;
+    }
+
+    /**
+     * Returns the ConsoleWriter prompts are written to, or null if prompts are not written.
+     *
+     * @return ConsoleWriter
+     */
+    public ConsoleWriter getWriter() {
+        return this.writer;
+    }
+
+    /**
+     * Sets a source to read input from in place of the BufferedReader, such as a source of keys from a terminal in
+     * raw mode. Null returns to reading from the BufferedReader.
+     *
+     * @param source InputSource to read from, or null
+     */
+    public void setInputSource(InputSource source) {
+        this.source = source;
+        this.sourceReadsReader = false;
+    }
+
+    public InputSource getInputSource() {
+        return this.source;
+    }
+
+    /**
+     * Sets how long a read waits for input before returning {@link #NO_INPUT} (or {@link #NO_COMMAND}), so the
+     * program can keep running while the user has not typed anything. A timeout of 0 only takes input that has
+     * already arrived, and a negative timeout waits for input, which is the default. The timeout covers the whole
+     * read, including reading again after invalid input.
+     * <br><br>
+     * Without an InputSource, the BufferedReader is read by a QueuedInputSource from then on, as a read from it cannot
+     * otherwise be given up on. A prompt is written by each read, so a line being typed may be drawn over by a new
+     * frame, although it is still read when Enter is pressed.
+     *
+     * @param timeout long time to wait for input, or negative to wait until there is input
+     * @param unit    TimeUnit of the timeout
+     */
+    public void setReadTimeout(long timeout, TimeUnit unit) {
+        this.timeoutNanos = timeout < 0 ? -1 : unit.toNanos(timeout);
+        if (this.timeoutNanos >= 0 && this.source == null && this.br != null) {
+            this.source = QueuedInputSource.lines(this.br);
+            this.sourceReadsReader = true;
+        }
+    }
+
+    /**
+     * Returns the read timeout in nanoseconds, or -1 if reads wait for input.
+     *
+     * @return long
+     */
+    public long getReadTimeoutNanos() {
+        return this.timeoutNanos;
     }
 
     public Set<String> getEscapeCommands() {
@@ -51,11 +161,30 @@ public class ConsoleReader {
         return this.helpCommands;
     }
 
+    /**
+     * Returns the commands that search the whole menu tree for the text following them and jump to the best match.
+     *
+     * @return Set of String
+     */
+    public Set<String> getGotoCommands() {
+        return this.gotoCommands;
+    }
+
+    private boolean matchesReservedCommand(InputTokenizer tokens) {
+        for (String command : this.reservedCommands) {
+            if (tokens.tokenEqualsIgnoreCase(0, command)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private boolean matchesReservedCommand(String input) {
         String lowerInput = input.toLowerCase(Locale.ROOT);
         return this.getHelpCommands().contains(lowerInput)
                 || this.getBackCommands().contains(lowerInput)
-                || this.getEscapeCommands().contains(lowerInput);
+                || this.getEscapeCommands().contains(lowerInput)
+                || this.getGotoCommands().contains(lowerInput);
     }
 
     /**
@@ -68,40 +197,117 @@ public class ConsoleReader {
      * @throws IOException An I/O exception occurred with the Reader or Writer.
      */
     public Pair<String, String[]> readOption(List<String> options) throws IOException {
+        return this.readOption(MenuOptions.of(options));
+    }
+
+    /**
+     * Reads an input from a Reader, the same as {@link #readOption(List)}. The options are resolved using the
+     * snapshot's OptionResolver, so a snapshot kept between reads, such as from Menu.getVisibleOptions, avoids
+     * building or scanning a list of options for each input. In addition to an index or name, the input can be
+     * any prefix of a name that no other option starts with. If several options start with the input, they are
+     * reported and the input is read again. Commands in the snapshot's CommandGrammar are accepted before options,
+     * and are only returned if their arguments fit the command's spec.
+     *
+     * @param options MenuOptions to select from
+     * @return String representing the selected option and any following text
+     * @throws IOException An I/O exception occurred with the Reader or Writer.
+     */
+    public Pair<String, String[]> readOption(MenuOptions options) throws IOException {
         if (!this.canRead) {
             throw new IOException(READER_CLOSED_ERROR_MESSAGE);
         }
 
+        long deadline = this.deadline();
         do {
             this.printPrefixLine(READER_PREFIX);
-            String input = this.br.readLine();
+            String input = this.nextLine(deadline);
+            if (input == null && this.timedOut) {
+                return NO_INPUT;
+            }
             if (input == null) {
                 this.printErrorMessage(INPUT_NULL_MESSAGE);
-                return new Pair<>("exit -y", null); // force exit
+                this.flushWriter();
+                return new Pair<>("exit", new String[]{"-y"}); // force exit
             }
 
-            Pair<String, String[]> parts = this.getParts(input);
-            if (this.matchesReservedCommand(parts.getFirst().toLowerCase(Locale.ROOT))) {
-                return parts;
+            Pair<String, String[]> option = this.resolveOption(input, options);
+            if (option != null) {
+                return option;
             }
-
-            String option;
-            int index = this.getOptionIndex(parts.getFirst());
-            if (0 <= index && index < options.size()) {
-                option = options.get(index);
-            } else {
-                option = this.getFromOptions(parts.getFirst(), options);
+            MetricsRegistry metrics = MetricsRegistry.getActive();
+            if (metrics != null) {
+                metrics.counter(MetricsRegistry.INPUT_GROUP, "invalid").increment();
             }
+            this.printErrorMessage(this.lastError);
+        } while (true);
+    }
 
-            if (option != null) {
-                // reserved commands override options
-                if (this.matchesReservedCommand(option.toLowerCase(Locale.ROOT))) {
-                    return new Pair<>(parts.getFirst().toLowerCase(), parts.getLast());
-                }
-                return new Pair<>(option, parts.getLast());
+    /**
+     * Resolves a line of input to a reserved command, a command or an option, the same way readOption does, without
+     * reading or writing anything. Input starting with a path, such as "start/advanced", is returned as it is, to be
+     * followed with a {@link PathNavigator}. If the input cannot be resolved, null is returned and the reason is
+     * available from {@link #getLastError()}.
+     * <br><br>
+     * Input resolved to a command keeps the ParsedCommand it was parsed to, which ConsoleRunner handles without
+     * parsing it again. A reader overriding readOption should return the result of this method for commands to be
+     * handled.
+     *
+     * @param input   CharSequence representing a line of input
+     * @param options MenuOptions to select from
+     * @return String representing the selected option and any following text, or null
+     */
+    public Pair<String, String[]> resolveOption(CharSequence input, MenuOptions options) {
+        InputTokenizer tokens = this.tokenizer.reset(input);
+        if (tokens.isEmpty()) {
+            this.lastError = INPUT_INVALID_MESSAGE;
+            return null;
+        }
+        if (this.matchesReservedCommand(tokens)) {
+            return new Pair<>(tokens.command(), tokens.arguments());
+        }
+
+        ParsedCommand command = options.getCommandGrammar().parse(tokens);
+        if (command != null) {
+            if (command.isValid()) {
+                return new ResolvedInput(command.getName(), tokens.arguments(), command);
             }
-            this.printErrorMessage(INPUT_INVALID_MESSAGE);
-        } while (true);
+            this.lastError = COMMAND_INVALID_MESSAGE + command.getError() + "\n";
+            return null;
+        }
+        // A path is resolved when it is followed, unless it is the name of an option itself
+        String first = tokens.command();
+        if (PathNavigator.isPath(first) && !options.contains(first)) {
+            return new Pair<>(first, tokens.arguments());
+        }
+
+        OptionResolver resolver = options.getResolver();
+        int index = resolver.resolve(input, tokens.start(0), tokens.end(0));
+        if (index == OptionResolver.AMBIGUOUS) {
+            this.lastError = INPUT_AMBIGUOUS_MESSAGE
+                    + String.join(", ", resolver.getCandidates(tokens.command(), AMBIGUOUS_CANDIDATE_LIMIT)) + "\n";
+            return null;
+        }
+
+        String option = resolver.getOption(index);
+        if (option == null) {
+            this.lastError = INPUT_INVALID_MESSAGE;
+            return null;
+        }
+        // reserved commands override options
+        String lowerOption = option.toLowerCase(Locale.ROOT);
+        if (this.matchesReservedCommand(lowerOption)) {
+            return new Pair<>(lowerOption, tokens.arguments());
+        }
+        return new Pair<>(option, tokens.arguments());
+    }
+
+    /**
+     * Returns the reason the last input could not be resolved, such as an invalid or ambiguous option.
+     *
+     * @return String
+     */
+    public String getLastError() {
+        return this.lastError;
     }
 
     /**
@@ -118,20 +324,38 @@ public class ConsoleReader {
      * @throws IOException An I/O exception occurred with the Reader or Writer.
      */
     public Pair<String, String[]> readCommand(List<String> options, String regex) throws IOException {
+        return this.readCommand(MenuOptions.of(options), regex);
+    }
+
+    /**
+     * Reads an input from the Reader, the same as {@link #readCommand(List, String)}, using a snapshot of options.
+     *
+     * @param options MenuOptions to select from
+     * @param regex   String representing the requirements of an option to use it (i.e. name, flags, values, number
+     *                of arguments).
+     * @return String representing the selected option and any following text
+     * @throws IOException An I/O exception occurred with the Reader or Writer.
+     */
+    public Pair<String, String[]> readCommand(MenuOptions options, String regex) throws IOException {
         if (!this.canRead) {
             throw new IOException(READER_CLOSED_ERROR_MESSAGE);
         }
 
+        long deadline = this.deadline();
         do {
             this.printPrefixLine(READER_PREFIX);
-            String input = this.br.readLine();
+            String input = this.nextLine(deadline);
+            if (input == null && this.timedOut) {
+                return NO_INPUT;
+            }
             if (input == null) {
                 this.printErrorMessage(INPUT_NULL_MESSAGE);
+                this.flushWriter();
                 return new Pair<>("exit", null);
             }
 
-            Pair<String, String[]> parts = this.getParts(input);
-            if (input.matches(regex)) {
+            Pair<String, String[]> parts = this.getParts(this.tokenizer.reset(input));
+            if (this.getPattern(regex).matcher(input).matches()) {
                 return parts;
             }
 
@@ -139,77 +363,160 @@ public class ConsoleReader {
                 return new Pair<>("exit", null);
             }
 
-            String option = this.getFromOptions(parts.getFirst(), options);
-            if (option != null) {
+            if (options.contains(parts.getFirst())) {
                 return parts;
             }
             this.printErrorMessage(INPUT_INVALID_MESSAGE);
         } while (true);
     }
 
+    /**
+     * Reads an input from the Reader and parses it with a precompiled CommandGrammar in a single pass. The input
+     * must be a command in the grammar, an option's name or an escape command. Commands take priority over options.
+     * If the input names a command but does not fit its spec, the problem is reported and the input is read again.
+     * <br><br>
+     * An escape command returns an "exit" command, and an option returns a command without a spec whose arguments
+     * are the following tokens.
+     *
+     * @param options MenuOptions to select from
+     * @param grammar CommandGrammar of the commands that can be entered, such as Menu.getCommandGrammar
+     * @return ParsedCommand representing the command or option that was entered
+     * @throws IOException An I/O exception occurred with the Reader or Writer.
+     */
+    public ParsedCommand readCommand(MenuOptions options, CommandGrammar grammar) throws IOException {
+        if (!this.canRead) {
+            throw new IOException(READER_CLOSED_ERROR_MESSAGE);
+        }
+
+        long deadline = this.deadline();
+        do {
+            this.printPrefixLine(READER_PREFIX);
+            String input = this.nextLine(deadline);
+            if (input == null && this.timedOut) {
+                return NO_COMMAND;
+            }
+            if (input == null) {
+                this.printErrorMessage(INPUT_NULL_MESSAGE);
+                this.flushWriter();
+                return ESCAPE_COMMAND;
+            }
+
+            InputTokenizer tokens = this.tokenizer.reset(input);
+            ParsedCommand command = grammar.parse(tokens);
+            if (command != null) {
+                if (command.isValid()) {
+                    return command;
+                }
+                this.printErrorMessage(COMMAND_INVALID_MESSAGE + command.getError() + "\n");
+                continue;
+            }
+
+            if (!tokens.isEmpty()) {
+                if (this.getEscapeCommands().contains(tokens.command())) {
+                    return ESCAPE_COMMAND;
+                }
+                int index = options.indexOf(tokens.command());
+                if (index != -1) {
+                    return ParsedCommand.ofOption(options.get(index), tokens.arguments());
+                }
+            }
+            this.printErrorMessage(INPUT_INVALID_MESSAGE);
+        } while (true);
+    }
+
     public boolean ready() {
         return this.canRead;
     }
 
+    /**
+     * Reads a line without prompting or resolving it, returning null when the input has ended.
+     */
+    String readLine() throws IOException {
+        if (!this.canRead) {
+            throw new IOException(READER_CLOSED_ERROR_MESSAGE);
+        }
+        return this.nextLine(-1);
+    }
+
     public void close() throws IOException {
         this.canRead = false;
-        this.br.close();
-        if (this.bw != null) {
-            this.canWrite = false;
-            this.bw.close();
+        if (this.source != null) {
+            this.source.close();
+        }
+        // A source created from the reader closes it once its read returns, as closing it here would wait for that
+        if (!this.sourceReadsReader) {
+            this.br.close();
+        }
+        if (this.writer != null) {
+            this.writer.close();
         }
     }
 
+    /**
+     * Writes and flushes a prompt, the same as before a read, without reading.
+     */
+    void prompt() throws IOException {
+        this.printPrefixLine(READER_PREFIX);
+    }
+
+    private long deadline() {
+        return this.timeoutNanos < 0 || this.source == null ? -1 : System.nanoTime() + this.timeoutNanos;
+    }
+
+    // Returns the next line, or null at the end of input or if the deadline passed first, which sets timedOut
+    private String nextLine(long deadline) throws IOException {
+        this.timedOut = false;
+        if (this.source == null) {
+            return this.br.readLine();
+        }
+        long wait = deadline < 0 ? -1 : Math.max(0, deadline - System.nanoTime());
+        String line = this.source.poll(wait, TimeUnit.NANOSECONDS);
+        if (line == null && !this.source.isEnded()) {
+            this.timedOut = true;
+        }
+        return line;
+    }
+
+    // Error messages are followed by a prompt or the end of the read, which flush them
     private void printErrorMessage(String message) throws IOException {
-        if (this.bw != null && this.canWrite) {
-            this.bw.write(message);
-            this.bw.flush();
+        if (this.writer != null && this.writer.ready()) {
+            this.writer.append(message);
         } else {
             System.err.println(message);
         }
     }
 
+    // Flushes everything written so far, as this is always followed by waiting for input
     private void printPrefixLine(String prefix) throws IOException {
-        if (this.bw != null && this.canWrite) {
-            this.bw.write("\n" + prefix);
-            this.bw.flush();
+        if (this.writer != null && this.writer.ready()) {
+            this.writer.append('\n').append(prefix);
+            this.writer.flush();
         }
     }
 
-    private boolean isEmpty(String input) {
-        return input == null || input.replace("\\s", "").length() == 0;
-    }
-
-    private Pair<String, String[]> getParts(String input) {
-        String regex = "\\s+";
-        if (this.isEmpty(input)) {
-            return new Pair<>("", new String[]{}); // No args as there is it is null, or is only the option / command name
-        }
-        String[] arr = input.split(regex);
-        if (arr.length > 1) {
-            return new Pair<>(arr[0], Arrays.copyOfRange(arr, 1, arr.length));
+    private void flushWriter() throws IOException {
+        if (this.writer != null && this.writer.ready()) {
+            this.writer.flush();
         }
-        return new Pair<>(arr[0], null);
     }
 
-    private int getOptionIndex(String command) {
-        if (command == null) {
-            return -1;
-        }
-        try {
-            return Integer.parseInt(command) - 1;
-        } catch (NumberFormatException e) {
-            return -1;
+    private Pattern getPattern(String regex) {
+        Pattern pattern = this.patterns.get(regex);
+        if (pattern == null) {
+            if (this.patterns.size() >= PATTERN_CACHE_LIMIT) {
+                this.patterns.clear(); // callers normally reuse a handful of expressions, so a full cache is unusual
+            }
+            pattern = Pattern.compile(regex);
+            this.patterns.put(regex, pattern);
         }
+        return pattern;
     }
 
-    private String getFromOptions(String command, List<String> options) {
-        for (String o : options) {
-            if (o.equalsIgnoreCase(command)) {
-                return o;
-            }
+    private Pair<String, String[]> getParts(InputTokenizer tokens) {
+        if (tokens.isEmpty()) {
+            return new Pair<>("", new String[]{}); // No args as there is it is null, or is only the option / command name
         }
-        return null;
+        return new Pair<>(tokens.command(), tokens.arguments());
     }
 
 
@@ -1,39 +1,73 @@
 package com.ethpalser.cli.console;
 
+import com.ethpalser.cli.jfr.RenderPhaseEvent;
+import com.ethpalser.cli.jfr.RunCycleEvent;
 import com.ethpalser.cli.menu.Context;
 import com.ethpalser.cli.menu.Menu;
 import com.ethpalser.cli.menu.MenuItem;
+import com.ethpalser.cli.menu.MenuOptions;
+import com.ethpalser.cli.menu.PathNavigator;
+import com.ethpalser.cli.menu.SearchIndex;
+import com.ethpalser.cli.menu.command.ParsedCommand;
+import com.ethpalser.cli.menu.event.AsyncDispatcher;
 import com.ethpalser.cli.menu.event.Event;
 import com.ethpalser.cli.menu.event.EventType;
 import com.ethpalser.cli.menu.event.Result;
 import com.ethpalser.cli.menu.exception.InvalidContextException;
+import com.ethpalser.cli.metrics.MetricsRegistry;
 import com.ethpalser.cli.util.Pair;
-import com.ethpalser.cli.util.StringUtils;
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
 import java.util.Arrays;
+import java.util.Deque;
 import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 public class ConsoleRunner {
 
-    private static final List<String> CONFIRM_OPTIONS = Arrays.asList("n", "y", "no", "yes");
+    private static final MenuOptions CONFIRM_OPTIONS = MenuOptions.of(Arrays.asList("n", "y", "no", "yes"));
+    private static final long SCRIPT_PENDING_TIMEOUT_SECONDS = 30;
+    private static final String CLOSE_QUESTION = "Closing the program, are you sure? (yes/no)";
+    private static final String SAVE_ON_CLOSE_QUESTION = "Closing with changes, do you want to save your changes? (yes/no)";
+    private static final String SAVE_ON_LEAVE_QUESTION = "Leaving with changes, do you want to save your changes? (yes/no)";
 
     private final Context context;
     private final ConsoleReader reader;
     private final ConsoleWriter writer;
+    private final PathNavigator navigator;
+    private BatchReport.Builder batch; // set while a script runs, so failures are reported instead of printed
+    private SessionRecorder recorder;
+    private String lastDisplay;
+    private String notice; // shown by the next render, see applyInput
+    private volatile boolean stopped;
+    private AsyncDispatcher dispatcher;
+    // Argument-less events are reused every cycle, as a runner only dispatches one event at a time, and
+    // asynchronous listeners are given a copy by the dispatcher
+    private final Event preRenderEvent;
+    private final Event renderEvent;
+    private final Event postRenderEvent;
+    private final Event closeEvent;
+    private final Consumer<AsyncDispatcher.Completion> completionReporter;
 
+    /**
+     * Creates a runner for a single session on the console. It uses the global Context, which is reset, so it
+     * replaces the navigation of any other runner using the global Context. Frames are appended to the output, see
+     * {@link #setRenderMode(RenderMode)} to render them differentially.
+     */
     public ConsoleRunner() {
-        this.context = Context.getInstance();
+        this(null, Context.getInstance(), new BufferedReader(new InputStreamReader(System.in)),
+                new ConsoleWriter(new BufferedWriter(new OutputStreamWriter(System.out))));
         this.context.reset();
-        this.context.setDefault(null);
-
-        BufferedWriter bw = new BufferedWriter(new OutputStreamWriter(System.out));
-        this.writer = new ConsoleWriter(bw);
-        BufferedReader br = new BufferedReader(new InputStreamReader(System.in));
-        this.reader = new ConsoleReader(br, bw);
     }
 
     public ConsoleRunner(Menu main) {
@@ -41,18 +75,73 @@ public class ConsoleRunner {
         this.context.setDefault(main);
     }
 
-    private Pair<String, String[]> awaitInput(ConsoleReader reader, List<String> options) {
+    /**
+     * Creates a runner for one of many sessions, with its own Context and i/o. The menus can be shared with other
+     * sessions, as each session's navigation is kept in its Context, which is bound to the thread running a cycle.
+     *
+     * @param main    Menu to use as the default menu
+     * @param context Context of this session
+     * @param br      BufferedReader to read this session's input from
+     * @param bw      BufferedWriter to write this session's output to
+     */
+    public ConsoleRunner(final Menu main, final Context context, final BufferedReader br, final BufferedWriter bw) {
+        this(main, context, br, new ConsoleWriter(bw));
+    }
+
+    ConsoleRunner(final Menu main, final Context context, final BufferedReader br, final ConsoleWriter writer) {
+        if (context == null) {
+            throw new IllegalArgumentException("context cannot be null");
+        }
+        this.context = context;
+        this.context.setDefault(main);
+        this.writer = writer;
+        this.reader = new ConsoleReader(br, this.writer);
+        this.dispatcher = new AsyncDispatcher(ForkJoinPool.commonPool());
+        this.navigator = new PathNavigator();
+        this.preRenderEvent = new Event(EventType.PRE_RENDER);
+        this.renderEvent = new Event(EventType.RENDER);
+        this.postRenderEvent = new Event(EventType.POST_RENDER);
+        this.closeEvent = new Event(EventType.ON_CLOSE);
+        this.completionReporter = completion -> this.report(completion.getResult());
+    }
+
+    private Pair<String, String[]> awaitInput(ConsoleReader reader, ConsoleWriter writer, MenuOptions options) {
         if (reader == null) {
             return new Pair<>("", null);
         }
         try {
-            return reader.readOption(options);
+            // A reader sharing the writer flushes the frame together with its prompt
+            if (writer != null && reader.getWriter() != writer) {
+                writer.flush();
+            }
+            MetricsRegistry metrics = MetricsRegistry.getActive();
+            long start = metrics == null ? 0 : System.nanoTime();
+            Pair<String, String[]> input = reader.readOption(options);
+            if (metrics != null) {
+                metrics.histogram(MetricsRegistry.INPUT_GROUP, "wait").record(System.nanoTime() - start);
+            }
+            if (this.recorder != null && input != null && input != ConsoleReader.NO_INPUT) {
+                this.record(input);
+            }
+            return input;
         } catch (IOException e) {
-            e.printStackTrace();
+            if (!this.stopped) {
+                e.printStackTrace(); // otherwise, the input was closed to stop this runner
+            }
         }
         return new Pair<>("", null);
     }
 
+    private void record(Pair<String, String[]> input) {
+        try {
+            this.recorder.record(this.context.getPath(), input, this.getLastDisplayHash());
+        } catch (IOException e) {
+            // Stop recording rather than fail every cycle
+            System.err.println("session recording stopped: " + e.getMessage());
+            this.recorder = null;
+        }
+    }
+
     private void awaitOutput(ConsoleWriter writer, String message) {
         if (writer == null) {
             return;
@@ -65,16 +154,56 @@ public class ConsoleRunner {
     }
 
     private void sendEvent(Event event, MenuItem receiver) {
-        Result result = receiver.receiveEvent(event);
+        this.report(receiver.receiveEvent(event, this.dispatcher));
+    }
+
+    private void sendRenderEvent(Event event, Menu receiver) {
+        RenderPhaseEvent recorded = RenderPhaseEvent.start(); // null unless Flight Recorder is recording it
+        this.sendEvent(event, receiver);
+        if (recorded != null) {
+            recorded.finish(event.getEventType().name(), receiver.getName());
+        }
+    }
+
+    private void report(Result result) {
         if (result.hasError()) {
-            System.err.println(result.getMessage());
+            MetricsRegistry metrics = MetricsRegistry.getActive();
+            if (metrics != null) {
+                metrics.counter(MetricsRegistry.RESULT_GROUP, "error").increment();
+            }
+            if (this.batch != null) {
+                this.batch.failure(result.getMessage());
+            } else {
+                System.err.println(result.getMessage());
+            }
+        }
+    }
+
+    private static boolean hasFlag(String[] args, String flag) {
+        if (args != null) {
+            for (String arg : args) {
+                if (flag.equalsIgnoreCase(arg)) {
+                    return true;
+                }
+            }
         }
+        return false;
+    }
+
+    private static boolean isYes(String answer) {
+        return "y".equalsIgnoreCase(answer) || "yes".equalsIgnoreCase(answer);
     }
 
     /**
      * Perform one cycle of sending events and receiving input. This may be used to perform finer control over the
      * runtime by specifying when a cycle should be performed. This method will never close the reader and writer
-     * provided to it, as such you should close these separately
+     * provided to it, as such you should close these separately. This runner's Context is bound to the current
+     * thread during the cycle.
+     *
+     * <br><br>
+     * Everything written during the cycle is written as one frame, which is flushed once right before waiting for
+     * input and again when the cycle ends. Asynchronous event listeners that finished since the last cycle are
+     * delivered at the start of the cycle.
      *
      * @param reader ConsoleReader that handles IO reads
      * @param writer ConsoleWriter that handles IO writes
@@ -88,62 +217,253 @@ public class ConsoleRunner {
         if (!reader.ready() || !writer.ready()) {
             throw new IOException("i/o streams closed");
         }
-        Menu activeMenu = this.context.peek();
-        if (activeMenu == null) {
-            throw new InvalidContextException();
+        Context previous = Context.bind(this.context);
+        RunCycleEvent recorded = RunCycleEvent.start(); // null unless Flight Recorder is recording it
+        Menu activeMenu = null;
+        boolean continued = false;
+        try {
+            // Listeners that finished since the last cycle may change the menus, so they are delivered before rendering
+            this.dispatcher.deliver(this.completionReporter);
+            activeMenu = this.context.peek();
+            if (activeMenu == null) {
+                throw new InvalidContextException();
+            }
+
+            writer.beginFrame();
+            try {
+                continued = this.runFrame(reader, writer, activeMenu);
+                return continued;
+            } finally {
+                if (writer.ready()) {
+                    writer.endFrame();
+                }
+            }
+        } finally {
+            if (recorded != null) {
+                recorded.finish(activeMenu == null ? null : activeMenu.getName(), continued);
+            }
+            Context.bind(previous);
+        }
+    }
+
+    private boolean runFrame(ConsoleReader reader, ConsoleWriter writer, Menu activeMenu) throws IOException {
+        this.renderFrame(writer, activeMenu);
+        if (this.notice != null) {
+            this.awaitOutput(writer, this.notice);
+            this.notice = null;
         }
 
-        this.sendEvent(new Event(EventType.PRE_RENDER), activeMenu);
-        this.awaitOutput(writer, activeMenu.getTextDisplay());
-        this.sendEvent(new Event(EventType.RENDER), activeMenu);
-        this.sendEvent(new Event(EventType.POST_RENDER), activeMenu);
+        MenuOptions visibleOptions = this.context.peek().getVisibleOptions();
+        Pair<String, String[]> input = this.awaitInput(reader, writer, visibleOptions);
+        if (input == ConsoleReader.NO_INPUT) {
+            return true; // the read timed out, so the next cycle renders again
+        }
+        return this.handleInput(input, visibleOptions, activeMenu, reader, this.interactive(reader, writer));
+    }
+
+    private void renderFrame(ConsoleWriter writer, Menu activeMenu) {
+        MetricsRegistry metrics = MetricsRegistry.getActive();
+        long start = metrics == null ? 0 : System.nanoTime();
+        this.sendRenderEvent(this.preRenderEvent, activeMenu);
+        RenderPhaseEvent display = RenderPhaseEvent.start();
+        this.lastDisplay = activeMenu.getTextDisplay();
+        this.awaitOutput(writer, this.lastDisplay);
+        if (display != null) {
+            display.finish(RenderPhaseEvent.DISPLAY_PHASE, activeMenu.getName());
+        }
+        this.sendRenderEvent(this.renderEvent, activeMenu);
+        this.sendRenderEvent(this.postRenderEvent, activeMenu);
+        if (metrics != null) {
+            metrics.histogram(MetricsRegistry.CYCLE_GROUP, "render").record(System.nanoTime() - start);
+            metrics.histogram(MetricsRegistry.CYCLE_GROUP, "display.length").record(
+                    this.lastDisplay == null ? 0 : this.lastDisplay.length());
+        }
+    }
+
+    private Confirmation interactive(ConsoleReader reader, ConsoleWriter writer) {
+        return question -> {
+            writer.write(question);
+            // A question waits for its answer, even if reads time out
+            long timeout = reader.getReadTimeoutNanos();
+            reader.setReadTimeout(-1, TimeUnit.NANOSECONDS);
+            try {
+                return isYes(this.awaitInput(reader, writer, CONFIRM_OPTIONS).getFirst());
+            } finally {
+                reader.setReadTimeout(timeout, TimeUnit.NANOSECONDS);
+            }
+        };
+    }
+
+    /**
+     * Renders the active menu as one frame ending with a prompt, without reading input. Asynchronous event
+     * listeners that finished since the last frame are delivered first. A notice left by the last input applied,
+     * such as why it was invalid, is displayed above the prompt.
+     */
+    void render() throws IOException, InvalidContextException {
+        Context previous = Context.bind(this.context);
+        try {
+            this.dispatcher.deliver(this.completionReporter);
+            Menu activeMenu = this.context.peek();
+            if (activeMenu == null) {
+                throw new InvalidContextException();
+            }
+            this.writer.beginFrame();
+            try {
+                this.renderFrame(this.writer, activeMenu);
+                if (this.notice != null) {
+                    this.writer.write(this.notice);
+                }
+                this.reader.prompt();
+            } finally {
+                if (this.writer.ready()) {
+                    this.writer.endFrame();
+                }
+            }
+        } finally {
+            Context.bind(previous);
+        }
+    }
+
+    /**
+     * Sends an event, such as a tick, to the active menu.
+     */
+    void sendToActive(Event event) throws InvalidContextException {
+        Context previous = Context.bind(this.context);
+        try {
+            Menu activeMenu = this.context.peek();
+            if (activeMenu == null) {
+                throw new InvalidContextException();
+            }
+            this.sendEvent(event, activeMenu);
+        } finally {
+            Context.bind(previous);
+        }
+    }
+
+    /**
+     * Answers questions with the next of the queued lines, and only reads the answer when none are queued, so an
+     * answer read together with the input asking for it is not skipped.
+     */
+    private Confirmation queued(Deque<String> queued, ConsoleReader reader, ConsoleWriter writer) {
+        Confirmation interactive = this.interactive(reader, writer);
+        return question -> {
+            String line = queued.poll();
+            if (line == null) {
+                return interactive.confirm(question);
+            }
+            writer.write(question);
+            Pair<String, String[]> answer = reader.resolveOption(line, CONFIRM_OPTIONS);
+            if (answer == null) {
+                return false; // as there is no chance to ask again, anything other than yes is no
+            }
+            if (this.recorder != null) {
+                this.record(answer);
+            }
+            return isYes(answer.getFirst());
+        };
+    }
+
+    /**
+     * Resolves and handles a line of input against the active menu, the same as input read by runCycle. If the line
+     * cannot be resolved, the reason is kept as a notice for the next render.
+     *
+     * @return false if an escape is confirmed, otherwise true
+     */
+    boolean applyInput(String line) throws IOException, InvalidContextException {
+        return this.applyInput(line, new ArrayDeque<>());
+    }
+
+    /**
+     * Resolves and handles a line of input, the same as {@link #applyInput(String)}, answering any confirmation it
+     * asks for with the lines queued after it first.
+     *
+     * @param line   String of input
+     * @param queued Deque of the lines of input following it, which answers are taken from
+     * @return false if an escape is confirmed, otherwise true
+     */
+    boolean applyInput(String line, Deque<String> queued) throws IOException, InvalidContextException {
+        Context previous = Context.bind(this.context);
+        try {
+            this.notice = null;
+            Menu activeMenu = this.context.peek();
+            if (activeMenu == null) {
+                throw new InvalidContextException();
+            }
+            MenuOptions visibleOptions = activeMenu.getVisibleOptions();
+            Pair<String, String[]> input = this.reader.resolveOption(line, visibleOptions);
+            if (input == null) {
+                MetricsRegistry metrics = MetricsRegistry.getActive();
+                if (metrics != null) {
+                    metrics.counter(MetricsRegistry.INPUT_GROUP, "invalid").increment();
+                }
+                this.notice = this.reader.getLastError();
+                return true;
+            }
+            if (this.recorder != null) {
+                this.record(input);
+            }
+            return this.handleInput(input, visibleOptions, activeMenu, this.reader,
+                    this.queued(queued, this.reader, this.writer));
+        } finally {
+            Context.bind(previous);
+        }
+    }
 
-        List<String> visibleOptions = this.context.peek().getChildren().values()
-                .stream().filter(child -> !child.isHidden())
-                .map(MenuItem::getName)
-                .toList();
-        Pair<String, String[]> input = this.awaitInput(reader, visibleOptions);
+    /**
+     * Acts on resolved input: escaping, going back, performing a command of the active menu or selecting one of its
+     * children. Confirmations are answered by the given Confirmation, so the same handling is used interactively
+     * and by scripts.
+     *
+     * @return false if an escape is confirmed, otherwise true
+     */
+    private boolean handleInput(Pair<String, String[]> input, MenuOptions visibleOptions, Menu activeMenu,
+            ConsoleReader reader, Confirmation confirmation) throws IOException {
         if (input == null || reader.getEscapeCommands().contains(input.getFirst())) {
-            // All visible options are capitalized words and all reserved commands are only lower case
             if (input != null) {
-                if (visibleOptions.contains(StringUtils.capitalizeWord(input.getFirst()))) {
+                if (visibleOptions.contains(input.getFirst())) {
                     return false; // Confirmation is not required if it is an option
                 }
-                if (input.getLast() != null && input.getLast().length > 0) {
-                    if (input.getLast()[0].equals("-y")) {
-                        return false;
-                    } else if (input.getLast()[0].equals("-n")) {
-                        return true;
-                    }
-                    // otherwise, go through manual confirmation
+                if (hasFlag(input.getLast(), "-y")) {
+                    return false;
+                } else if (hasFlag(input.getLast(), "-n")) {
+                    return true;
                 }
+                // otherwise, go through manual confirmation
             }
 
-            writer.write("Closing the program, are you sure? (yes/no)");
-            String confirm = this.awaitInput(reader, CONFIRM_OPTIONS).getFirst();
-            boolean close = "y".equalsIgnoreCase(confirm) || "yes".equalsIgnoreCase(confirm);
-
+            boolean close = confirmation.confirm(CLOSE_QUESTION);
             if (close && this.context.peek().isSubmitOnLeave()) {
-                writer.write("Closing with changes, do you want to save your changes? (yes/no)");
-                String doubleConfirm = this.awaitInput(reader, CONFIRM_OPTIONS).getFirst();
-                if ("y".equalsIgnoreCase(doubleConfirm) || "yes".equalsIgnoreCase(doubleConfirm)) {
-                    this.sendEvent(new Event(EventType.ON_CLOSE, null), this.context.peek());
+                if (confirmation.confirm(SAVE_ON_CLOSE_QUESTION)) {
+                    this.sendEvent(this.closeEvent, this.context.peek());
                 }
                 return false;
             }
             return !close;
         }
 
-        if (reader.getBackCommands().contains(input.getFirst())) {
-            if (this.context.peek().isSubmitOnLeave()) {
-                writer.write("Leaving with changes, do you want to save your changes? (yes/no)");
-                String confirmation = this.awaitInput(reader, CONFIRM_OPTIONS).getFirst();
-                if ("y".equalsIgnoreCase(confirmation) || "yes".equalsIgnoreCase(confirmation)) {
-                    this.sendEvent(new Event(EventType.ON_CLOSE, null), this.context.peek());
-                }
+        if (reader.getGotoCommands().contains(input.getFirst().toLowerCase(Locale.ROOT))) {
+            this.jumpToMatch(input.getLast());
+        } else if (PathNavigator.isPath(input.getFirst())) {
+            Result result = this.navigate(input.getFirst(), input.getLast());
+            if (result.hasError()) {
+                this.reportNotice(result.getMessage() + "\n");
+            }
+        } else if (reader.getBackCommands().contains(input.getFirst())) {
+            if (this.context.peek().isSubmitOnLeave() && confirmation.confirm(SAVE_ON_LEAVE_QUESTION)) {
+                this.sendEvent(this.closeEvent, this.context.peek());
             }
             this.context.pop();
         } else {
+            // Commands of the active menu were parsed when the input was resolved, and take priority over its children
+            ParsedCommand command = input instanceof ResolvedInput resolved ? resolved.getCommand() : null;
+            if (command != null) {
+                try {
+                    activeMenu.handleCommand(command);
+                } catch (Exception ex) {
+                    this.report(Result.error(ex)); // reported the same as a listener that throws
+                }
+                return true;
+            }
             MenuItem selected = activeMenu.getChild(input.getFirst());
             if (selected != null && !selected.isDisabled()) {
                 this.sendEvent(new Event(EventType.SELECT, input.getFirst(), input.getLast()), selected);
@@ -152,8 +472,224 @@ public class ConsoleRunner {
         return true;
     }
 
+    // A failure is shown by the next frame, or reported by the running script
+    private void reportNotice(String message) {
+        if (this.batch != null) {
+            this.batch.failure(message);
+        } else {
+            this.notice = message;
+        }
+    }
+
+    /**
+     * Navigates this runner's Context along a path, such as "start/advanced/custom", in one step, the same as when
+     * the path is typed. Events are sent with this runner's dispatcher. Paths resolved recently are cached by this
+     * runner's PathNavigator.
+     *
+     * @param path String of names or numbers separated by '/', starting from the default menu if it starts with '/'
+     * @param args String array of arguments for the item the path ends at, or null
+     * @return Result of following the path
+     * @see PathNavigator#navigate(Context, String, String[], AsyncDispatcher)
+     */
+    public Result navigate(String path, String[] args) {
+        return this.navigator.navigate(this.context, path, args, this.dispatcher);
+    }
+
+    /**
+     * Searches the tree from the default menu for the query and makes the menu of the best match active, which is
+     * the match itself if it is a menu, otherwise the menu containing it. The jump is refused if that menu or any
+     * of its ancestors is disabled, the same as a disabled path. The tree's SearchIndex is created by the first
+     * search, and kept up to date from then on.
+     */
+    private void jumpToMatch(String[] query) {
+        Menu root = this.context.getDefault();
+        String text = query == null ? "" : String.join(" ", query);
+        List<MenuItem> matches = root == null ? List.of() : SearchIndex.of(root).search(text, 1);
+        if (matches.isEmpty()) {
+            this.reportNotice("no match for: " + text + "\n");
+            return;
+        }
+        MenuItem match = matches.get(0);
+        Menu target = match instanceof Menu menu ? menu : match.getParent();
+        for (MenuItem item = target; item != null && item != root; item = item.getParent()) {
+            if (item.isDisabled()) {
+                this.reportNotice("match disabled at: " + item.getName() + "\n");
+                return;
+            }
+        }
+        if (target == null || !this.context.jumpTo(target)) {
+            this.reportNotice("match no longer in the menu tree: " + match.getName() + "\n");
+        }
+    }
+
+    /**
+     * Runs a script of commands against the menu tree without rendering menus or prompting. Each non-blank line is
+     * resolved against the active menu the same way as interactive input and handled through the same event
+     * dispatch, starting from the current context. Lines starting with '#' are comments. Confirmations are
+     * answered by flags given with a command, otherwise by the policy. The script stops early if an escape is
+     * confirmed.
+     * <br><br>
+     * The script is not closed, and neither are this runner's reader and writer.
+     *
+     * @param script BufferedReader of commands, one per line
+     * @param policy ConfirmPolicy to answer confirmations
+     * @return BatchReport of the number of commands, their rate and any failures
+     * @throws IOException An I/O exception occurred reading the script.
+     * @throws InvalidContextException There is no active menu to run a command against.
+     */
+    public BatchReport runScript(BufferedReader script, ConfirmPolicy policy) throws IOException,
+            InvalidContextException {
+        if (script == null || policy == null) {
+            throw new IllegalArgumentException("script and policy cannot be null");
+        }
+        ConsoleReader scriptReader = new ConsoleReader(script);
+        int[] lineNumber = {0};
+        Confirmation confirmation = question -> switch (policy) {
+            case ACCEPT -> true;
+            case REJECT -> false;
+            case SCRIPT -> {
+                lineNumber[0]++;
+                yield isYes(scriptReader.readLine());
+            }
+        };
+
+        BatchReport.Builder report = new BatchReport.Builder();
+        this.batch = report;
+        Context previous = Context.bind(this.context);
+        try {
+            String line;
+            while ((line = scriptReader.readLine()) != null) {
+                lineNumber[0]++;
+                if (line.isBlank() || line.stripLeading().startsWith("#")) {
+                    continue;
+                }
+                Menu activeMenu = this.context.peek();
+                if (activeMenu == null) {
+                    throw new InvalidContextException();
+                }
+                report.command(lineNumber[0]);
+
+                MenuOptions visibleOptions = activeMenu.getVisibleOptions();
+                Pair<String, String[]> input = scriptReader.resolveOption(line, visibleOptions);
+                if (input == null) {
+                    MetricsRegistry metrics = MetricsRegistry.getActive();
+                    if (metrics != null) {
+                        metrics.counter(MetricsRegistry.INPUT_GROUP, "invalid").increment();
+                    }
+                    report.failure(scriptReader.getLastError());
+                    continue;
+                }
+                if (!this.handleInput(input, visibleOptions, activeMenu, scriptReader, confirmation)) {
+                    report.escaped();
+                    break;
+                }
+                this.dispatcher.deliver(this.completionReporter);
+            }
+            // A script's results include the listeners it started
+            if (!this.dispatcher.awaitPending(SCRIPT_PENDING_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                report.failure("timed out waiting for " + this.dispatcher.getPendingCount() + " pending events");
+            }
+            this.dispatcher.deliver(this.completionReporter);
+        } finally {
+            this.batch = null;
+            Context.bind(previous);
+        }
+        return report.build();
+    }
+
+    /**
+     * Runs a script file of commands, the same as {@link #runScript(BufferedReader, ConfirmPolicy)}.
+     *
+     * @param script Path of a file of commands, one per line
+     * @param policy ConfirmPolicy to answer confirmations
+     * @return BatchReport of the number of commands, their rate and any failures
+     * @throws IOException An I/O exception occurred reading the script.
+     * @throws InvalidContextException There is no active menu to run a command against.
+     */
+    public BatchReport runScript(Path script, ConfirmPolicy policy) throws IOException, InvalidContextException {
+        try (BufferedReader br = Files.newBufferedReader(script)) {
+            return this.runScript(br, policy);
+        }
+    }
+
+    /**
+     * Sets a recorder to write each input read by runCycle to, or null to stop recording. The recorder is closed
+     * when this runner is closed.
+     *
+     * @param recorder SessionRecorder
+     */
+    public void setRecorder(SessionRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    public SessionRecorder getRecorder() {
+        return this.recorder;
+    }
+
+    /**
+     * Sets how this runner's writer renders each cycle, such as {@link RenderMode#detect()} to render differentially
+     * when the output is a terminal. The default is {@link RenderMode#APPEND}. When rendering differentially on a Unix
+     * terminal, its size is read so frames that do not fit are drawn whole, see
+     * {@link ConsoleWriter#setScreenSize(int, int)}.
+     *
+     * @param renderMode RenderMode
+     */
+    public void setRenderMode(RenderMode renderMode) {
+        this.writer.setRenderMode(renderMode);
+        if (renderMode == RenderMode.DIFFERENTIAL && TerminalMode.isSupported()) {
+            try {
+                int[] size = TerminalMode.size();
+                this.writer.setScreenSize(size[0], size[1]);
+            } catch (IOException e) {
+                System.err.println("terminal size unknown: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Sets the Executor asynchronous event listeners run on. The default is the common ForkJoinPool. This should be
+     * set before running, as listeners still running on the previous Executor are not delivered.
+     *
+     * @param executor Executor
+     */
+    public void setAsyncExecutor(Executor executor) {
+        this.dispatcher = new AsyncDispatcher(executor);
+    }
+
+    public AsyncDispatcher getAsyncDispatcher() {
+        return this.dispatcher;
+    }
+
+    /**
+     * Returns the reader of this runner's input, such as to set a read timeout or an InputSource.
+     *
+     * @return ConsoleReader
+     */
+    public ConsoleReader getReader() {
+        return this.reader;
+    }
+
+    Context getContext() {
+        return this.context;
+    }
+
+    /**
+     * Returns the hash of the text displayed by the last cycle, or 0 if nothing has been displayed.
+     */
+    int getLastDisplayHash() {
+        return this.lastDisplay == null ? 0 : this.lastDisplay.hashCode();
+    }
+
     public boolean ready() {
-        return this.reader.ready() && this.writer.ready() && this.context.getDefault() != null;
+        return !this.stopped && this.reader.ready() && this.writer.ready() && this.context.getDefault() != null;
+    }
+
+    /**
+     * Stops open from running another cycle, which can be called from another thread. The cycle in progress is not
+     * interrupted.
+     */
+    void stop() {
+        this.stopped = true;
     }
 
     /**
@@ -175,15 +711,31 @@ public class ConsoleRunner {
     }
 
     /**
-     * Closes reader and writer preventing further input from the user and ends the program.
+     * Closes reader and writer preventing further input from the user and ends the program. If metrics are enabled,
+     * they are written to the registry's dump target.
      */
     public void close() {
         try {
             this.reader.close();
             this.writer.close();
+            if (this.recorder != null) {
+                this.recorder.close();
+            }
         } catch (IOException ex) {
             ex.printStackTrace();
         }
+        MetricsRegistry metrics = MetricsRegistry.getActive();
+        if (metrics != null && metrics.getDumpTarget() != null) {
+            metrics.dump(metrics.getDumpTarget());
+        }
+    }
+
+    /**
+     * Answers a yes or no question, either by asking the user or on their behalf.
+     */
+    private interface Confirmation {
+
+        boolean confirm(String question) throws IOException;
     }
 
 }
@@ -6,18 +6,84 @@ import java.io.IOException;
 public class ConsoleWriter {
 
     private static final String WRITER_CLOSED_ERROR_MESSAGE = "writer closed";
+    private static final int FRAME_INITIAL_CAPACITY = 1024;
 
     private final BufferedWriter bw;
+    private final StringBuilder frame;
+    private char[] chars; // copy of the frame handed to the Writer, reused so flushing does not allocate
     private boolean canWrite;
+    private boolean inFrame;
+    private RenderMode renderMode;
+    private ScreenBuffer screen; // created when first rendering differentially
+    private StringBuilder diff;
+    private boolean frameChanged; // whether the frame has been written to since it was last rendered
 
     public ConsoleWriter(final BufferedWriter ioWriter) {
+        this(ioWriter, FRAME_INITIAL_CAPACITY);
+    }
+
+    /**
+     * Creates a writer whose frame buffer starts at the given capacity and grows as needed. A small capacity keeps
+     * the memory of an idle writer low, such as when many sessions are hosted at once.
+     *
+     * @param ioWriter      BufferedWriter to write to
+     * @param frameCapacity initial number of characters a frame can hold
+     */
+    public ConsoleWriter(final BufferedWriter ioWriter, final int frameCapacity) {
         this.bw = ioWriter;
+        this.frame = new StringBuilder(frameCapacity);
+        this.chars = new char[frameCapacity];
         this.canWrite = true;
+        this.inFrame = false;
+        this.renderMode = RenderMode.APPEND;
+        this.frameChanged = false;
+    }
+
+    /**
+     * Sets how frames are written. In {@link RenderMode#DIFFERENTIAL} mode, each frame is drawn over the previous
+     * one on a cleared screen, sending only what changed, while writes outside a frame are written as they are and
+     * cause the next frame to be drawn whole. The default is {@link RenderMode#APPEND}.
+     *
+     * @param renderMode RenderMode
+     */
+    public void setRenderMode(RenderMode renderMode) {
+        if (renderMode == null) {
+            throw new IllegalArgumentException("render mode cannot be null");
+        }
+        if (renderMode == RenderMode.DIFFERENTIAL && this.screen == null) {
+            this.screen = new ScreenBuffer();
+            this.diff = new StringBuilder(this.frame.capacity());
+        }
+        if (this.screen != null) {
+            this.screen.invalidate();
+        }
+        this.renderMode = renderMode;
+    }
+
+    public RenderMode getRenderMode() {
+        return this.renderMode;
+    }
+
+    /**
+     * Sets the size of the terminal, where 0 is a size that is not known, which is the default. When rendering
+     * differentially, a frame taller or wider than the terminal is written whole on a cleared screen, as drawing it
+     * line by line would be garbled when it scrolls or wraps. This should be set again when the terminal is resized.
+     *
+     * @param rows    int number of rows
+     * @param columns int number of columns
+     */
+    public void setScreenSize(int rows, int columns) {
+        if (this.screen == null) {
+            this.screen = new ScreenBuffer();
+            this.diff = new StringBuilder(this.frame.capacity());
+        }
+        this.screen.setSize(rows, columns);
     }
 
     /**
      * Writes a string with the Writer. This can write as long as the writer has not been closed. If the writer is
-     * closed an IOException is thrown.
+     * closed an IOException is thrown. Outside a frame the message is flushed immediately, after anything appended
+     * before it, otherwise it is kept until the frame is flushed.
      *
      * @param message String to write
      * @throws IOException An I/O exception occurred with the Writer or the Writer is closed.
@@ -26,17 +92,143 @@ public class ConsoleWriter {
         if (!canWrite) {
             throw new IOException(WRITER_CLOSED_ERROR_MESSAGE);
         }
+        if (this.inFrame) {
+            this.frame.append(message);
+            this.frameChanged = true;
+            return;
+        }
+        this.flush(); // anything appended outside a frame comes first
+        if (this.screen != null) {
+            this.screen.invalidate();
+        }
         this.bw.write(message);
         this.bw.flush();
     }
 
+    /**
+     * Writes characters without flushing them, even outside a frame. This is used to build a message from parts
+     * without concatenating them first.
+     *
+     * @param chars CharSequence to write
+     * @return this ConsoleWriter
+     * @throws IOException An I/O exception occurred with the Writer or the Writer is closed.
+     */
+    public ConsoleWriter append(CharSequence chars) throws IOException {
+        if (!canWrite) {
+            throw new IOException(WRITER_CLOSED_ERROR_MESSAGE);
+        }
+        this.frame.append(chars);
+        this.frameChanged = true;
+        return this;
+    }
+
+    /**
+     * Writes a character without flushing it, even outside a frame.
+     *
+     * @param c char to write
+     * @return this ConsoleWriter
+     * @throws IOException An I/O exception occurred with the Writer or the Writer is closed.
+     */
+    public ConsoleWriter append(char c) throws IOException {
+        if (!canWrite) {
+            throw new IOException(WRITER_CLOSED_ERROR_MESSAGE);
+        }
+        this.frame.append(c);
+        this.frameChanged = true;
+        return this;
+    }
+
+    /**
+     * Starts a frame. Until the frame ends, everything written is kept in a reusable buffer and only written when
+     * flush is called, so one frame (for example a menu, its prompt and any error messages) reaches the output in a
+     * single write.
+     * <br><br>
+     * When rendering differentially, the frame is everything written from here until it ends, and each flush draws
+     * it over the previous frame.
+     */
+    public void beginFrame() {
+        this.inFrame = true;
+    }
+
+    /**
+     * Flushes anything in the current frame and ends it, so following writes are flushed immediately.
+     *
+     * @throws IOException An I/O exception occurred with the Writer.
+     */
+    public void endFrame() throws IOException {
+        this.flush();
+        this.inFrame = false;
+        if (this.renderMode == RenderMode.DIFFERENTIAL) {
+            this.frame.setLength(0);
+            this.frameChanged = false;
+        }
+    }
+
+    public boolean isInFrame() {
+        return this.inFrame;
+    }
+
+    /**
+     * Writes everything that has not been written yet and flushes the Writer. This must be called before waiting
+     * for input so the user sees the whole frame. A frame that has been started stays open after flushing.
+     *
+     * @throws IOException An I/O exception occurred with the Writer.
+     */
+    public void flush() throws IOException {
+        if (this.frame.length() == 0 || this.bw == null || !this.canWrite) {
+            return;
+        }
+        if (this.renderMode == RenderMode.DIFFERENTIAL) {
+            if (this.inFrame) {
+                this.flushDifference();
+                return;
+            }
+            this.screen.invalidate();
+        }
+        this.writeChars(this.frame);
+        this.frame.setLength(0);
+    }
+
+    // The frame is kept, as later flushes of the same frame draw all of it again
+    private void flushDifference() throws IOException {
+        if (!this.frameChanged) {
+            return;
+        }
+        this.diff.setLength(0);
+        this.screen.render(this.frame, this.diff);
+        this.frameChanged = false;
+        this.writeChars(this.diff);
+    }
+
+    private void writeChars(StringBuilder sb) throws IOException {
+        int length = sb.length();
+        if (this.chars.length < length) {
+            this.chars = new char[Math.max(length, this.chars.length * 2)];
+        }
+        sb.getChars(0, length, this.chars, 0);
+        this.bw.write(this.chars, 0, length);
+        this.bw.flush();
+    }
+
     public boolean ready() {
         return this.canWrite;
     }
 
+    /**
+     * Flushes anything not yet written and closes the Writer. Closing more than once has no effect.
+     *
+     * @throws IOException An I/O exception occurred with the Writer.
+     */
     public void close() throws IOException {
+        if (!this.canWrite) {
+            return;
+        }
+        this.flush();
         this.canWrite = false;
-        this.bw.close();
+        this.inFrame = false;
+        if (this.bw != null) {
+            this.bw.close();
+        }
     }
 
 }
@@ -0,0 +1,263 @@
+package com.ethpalser.cli.console;
+
+import com.ethpalser.cli.menu.event.TickEvent;
+import com.ethpalser.cli.menu.exception.InvalidContextException;
+import com.ethpalser.cli.metrics.Histogram;
+import com.ethpalser.cli.metrics.MetricsRegistry;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GameLoop runs a ConsoleRunner at a steady rate instead of waiting for input. The active menu is sent a
+ * {@link TickEvent} at a fixed timestep, and is rendered after ticks at no more than a capped frame rate. Input is
+ * read without blocking into a queue, and each line is applied at the start of the next tick, resolved and handled
+ * the same as input read by {@link ConsoleRunner#runCycle(ConsoleReader, ConsoleWriter)}.
+ * <br><br>
+ * When ticks take longer than the timestep, the loop catches up by running ticks back to back without rendering
+ * between them, up to a limit. If it is still behind after that, the missed ticks are skipped, so the simulation
+ * slows down instead of spiralling further behind. The time each tick takes, and how many ticks and frames were late
+ * or skipped, are kept as statistics.
+ * <br><br>
+ * This works best with {@link RenderMode#DIFFERENTIAL}, as each frame is otherwise appended to the last.
+ */
+public class GameLoop {
+
+    public static final int DEFAULT_TICK_RATE = 20;
+    public static final int DEFAULT_FRAME_RATE = 30;
+    public static final int DEFAULT_MAX_CATCH_UP_TICKS = 5;
+
+    private final ConsoleRunner runner;
+    private final Deque<String> inputs;
+    private final Histogram tickTimes;
+    private long tickNanos;
+    private long frameNanos;
+    private int maxCatchUpTicks;
+    private volatile boolean running;
+    private long ticks;
+    private long lateTicks;
+    private long skippedTicks;
+    private long frames;
+    private long skippedFrames;
+
+    public GameLoop(final ConsoleRunner runner) {
+        if (runner == null) {
+            throw new IllegalArgumentException("runner cannot be null");
+        }
+        this.runner = runner;
+        this.inputs = new ArrayDeque<>();
+        this.tickTimes = new Histogram("tick");
+        this.tickNanos = TimeUnit.SECONDS.toNanos(1) / DEFAULT_TICK_RATE;
+        this.frameNanos = TimeUnit.SECONDS.toNanos(1) / DEFAULT_FRAME_RATE;
+        this.maxCatchUpTicks = DEFAULT_MAX_CATCH_UP_TICKS;
+        this.running = false;
+    }
+
+    /**
+     * Sets the number of ticks per second, which is the fixed timestep of the simulation.
+     *
+     * @param ticksPerSecond int number of ticks per second
+     * @return this loop
+     */
+    public GameLoop setTickRate(int ticksPerSecond) {
+        if (ticksPerSecond <= 0) {
+            throw new IllegalArgumentException("tick rate must be positive");
+        }
+        this.tickNanos = TimeUnit.SECONDS.toNanos(1) / ticksPerSecond;
+        return this;
+    }
+
+    /**
+     * Sets the most frames rendered per second. Frames are only rendered after a tick, so a frame rate above the
+     * tick rate renders once per tick.
+     *
+     * @param framesPerSecond int most frames per second
+     * @return this loop
+     */
+    public GameLoop setFrameRate(int framesPerSecond) {
+        if (framesPerSecond <= 0) {
+            throw new IllegalArgumentException("frame rate must be positive");
+        }
+        this.frameNanos = TimeUnit.SECONDS.toNanos(1) / framesPerSecond;
+        return this;
+    }
+
+    /**
+     * Sets the most ticks run back to back to catch up when ticks overrun, after which the remaining missed ticks
+     * are skipped.
+     *
+     * @param maxCatchUpTicks int most ticks run before rendering
+     * @return this loop
+     */
+    public GameLoop setMaxCatchUpTicks(int maxCatchUpTicks) {
+        if (maxCatchUpTicks <= 0) {
+            throw new IllegalArgumentException("catch up ticks must be positive");
+        }
+        this.maxCatchUpTicks = maxCatchUpTicks;
+        return this;
+    }
+
+    /**
+     * Runs the loop until an escape is confirmed, the input ends or the loop is stopped, then closes the runner. The
+     * runner's reader is given a read timeout, if it does not have one, so input can be taken without waiting.
+     */
+    public void run() {
+        ConsoleReader reader = this.runner.getReader();
+        if (reader.getInputSource() == null || reader.getReadTimeoutNanos() < 0) {
+            reader.setReadTimeout(0, TimeUnit.NANOSECONDS);
+        }
+        this.running = true;
+        try {
+            this.loop(reader.getInputSource());
+        } catch (InvalidContextException ex) {
+            System.err.println(ex.getMessage());
+        } catch (IOException ioEx) {
+            if (this.running) {
+                ioEx.printStackTrace(); // otherwise, the input was closed to stop this loop
+            }
+        } finally {
+            this.running = false;
+            this.runner.close();
+        }
+    }
+
+    /**
+     * Stops the loop after its current tick or frame, which can be called from another thread or a listener.
+     */
+    public void stop() {
+        this.running = false;
+        this.runner.stop();
+    }
+
+    public boolean isRunning() {
+        return this.running;
+    }
+
+    private void loop(InputSource source) throws IOException, InvalidContextException {
+        TickEvent tick = new TickEvent(this.tickNanos);
+        long now = System.nanoTime();
+        long nextTick = now;
+        long nextFrame = now;
+        boolean updated = false;
+        while (this.running && this.runner.ready()) {
+            int caughtUp = 0;
+            while (now - nextTick >= 0 && caughtUp < this.maxCatchUpTicks) {
+                if (!this.applyInputs()) {
+                    return;
+                }
+                this.tick(tick);
+                nextTick += this.tickNanos;
+                caughtUp++;
+                updated = true;
+                now = System.nanoTime();
+            }
+
+            if (now - nextTick >= 0) {
+                // Still behind after catching up, so the missed ticks are dropped and the frame is skipped
+                long behind = (now - nextTick) / this.tickNanos + 1;
+                this.skippedTicks += behind;
+                nextTick += behind * this.tickNanos;
+                if (now - nextFrame >= 0) {
+                    this.skippedFrames++;
+                }
+            } else if (updated && now - nextFrame >= 0) {
+                this.runner.render();
+                this.frames++;
+                updated = false;
+                now = System.nanoTime();
+                nextFrame = Math.max(nextFrame + this.frameNanos, now);
+            }
+
+            // Waiting for input is the loop's sleep until the next tick
+            String line = source.poll(Math.max(0, nextTick - now), TimeUnit.NANOSECONDS);
+            while (line != null) {
+                this.inputs.add(line);
+                line = source.poll(0, TimeUnit.NANOSECONDS);
+            }
+            if (source.isEnded()) {
+                this.applyInputs(); // the end of input is taken as an escape, as by ConsoleReader
+                return;
+            }
+            now = System.nanoTime();
+        }
+    }
+
+    private boolean applyInputs() throws IOException, InvalidContextException {
+        String line;
+        while ((line = this.inputs.poll()) != null) {
+            // A confirmation the line asks for is answered by the lines after it
+            if (!this.runner.applyInput(line, this.inputs)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void tick(TickEvent tick) throws InvalidContextException {
+        tick.next();
+        long start = System.nanoTime();
+        this.runner.sendToActive(tick);
+        long elapsed = System.nanoTime() - start;
+        this.ticks++;
+        if (elapsed > this.tickNanos) {
+            this.lateTicks++;
+        }
+        this.tickTimes.record(elapsed);
+        MetricsRegistry metrics = MetricsRegistry.getActive();
+        if (metrics != null) {
+            metrics.histogram(MetricsRegistry.CYCLE_GROUP, "tick").record(elapsed);
+        }
+    }
+
+    public long getTickCount() {
+        return this.ticks;
+    }
+
+    /**
+     * Returns the number of ticks that took longer than the timestep.
+     *
+     * @return long
+     */
+    public long getLateTicks() {
+        return this.lateTicks;
+    }
+
+    /**
+     * Returns the number of ticks dropped because the loop fell further behind than it could catch up.
+     *
+     * @return long
+     */
+    public long getSkippedTicks() {
+        return this.skippedTicks;
+    }
+
+    public long getFrameCount() {
+        return this.frames;
+    }
+
+    /**
+     * Returns the number of frames that were due but not rendered because the loop was behind.
+     *
+     * @return long
+     */
+    public long getSkippedFrames() {
+        return this.skippedFrames;
+    }
+
+    /**
+     * Returns the nanoseconds each tick's listeners took.
+     *
+     * @return Histogram
+     */
+    public Histogram getTickTimes() {
+        return this.tickTimes;
+    }
+
+    @Override
+    public String toString() {
+        return "ticks=" + this.ticks + " late=" + this.lateTicks + " skipped=" + this.skippedTicks
+                + " frames=" + this.frames + " skippedFrames=" + this.skippedFrames + " " + this.tickTimes;
+    }
+
+}
@@ -0,0 +1,32 @@
+package com.ethpalser.cli.console;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * InputSource gives a ConsoleReader its input one line at a time without blocking past a deadline, so a program can
+ * keep running while it waits for the user. A line may also be a single key when the terminal is in raw mode, see
+ * {@link QueuedInputSource#keys(java.io.Reader)}.
+ */
+public interface InputSource extends Closeable {
+
+    /**
+     * Returns the next line of input, waiting up to the timeout for one. A timeout of 0 returns immediately, and a
+     * negative timeout waits until a line is available or the input ends.
+     *
+     * @param timeout long time to wait
+     * @param unit    TimeUnit of the timeout
+     * @return String of the line without its line terminator, or null if there is no line yet or the input ended
+     * @throws IOException An I/O exception occurred reading the input, or the source is closed.
+     */
+    String poll(long timeout, TimeUnit unit) throws IOException;
+
+    /**
+     * Determines if the input has ended and every line of it has been returned.
+     *
+     * @return boolean (true/false)
+     */
+    boolean isEnded();
+
+}
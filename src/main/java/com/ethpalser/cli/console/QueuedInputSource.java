@@ -0,0 +1,179 @@
+package com.ethpalser.cli.console;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * QueuedInputSource reads input on a daemon thread into a queue, which is polled with a deadline. Java cannot select
+ * on a console or a blocking stream, so a thread blocking on the stream in the program's place is the portable way
+ * to stop a read from holding up the program.
+ * <br><br>
+ * The reading thread owns the Reader. Closing this source does not wait for the read in progress, the Reader is
+ * closed by the thread when its read returns.
+ */
+public class QueuedInputSource implements InputSource {
+
+    private static final String END = new String("end of input"); // compared by identity
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+    private static final int ESCAPE = 0x1B;
+    private static final long ESCAPE_SEQUENCE_WAIT_MILLIS = 10;
+    private static final long ESCAPE_POLL_NANOS = 100_000;
+
+    private final BlockingQueue<String> queue;
+    private final Thread thread;
+    private volatile IOException failure;
+    private volatile boolean closed;
+    private boolean ended;
+
+    private QueuedInputSource(final Reader reader, final UnitReader unitReader) {
+        this.queue = new LinkedBlockingQueue<>();
+        this.closed = false;
+        this.ended = false;
+        this.thread = new Thread(() -> this.run(reader, unitReader), "input-" + THREAD_COUNT.incrementAndGet());
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Creates a source giving each line read from the Reader.
+     *
+     * @param reader BufferedReader to read lines from
+     * @return QueuedInputSource
+     */
+    public static QueuedInputSource lines(BufferedReader reader) {
+        return new QueuedInputSource(reader, r -> ((BufferedReader) r).readLine());
+    }
+
+    /**
+     * Creates a source giving each key read from the Reader as soon as it is typed, which requires the terminal to
+     * be in raw mode, see {@link TerminalMode}. A key is a single character, or a whole escape sequence such as
+     * "\033[A" for the up arrow. Enter is given as an empty line.
+     *
+     * @param reader Reader of the terminal's input
+     * @return QueuedInputSource
+     */
+    public static QueuedInputSource keys(Reader reader) {
+        return new QueuedInputSource(reader, QueuedInputSource::readKey);
+    }
+
+    @Override
+    public String poll(long timeout, TimeUnit unit) throws IOException {
+        if (this.closed) {
+            throw new IOException("input source closed");
+        }
+        if (this.ended) {
+            return null;
+        }
+        String line;
+        try {
+            line = timeout < 0 ? this.queue.take() : this.queue.poll(timeout, unit);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted waiting for input");
+        }
+        if (line == END) {
+            this.ended = true;
+            if (this.failure != null) {
+                throw this.failure;
+            }
+            return null;
+        }
+        return line;
+    }
+
+    @Override
+    public boolean isEnded() {
+        return this.ended;
+    }
+
+    @Override
+    public void close() {
+        this.closed = true;
+        this.thread.interrupt();
+    }
+
+    private void run(Reader reader, UnitReader unitReader) {
+        try {
+            while (!this.closed) {
+                String unit = unitReader.read(reader);
+                if (unit == null) {
+                    break;
+                }
+                this.queue.add(unit);
+            }
+        } catch (IOException e) {
+            if (!this.closed) {
+                this.failure = e;
+            }
+        } finally {
+            this.queue.add(END);
+            try {
+                reader.close();
+            } catch (IOException e) {
+                // The source is done with the reader either way
+            }
+        }
+    }
+
+    private static String readKey(Reader reader) throws IOException {
+        int c = reader.read();
+        if (c < 0) {
+            return null;
+        }
+        if (c == '\r' || c == '\n') {
+            return "";
+        }
+        if (Character.isHighSurrogate((char) c)) {
+            int low = reader.read();
+            return low < 0 ? String.valueOf((char) c) : new String(new char[]{(char) c, (char) low});
+        }
+        if (c != ESCAPE) {
+            return String.valueOf((char) c);
+        }
+        return readEscapeSequence(reader);
+    }
+
+    // An escape alone is the escape key. A sequence arrives at once, so a short wait tells them apart.
+    private static String readEscapeSequence(Reader reader) throws IOException {
+        StringBuilder sequence = new StringBuilder().append((char) ESCAPE);
+        long deadline = System.currentTimeMillis() + ESCAPE_SEQUENCE_WAIT_MILLIS;
+        while (!reader.ready()) {
+            if (System.currentTimeMillis() >= deadline) {
+                return sequence.toString();
+            }
+            LockSupport.parkNanos(ESCAPE_POLL_NANOS);
+        }
+        int introducer = reader.read();
+        if (introducer < 0) {
+            return sequence.toString();
+        }
+        sequence.append((char) introducer);
+        if (introducer != '[' && introducer != 'O') {
+            return sequence.toString(); // alt and a key
+        }
+        // Parameters and intermediates up to a final byte in @ to ~
+        int c;
+        while ((c = reader.read()) >= 0) {
+            sequence.append((char) c);
+            if (c >= 0x40 && c <= 0x7E && sequence.length() > 2) {
+                break;
+            }
+        }
+        return sequence.toString();
+    }
+
+    /**
+     * Reads one unit of input, a line or a key, returning null at the end of the input.
+     */
+    private interface UnitReader {
+        String read(Reader reader) throws IOException;
+    }
+
+}
@@ -0,0 +1,31 @@
+package com.ethpalser.cli.console;
+
+/**
+ * RenderMode decides how a ConsoleWriter writes each frame.
+ */
+public enum RenderMode {
+    /**
+     * Each frame is written after the last, so the output scrolls. This works with any output, such as a file, a pipe
+     * or a terminal without ANSI support.
+     */
+    APPEND,
+    /**
+     * Each frame replaces the last on a terminal supporting ANSI escape codes, and only the lines that changed are
+     * sent. A frame that did not change only redraws the prompt.
+     */
+    DIFFERENTIAL;
+
+    /**
+     * Returns DIFFERENTIAL if the program is attached to a terminal that is not known to lack ANSI support, otherwise
+     * APPEND.
+     *
+     * @return RenderMode
+     */
+    public static RenderMode detect() {
+        String term = System.getenv("TERM");
+        if (System.console() == null || term == null || term.isEmpty() || "dumb".equals(term)) {
+            return APPEND;
+        }
+        return DIFFERENTIAL;
+    }
+}
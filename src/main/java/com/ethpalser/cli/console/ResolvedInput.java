@@ -0,0 +1,23 @@
+package com.ethpalser.cli.console;
+
+import com.ethpalser.cli.menu.command.ParsedCommand;
+import com.ethpalser.cli.util.Pair;
+
+/**
+ * ResolvedInput is input resolved by {@link ConsoleReader#resolveOption} to a command of the active menu. It keeps
+ * the ParsedCommand the line was parsed to, so the command is handled without parsing the line again.
+ */
+final class ResolvedInput extends Pair<String, String[]> {
+
+    private final ParsedCommand command;
+
+    ResolvedInput(final String first, final String[] last, final ParsedCommand command) {
+        super(first, last);
+        this.command = command;
+    }
+
+    ParsedCommand getCommand() {
+        return this.command;
+    }
+
+}
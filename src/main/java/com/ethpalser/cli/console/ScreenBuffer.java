@@ -0,0 +1,163 @@
+package com.ethpalser.cli.console;
+
+/**
+ * ScreenBuffer keeps the lines of the last frame drawn to a terminal, so the next frame can be drawn by sending only
+ * the lines that changed. Lines are addressed from the top of the screen with ANSI cursor positioning, starting from
+ * a cleared screen.
+ * <br><br>
+ * After a frame is drawn the cursor is left at the end of its last line, where the user types their input. Anything
+ * from there down is treated as unknown, as it holds the echo of the input and anything written outside of frames,
+ * so it is always redrawn and erased below. Everything above is compared with the previous frame and only the part
+ * of a line after its first change is sent. Characters are assumed to take one column each, so a line with a control
+ * character or a non-ASCII character before its first change is sent whole.
+ * <br><br>
+ * Lines are addressed assuming each takes one row of the screen. A frame with more lines than the screen has rows, or
+ * with a line longer than the screen is wide, would scroll or wrap, so it is written as it is on a cleared screen and
+ * the next frame is drawn whole.
+ */
+final class ScreenBuffer {
+
+    static final String CSI = "\033[";
+    static final String CLEAR_SCREEN = CSI + "H" + CSI + "2J";
+    static final String ERASE_LINE = CSI + "K";
+    static final String ERASE_BELOW = CSI + "J";
+
+    private StringBuilder previous;
+    private StringBuilder next;
+    private int[] previousStarts; // start of each line, followed by the length of the frame plus one
+    private int[] nextStarts;
+    private int previousLines;
+    private boolean valid;
+    private int rows;
+    private int columns;
+    private int widest; // length of the longest line of the next frame
+
+    ScreenBuffer() {
+        this.previous = new StringBuilder();
+        this.next = new StringBuilder();
+        this.previousStarts = new int[16];
+        this.nextStarts = new int[16];
+        this.previousLines = 0;
+        this.valid = false;
+        this.rows = 0;
+        this.columns = 0;
+        this.widest = 0;
+    }
+
+    /**
+     * Sets the size of the terminal, where 0 is a size that is not known. A frame that does not fit, together with
+     * the line the input is echoed on, scrolls or wraps, so it is written whole on a cleared screen instead.
+     *
+     * @param rows    int number of rows
+     * @param columns int number of columns
+     */
+    void setSize(int rows, int columns) {
+        this.rows = Math.max(0, rows);
+        this.columns = Math.max(0, columns);
+        this.valid = false;
+    }
+
+    /**
+     * Forgets what is on the screen, so the next frame clears it and is drawn whole.
+     */
+    void invalidate() {
+        this.valid = false;
+    }
+
+    boolean isValid() {
+        return this.valid;
+    }
+
+    /**
+     * Appends to out what must be sent to change the screen from the previous frame to the given frame, and keeps
+     * the given frame to compare the next one with.
+     *
+     * @param frame CharSequence of the whole frame
+     * @param out   StringBuilder to append the output to
+     */
+    void render(CharSequence frame, StringBuilder out) {
+        this.next.setLength(0);
+        this.next.append(frame);
+        int lines = this.splitLines();
+        boolean fits = (this.rows == 0 || lines < this.rows) && (this.columns == 0 || this.widest < this.columns);
+
+        if (!fits) {
+            out.append(CLEAR_SCREEN).append(this.next);
+        } else {
+            int known = this.valid ? this.previousLines : 0; // lines of the previous frame still on the screen
+            if (!this.valid) {
+                out.append(CLEAR_SCREEN);
+            }
+            for (int i = 0; i < lines; i++) {
+                this.renderLine(i, i < known, i == lines - 1, i >= known - 1, out);
+            }
+        }
+
+        StringBuilder swap = this.previous;
+        this.previous = this.next;
+        this.next = swap;
+        int[] swapStarts = this.previousStarts;
+        this.previousStarts = this.nextStarts;
+        this.nextStarts = swapStarts;
+        this.previousLines = lines;
+        this.valid = fits;
+    }
+
+    private void renderLine(int line, boolean known, boolean last, boolean dirty, StringBuilder out) {
+        int start = this.nextStarts[line];
+        int end = this.nextStarts[line + 1] - 1;
+        int length = end - start;
+        int prefix = 0;
+        int previousLength = 0;
+        if (known) {
+            int previousStart = this.previousStarts[line];
+            previousLength = this.previousStarts[line + 1] - 1 - previousStart;
+            int limit = Math.min(length, previousLength);
+            int same = 0;
+            while (same < limit && this.next.charAt(start + same) == this.previous.charAt(previousStart + same)) {
+                same++;
+            }
+            if (same == length && length == previousLength && !last && !dirty) {
+                return; // unchanged, and nothing else has been written over it
+            }
+            while (prefix < same && isSingleColumn(this.next.charAt(start + prefix))) {
+                prefix++;
+            }
+        }
+
+        out.append(CSI).append(line + 1).append(';').append(prefix + 1).append('H');
+        out.append(this.next, start + prefix, end);
+        if (last) {
+            out.append(ERASE_BELOW);
+        } else if (!known || dirty || previousLength > length) {
+            out.append(ERASE_LINE);
+        }
+    }
+
+    // Records the start of each line of the next frame and the longest line, returning the number of lines
+    private int splitLines() {
+        int lines = 0;
+        int start = 0;
+        int length = this.next.length();
+        this.widest = 0;
+        for (int i = 0; i <= length; i++) {
+            if (i == length || this.next.charAt(i) == '\n') {
+                this.widest = Math.max(this.widest, i - start);
+                if (lines + 2 > this.nextStarts.length) {
+                    int[] grown = new int[this.nextStarts.length * 2];
+                    System.arraycopy(this.nextStarts, 0, grown, 0, lines);
+                    this.nextStarts = grown;
+                }
+                this.nextStarts[lines++] = start;
+                start = i + 1;
+            }
+        }
+        this.nextStarts[lines] = length + 1;
+        return lines;
+    }
+
+    private static boolean isSingleColumn(char c) {
+        return c >= 0x20 && c < 0x7F;
+    }
+
+}
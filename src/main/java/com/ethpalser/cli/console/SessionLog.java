@@ -0,0 +1,177 @@
+package com.ethpalser.cli.console;
+
+import com.ethpalser.cli.util.Pair;
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * SessionLog reads the records of a log written by {@link SessionRecorder}, one at a time, so logs of any length can
+ * be replayed without loading them whole. Logs of the previous format version, whose strings were limited to 64 KB,
+ * are read as well.
+ */
+public class SessionLog implements Closeable {
+
+    private final DataInputStream in;
+    private final int version;
+    private final long startEpochMillis;
+    private final List<String> strings;
+    private long offsetNanos;
+
+    public SessionLog(final InputStream in) throws IOException {
+        this.in = new DataInputStream(new BufferedInputStream(in));
+        this.strings = new ArrayList<>();
+        this.offsetNanos = 0;
+        if (this.in.readInt() != SessionRecorder.MAGIC) {
+            throw new IOException("not a session log");
+        }
+        this.version = this.in.readUnsignedByte();
+        if (this.version != SessionRecorder.FORMAT_VERSION && this.version != 1) {
+            throw new IOException("unsupported session log version " + this.version);
+        }
+        this.startEpochMillis = this.in.readLong();
+    }
+
+    /**
+     * Opens a log file for reading.
+     *
+     * @param file Path of the log
+     * @return SessionLog
+     * @throws IOException An I/O exception occurred, or the file is not a session log.
+     */
+    public static SessionLog open(Path file) throws IOException {
+        return new SessionLog(Files.newInputStream(file));
+    }
+
+    public long getStartEpochMillis() {
+        return this.startEpochMillis;
+    }
+
+    /**
+     * Reads the next record, or returns null if there are no more. A record cut short, such as by the program being
+     * killed while writing it, is treated as the end of the log.
+     *
+     * @return Record
+     * @throws IOException An I/O exception occurred, or the log is corrupt.
+     */
+    public Record next() throws IOException {
+        int first = this.in.read();
+        if (first < 0) {
+            return null;
+        }
+        try {
+            this.offsetNanos += readVarLong(this.in, first);
+            int depth = (int) readVarLong(this.in, this.in.readUnsignedByte());
+            List<String> path = new ArrayList<>(depth);
+            for (int i = 0; i < depth; i++) {
+                path.add(this.readString());
+            }
+            String option = this.readString();
+            long argc = readVarLong(this.in, this.in.readUnsignedByte());
+            String[] args = null;
+            if (argc > 0) {
+                args = new String[(int) argc - 1];
+                for (int i = 0; i < args.length; i++) {
+                    args[i] = this.readString();
+                }
+            }
+            int displayHash = this.in.readInt();
+            return new Record(this.offsetNanos, path, new Pair<>(option, args), displayHash);
+        } catch (EOFException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.in.close();
+    }
+
+    private String readString() throws IOException {
+        long index = readVarLong(this.in, this.in.readUnsignedByte());
+        if (index == 0) {
+            String value = this.version == 1 ? this.in.readUTF() : this.readUtf8();
+            this.strings.add(value);
+            return value;
+        }
+        if (index > this.strings.size()) {
+            throw new IOException("corrupt session log, unknown string " + index);
+        }
+        return this.strings.get((int) index - 1);
+    }
+
+    private String readUtf8() throws IOException {
+        long length = readVarLong(this.in, this.in.readUnsignedByte());
+        if (length > Integer.MAX_VALUE - 8) {
+            throw new IOException("corrupt session log, string of " + length + " bytes");
+        }
+        byte[] bytes = new byte[(int) length];
+        this.in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static long readVarLong(DataInputStream in, int firstByte) throws IOException {
+        long value = firstByte & 0x7F;
+        int b = firstByte;
+        int shift = 7;
+        while ((b & 0x80) != 0) {
+            if (shift > 63) {
+                throw new IOException("corrupt session log, variable length integer too long");
+            }
+            b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        }
+        return value;
+    }
+
+    /**
+     * One input of a recorded session.
+     */
+    public static final class Record {
+
+        private final long offsetNanos;
+        private final List<String> path;
+        private final Pair<String, String[]> input;
+        private final int displayHash;
+
+        Record(final long offsetNanos, final List<String> path, final Pair<String, String[]> input,
+                final int displayHash) {
+            this.offsetNanos = offsetNanos;
+            this.path = Collections.unmodifiableList(path);
+            this.input = input;
+            this.displayHash = displayHash;
+        }
+
+        /**
+         * Returns the nanoseconds from the start of recording to when this input was read.
+         *
+         * @return long
+         */
+        public long getOffsetNanos() {
+            return this.offsetNanos;
+        }
+
+        public List<String> getPath() {
+            return this.path;
+        }
+
+        public Pair<String, String[]> getInput() {
+            return this.input;
+        }
+
+        public int getDisplayHash() {
+            return this.displayHash;
+        }
+    }
+
+}
@@ -0,0 +1,136 @@
+package com.ethpalser.cli.console;
+
+import com.ethpalser.cli.util.Pair;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * SessionRecorder writes each input a ConsoleRunner resolves to a compact binary log, together with the menu path it
+ * was given on, when it was given and a hash of what was displayed. The log can be read with {@link SessionLog} and
+ * replayed with {@link SessionReplayer}.
+ * <br><br>
+ * The log starts with a header of {@link #MAGIC}, {@link #FORMAT_VERSION} and the time recording started in epoch
+ * milliseconds. Each record is then:
+ * <ul>
+ *     <li>the nanoseconds since the previous record, as a variable length integer</li>
+ *     <li>the number of menus in the path, followed by each menu name</li>
+ *     <li>the option name</li>
+ *     <li>the number of arguments plus one (zero if there are none), followed by each argument</li>
+ *     <li>the hash of the displayed text, as an int</li>
+ * </ul>
+ * Strings are written once, as their length in UTF-8 bytes followed by the bytes, and afterward referred to by their
+ * index, as menu names and options repeat often. Variable length integers are written seven bits at a time, lowest
+ * first, with the high bit set on every byte but the last.
+ * Records are flushed as they are written, so a log is complete up to the last input even if the program is killed.
+ */
+public class SessionRecorder implements Closeable {
+
+    static final int MAGIC = 0x47434C52; // "GCLR"
+    static final int FORMAT_VERSION = 2; // version 1 wrote strings with writeUTF, limiting them to 64 KB
+
+    private final DataOutputStream out;
+    private final Map<String, Integer> strings;
+    private long lastNanos;
+    private boolean closed;
+
+    public SessionRecorder(final OutputStream out) throws IOException {
+        this.out = new DataOutputStream(new BufferedOutputStream(out));
+        this.strings = new HashMap<>();
+        this.lastNanos = System.nanoTime();
+        this.closed = false;
+        this.out.writeInt(MAGIC);
+        this.out.writeByte(FORMAT_VERSION);
+        this.out.writeLong(System.currentTimeMillis());
+        this.out.flush();
+    }
+
+    /**
+     * Creates a recorder writing to a file, replacing it if it exists.
+     *
+     * @param file Path of the log
+     * @return SessionRecorder
+     * @throws IOException An I/O exception occurred creating the file.
+     */
+    public static SessionRecorder open(Path file) throws IOException {
+        return new SessionRecorder(Files.newOutputStream(file));
+    }
+
+    /**
+     * Writes a record of an input.
+     *
+     * @param path        List of menu names from the default menu to the active menu
+     * @param input       Pair of the option name and its arguments, as resolved by a ConsoleReader
+     * @param displayHash int hash of the text displayed before the input was read
+     * @throws IOException An I/O exception occurred writing the record.
+     */
+    public void record(List<String> path, Pair<String, String[]> input, int displayHash) throws IOException {
+        if (this.closed) {
+            throw new IOException("recorder closed");
+        }
+        long now = System.nanoTime();
+        writeVarLong(this.out, now - this.lastNanos);
+        this.lastNanos = now;
+
+        writeVarLong(this.out, path.size());
+        for (String name : path) {
+            this.writeString(name);
+        }
+        this.writeString(input.getFirst());
+        String[] args = input.getLast();
+        writeVarLong(this.out, args == null ? 0 : args.length + 1L);
+        if (args != null) {
+            for (String arg : args) {
+                this.writeString(arg);
+            }
+        }
+        this.out.writeInt(displayHash);
+        this.out.flush();
+    }
+
+    public boolean isClosed() {
+        return this.closed;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (this.closed) {
+            return;
+        }
+        this.closed = true;
+        this.out.close();
+    }
+
+    // A known string is written as its index + 1, and a new string as 0 followed by the string
+    private void writeString(String value) throws IOException {
+        String s = value == null ? "" : value;
+        Integer index = this.strings.get(s);
+        if (index != null) {
+            writeVarLong(this.out, index + 1L);
+            return;
+        }
+        this.strings.put(s, this.strings.size());
+        writeVarLong(this.out, 0);
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(this.out, bytes.length);
+        this.out.write(bytes);
+    }
+
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        long v = value;
+        while ((v & ~0x7FL) != 0) {
+            out.writeByte((int) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        out.writeByte((int) v);
+    }
+
+}
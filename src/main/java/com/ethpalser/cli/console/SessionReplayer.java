@@ -0,0 +1,184 @@
+package com.ethpalser.cli.console;
+
+import com.ethpalser.cli.menu.MenuOptions;
+import com.ethpalser.cli.menu.exception.InvalidContextException;
+import com.ethpalser.cli.util.Pair;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * SessionReplayer feeds a recorded session back through {@link ConsoleRunner#runCycle(ConsoleReader, ConsoleWriter)},
+ * so the same menus are rendered and the same events are dispatched as when it was recorded. Inputs can be replayed at
+ * the pace they were recorded, to reproduce a report as the user experienced it, or as fast as possible, which makes
+ * a recording a load test of the menu tree it was recorded on.
+ * <br><br>
+ * When verifying, the menu path and the hash of the displayed text are compared to the recording before each input,
+ * and each difference is reported as a failure of that input. Output is discarded either way.
+ */
+public class SessionReplayer {
+
+    private final ConsoleRunner runner;
+    private boolean recordedPace;
+    private boolean verify;
+
+    public SessionReplayer(final ConsoleRunner runner) {
+        if (runner == null) {
+            throw new IllegalArgumentException("runner cannot be null");
+        }
+        this.runner = runner;
+        this.recordedPace = false;
+        this.verify = false;
+    }
+
+    /**
+     * Sets whether inputs wait until the time they were given in the recording, otherwise they are given as soon as
+     * they are read, which is the default.
+     *
+     * @param recordedPace boolean (true/false)
+     * @return this replayer
+     */
+    public SessionReplayer setRecordedPace(boolean recordedPace) {
+        this.recordedPace = recordedPace;
+        return this;
+    }
+
+    /**
+     * Sets whether the menu path and displayed text are compared to the recording. This is off by default.
+     *
+     * @param verify boolean (true/false)
+     * @return this replayer
+     */
+    public SessionReplayer setVerify(boolean verify) {
+        this.verify = verify;
+        return this;
+    }
+
+    /**
+     * Replays a log file from the runner's current context.
+     *
+     * @param file Path of a log written by SessionRecorder
+     * @return BatchReport of the number of inputs replayed, their rate and any differences found
+     * @throws IOException An I/O exception occurred reading the log.
+     * @throws InvalidContextException There is no active menu to give an input to.
+     */
+    public BatchReport replay(Path file) throws IOException, InvalidContextException {
+        try (SessionLog log = SessionLog.open(file)) {
+            return this.replay(log);
+        }
+    }
+
+    /**
+     * Replays the remaining records of a log from the runner's current context. Replay ends when the log ends or an
+     * escape closes the program. The log is not closed.
+     *
+     * @param log SessionLog to replay
+     * @return BatchReport of the number of inputs replayed, their rate and any differences found
+     * @throws IOException An I/O exception occurred reading the log.
+     * @throws InvalidContextException There is no active menu to give an input to.
+     */
+    public BatchReport replay(SessionLog log) throws IOException, InvalidContextException {
+        BatchReport.Builder report = new BatchReport.Builder();
+        ReplayReader reader = new ReplayReader(log, report);
+        ConsoleWriter writer = new ConsoleWriter(new BufferedWriter(Writer.nullWriter()));
+        while (reader.hasNext()) {
+            if (!this.runner.runCycle(reader, writer)) {
+                if (reader.hasNext()) {
+                    report.escaped();
+                }
+                break;
+            }
+        }
+        return report.build();
+    }
+
+    /**
+     * Gives the recorded inputs in place of reading them, checking them against the runner first when verifying.
+     */
+    private final class ReplayReader extends ConsoleReader {
+
+        private final SessionLog log;
+        private final BatchReport.Builder report;
+        private final long startNanos;
+        private SessionLog.Record next;
+        private int count;
+
+        private ReplayReader(final SessionLog log, final BatchReport.Builder report) throws IOException {
+            super((BufferedReader) null);
+            this.log = log;
+            this.report = report;
+            this.startNanos = System.nanoTime();
+            this.next = log.next();
+            this.count = 0;
+        }
+
+        private boolean hasNext() {
+            return this.next != null;
+        }
+
+        @Override
+        public Pair<String, String[]> readOption(MenuOptions options) throws IOException {
+            SessionLog.Record record = this.next;
+            if (record == null) {
+                return new Pair<>("", null); // The log ended during a confirmation, which is taken as no
+            }
+            this.next = this.log.next();
+            this.report.command(++this.count);
+
+            if (SessionReplayer.this.verify) {
+                this.verify(record);
+            }
+            if (SessionReplayer.this.recordedPace) {
+                // Parking can return early, so it is repeated until the recorded time is reached
+                long deadline = this.startNanos + record.getOffsetNanos();
+                long wait;
+                while ((wait = deadline - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+            }
+            // The input is resolved again, so a command is parsed against the menu it is replayed on
+            Pair<String, String[]> input = record.getInput();
+            Pair<String, String[]> resolved = options == null ? null : this.resolveOption(line(input), options);
+            return resolved != null ? resolved : input;
+        }
+
+        private static String line(Pair<String, String[]> input) {
+            if (input.getLast() == null || input.getLast().length == 0) {
+                return input.getFirst();
+            }
+            return input.getFirst() + " " + String.join(" ", input.getLast());
+        }
+
+        @Override
+        public Pair<String, String[]> readOption(List<String> options) throws IOException {
+            return this.readOption(options == null ? null : MenuOptions.of(options));
+        }
+
+        @Override
+        public boolean ready() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+            // The log is owned by the caller of replay
+        }
+
+        private void verify(SessionLog.Record record) {
+            List<String> path = SessionReplayer.this.runner.getContext().getPath();
+            if (!path.equals(record.getPath())) {
+                this.report.failure("expected menu " + String.join("/", record.getPath())
+                        + " but was " + String.join("/", path));
+            }
+            int displayHash = SessionReplayer.this.runner.getLastDisplayHash();
+            if (displayHash != record.getDisplayHash()) {
+                this.report.failure("display of " + String.join("/", path) + " changed");
+            }
+        }
+    }
+
+}
@@ -0,0 +1,222 @@
+package com.ethpalser.cli.console;
+
+import com.ethpalser.cli.menu.Context;
+import com.ethpalser.cli.menu.Menu;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * SessionRuntime hosts many sessions in one program, such as one for each player connected to a server. Every session
+ * runs its own ConsoleRunner with its own Context and i/o on its own thread, while all sessions share one menu tree.
+ * <br><br>
+ * Sessions run on virtual threads when the Java runtime has them, so an idle session waiting for input only holds its
+ * Context, a few small buffers and a parked thread. Otherwise, each session runs on a platform thread with a small
+ * stack. The shared menus should not be changed while sessions are running, other than by their listeners. LazyMenus
+ * in the shared tree should use the default {@link com.ethpalser.cli.menu.MenuBudget}, which never releases them
+ * while sessions run, as a budget that releases menus changes the tree from whichever session loads one.
+ */
+public class SessionRuntime implements Closeable {
+
+    // Kept small so an idle session costs a few KB. Longer lines and frames still work, as the buffers grow or are
+    // bypassed when needed.
+    static final int SESSION_BUFFER_SIZE = 256;
+    private static final long PLATFORM_THREAD_STACK_SIZE = 256 * 1024;
+
+    private final Menu main;
+    private final ExecutorService executor;
+    private final boolean virtualThreads;
+    private final Set<Session> sessions;
+
+    /**
+     * Creates a runtime for a menu tree, running sessions on virtual threads if they are available.
+     *
+     * @param main Menu to use as the default menu of every session
+     */
+    public SessionRuntime(final Menu main) {
+        this(main, VirtualThreads.newExecutor(), true);
+    }
+
+    /**
+     * Creates a runtime for a menu tree, running sessions with the given executor. The executor needs a thread for
+     * each running session, as a session blocks its thread while waiting for input.
+     *
+     * @param main     Menu to use as the default menu of every session
+     * @param executor ExecutorService to run sessions with, or null to use platform threads
+     */
+    public SessionRuntime(final Menu main, final ExecutorService executor) {
+        this(main, executor, false);
+    }
+
+    private SessionRuntime(final Menu main, final ExecutorService executor, final boolean virtualThreads) {
+        if (main == null) {
+            throw new IllegalArgumentException("main menu cannot be null");
+        }
+        this.main = main;
+        this.virtualThreads = virtualThreads && executor != null;
+        this.executor = executor != null ? executor : newPlatformThreadExecutor();
+        this.sessions = ConcurrentHashMap.newKeySet();
+    }
+
+    /**
+     * Starts a session reading input from and writing output to the given streams. The session runs until it
+     * escapes, its input ends or it is closed, after which its streams are closed.
+     *
+     * @param in  InputStream of the session's input
+     * @param out OutputStream for the session's output
+     * @return Session
+     */
+    public Session start(InputStream in, OutputStream out) {
+        BufferedReader br = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), SESSION_BUFFER_SIZE);
+        BufferedWriter bw = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8),
+                SESSION_BUFFER_SIZE);
+        ConsoleWriter writer = new ConsoleWriter(bw, SESSION_BUFFER_SIZE);
+        ConsoleRunner runner = new ConsoleRunner(this.main, new Context(), br, writer);
+
+        Session session = new Session(runner, in);
+        this.sessions.add(session);
+        session.future = this.executor.submit(() -> {
+            session.thread = Thread.currentThread();
+            try {
+                runner.open(); // returns immediately if the session was closed before it started
+            } finally {
+                session.thread = null;
+                this.sessions.remove(session);
+            }
+        });
+        return session;
+    }
+
+    /**
+     * Returns the number of sessions that have started and not yet ended.
+     *
+     * @return int
+     */
+    public int getActiveSessions() {
+        return this.sessions.size();
+    }
+
+    public boolean isUsingVirtualThreads() {
+        return this.virtualThreads;
+    }
+
+    /**
+     * Closes every running session and waits briefly for them to end. Sessions blocked reading a stream that does
+     * not respond to being closed are interrupted.
+     */
+    @Override
+    public void close() {
+        for (Session session : this.sessions) {
+            session.close();
+        }
+        this.executor.shutdown();
+        try {
+            if (!this.executor.awaitTermination(1, TimeUnit.SECONDS)) {
+                this.executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            this.executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static ExecutorService newPlatformThreadExecutor() {
+        AtomicInteger count = new AtomicInteger();
+        ThreadFactory factory = task -> {
+            Thread thread = new Thread(null, task, "session-" + count.incrementAndGet(), PLATFORM_THREAD_STACK_SIZE);
+            thread.setDaemon(true);
+            return thread;
+        };
+        return Executors.newCachedThreadPool(factory);
+    }
+
+    /**
+     * Creates virtual thread executors by reflection, so this compiles and runs on Java versions without them.
+     */
+    private static final class VirtualThreads {
+
+        private static final Method FACTORY = find();
+
+        private static Method find() {
+            try {
+                return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            } catch (NoSuchMethodException e) {
+                return null;
+            }
+        }
+
+        /**
+         * Returns a new executor starting a virtual thread per task, or null if virtual threads are not available.
+         */
+        private static ExecutorService newExecutor() {
+            if (FACTORY == null) {
+                return null;
+            }
+            try {
+                return (ExecutorService) FACTORY.invoke(null);
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                return null; // such as when virtual threads are a disabled preview feature
+            }
+        }
+    }
+
+    /**
+     * One running session of a SessionRuntime.
+     */
+    public static final class Session {
+
+        private final ConsoleRunner runner;
+        private final InputStream in;
+        private volatile Future<?> future;
+        private volatile Thread thread;
+
+        private Session(final ConsoleRunner runner, final InputStream in) {
+            this.runner = runner;
+            this.in = in;
+        }
+
+        public ConsoleRunner getRunner() {
+            return this.runner;
+        }
+
+        public boolean isDone() {
+            Future<?> f = this.future;
+            return f != null && f.isDone();
+        }
+
+        /**
+         * Ends the session once its current cycle finishes. Its input stream is closed to stop it waiting for input,
+         * and the rest of its i/o is closed by the session's own thread.
+         */
+        public void close() {
+            this.runner.stop();
+            try {
+                // Closed directly, as closing the BufferedReader would wait for the read in progress
+                this.in.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+            // Streams that are not unblocked by closing them, such as pipes, are unblocked by an interrupt
+            Thread t = this.thread;
+            if (t != null) {
+                t.interrupt();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,109 @@
+package com.ethpalser.cli.console;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * TerminalMode puts a Unix terminal, such as on Linux or macOS, into raw mode with stty, so each key is available as
+ * soon as it is typed instead of after Enter, and keys are not echoed. Closing it restores the terminal's previous
+ * settings, which should be done before the program exits, such as with try-with-resources.
+ * <br><br>
+ * The terminal is the controlling terminal of the program, /dev/tty, so this works while System.in is the terminal.
+ * Signals, such as Ctrl+C, still interrupt the program.
+ */
+public class TerminalMode implements Closeable {
+
+    private static final File TTY = new File("/dev/tty");
+
+    private final String previousSettings;
+    private boolean closed;
+
+    private TerminalMode(final String previousSettings) {
+        this.previousSettings = previousSettings;
+        this.closed = false;
+    }
+
+    /**
+     * Determines if the program has a Unix terminal whose mode can be changed.
+     *
+     * @return boolean (true/false)
+     */
+    public static boolean isSupported() {
+        return System.console() != null && TTY.exists() && !System.getProperty("os.name", "").startsWith("Windows");
+    }
+
+    /**
+     * Puts the terminal in raw mode, reading a key at a time without echoing it.
+     *
+     * @return TerminalMode to close to restore the previous mode
+     * @throws IOException The terminal is not supported or stty failed.
+     */
+    public static TerminalMode raw() throws IOException {
+        if (!isSupported()) {
+            throw new IOException("raw mode requires a Unix terminal");
+        }
+        String previous = stty("-g").trim();
+        stty("-icanon", "-echo", "min", "1", "time", "0");
+        return new TerminalMode(previous);
+    }
+
+    /**
+     * Reads the size of the terminal with stty, which is independent of its mode.
+     *
+     * @return int array of the number of rows then the number of columns
+     * @throws IOException The terminal is not supported or stty failed.
+     */
+    public static int[] size() throws IOException {
+        if (!isSupported()) {
+            throw new IOException("reading the size requires a Unix terminal");
+        }
+        String[] size = stty("size").trim().split(" ");
+        try {
+            return new int[]{Integer.parseInt(size[0]), Integer.parseInt(size[size.length - 1])};
+        } catch (NumberFormatException e) {
+            throw new IOException("unexpected size from stty: " + String.join(" ", size), e);
+        }
+    }
+
+    /**
+     * Restores the settings the terminal had before raw mode. Closing more than once has no effect.
+     *
+     * @throws IOException stty failed.
+     */
+    @Override
+    public void close() throws IOException {
+        if (this.closed) {
+            return;
+        }
+        this.closed = true;
+        stty(this.previousSettings);
+    }
+
+    private static String stty(String... args) throws IOException {
+        String[] command = new String[args.length + 1];
+        command[0] = "stty";
+        System.arraycopy(args, 0, command, 1, args.length);
+        Process process = new ProcessBuilder(command)
+                .redirectInput(ProcessBuilder.Redirect.from(TTY))
+                .redirectErrorStream(true)
+                .start();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (InputStream in = process.getInputStream()) {
+            in.transferTo(output);
+        }
+        try {
+            if (process.waitFor() != 0) {
+                throw new IOException("stty failed: " + output.toString(StandardCharsets.UTF_8).trim());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted waiting for stty", e);
+        }
+        return output.toString(StandardCharsets.UTF_8);
+    }
+
+}
@@ -0,0 +1,55 @@
+package com.ethpalser.cli.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event for a change to a session's menu stack. The stack trace shows the listener that navigated.
+ */
+@Name("com.ethpalser.cli.ContextChange")
+@Label("Context Change")
+@Category({"Game CLI", "Navigation"})
+@Description("A menu pushed onto or popped from a session's Context")
+public final class ContextChangeEvent extends Event {
+
+    public static final String PUSH = "push";
+    public static final String POP = "pop";
+    public static final String RESET = "reset";
+
+    @Label("Action")
+    @Description("push, pop or reset")
+    String action;
+
+    @Label("Menu")
+    @Description("Menu pushed or popped")
+    String menu;
+
+    @Label("Depth")
+    @Description("Number of menus on the stack after the change")
+    int depth;
+
+    /**
+     * Commits a change if Flight Recorder is recording this event, without allocating otherwise.
+     *
+     * @param action String such as {@link #PUSH}
+     * @param menu   String name of the menu pushed or popped, or null
+     * @param depth  int number of menus on the stack after the change
+     */
+    public static void emit(String action, String menu, int depth) {
+        if (!FlightRecorder.isInitialized()) {
+            return;
+        }
+        ContextChangeEvent event = new ContextChangeEvent();
+        if (event.shouldCommit()) {
+            event.action = action;
+            event.menu = menu;
+            event.depth = depth;
+            event.commit();
+        }
+    }
+
+}
@@ -0,0 +1,71 @@
+package com.ethpalser.cli.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for one call of MenuItem.receiveEvent, including its capturing and bubbling listeners.
+ */
+@Name("com.ethpalser.cli.Dispatch")
+@Label("Menu Event Dispatch")
+@Category({"Game CLI", "Events"})
+@Description("An event sent to a menu item and its listeners")
+@StackTrace(false)
+public final class DispatchEvent extends Event {
+
+    @Label("Event Type")
+    String eventType;
+
+    @Label("Menu")
+    String menu;
+
+    @Label("Error")
+    @Description("Whether the Result had an error")
+    boolean error;
+
+    @Label("Pending")
+    @Description("Whether an asynchronous listener is still running")
+    boolean pending;
+
+    /**
+     * Starts timing a dispatch, or returns null without allocating if Flight Recorder has never been started.
+     *
+     * @return DispatchEvent
+     */
+    public static DispatchEvent start() {
+        if (!FlightRecorder.isInitialized()) {
+            return null;
+        }
+        DispatchEvent event = new DispatchEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Ends timing the dispatch and commits it if it passes the recording's threshold.
+     *
+     * @param eventType String name of the EventType
+     * @param menu      String name of the item the event was sent to
+     * @param error     boolean whether the Result had an error
+     * @param pending   boolean whether the Result is pending
+     */
+    public void finish(String eventType, String menu, boolean error, boolean pending) {
+        this.end();
+        if (this.shouldCommit()) {
+            this.eventType = eventType;
+            this.menu = menu;
+            this.error = error;
+            this.pending = pending;
+            this.commit();
+        }
+    }
+
+}
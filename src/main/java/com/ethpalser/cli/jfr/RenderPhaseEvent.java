@@ -0,0 +1,63 @@
+package com.ethpalser.cli.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for one phase of rendering a menu: dispatching PRE_RENDER, building and writing the display,
+ * dispatching RENDER and dispatching POST_RENDER.
+ */
+@Name("com.ethpalser.cli.RenderPhase")
+@Label("Render Phase")
+@Category({"Game CLI", "Runner"})
+@Description("One phase of rendering the active menu")
+@StackTrace(false)
+public final class RenderPhaseEvent extends Event {
+
+    public static final String DISPLAY_PHASE = "DISPLAY";
+
+    @Label("Phase")
+    @Description("PRE_RENDER, DISPLAY, RENDER or POST_RENDER")
+    String phase;
+
+    @Label("Menu")
+    String menu;
+
+    /**
+     * Starts timing a phase, or returns null without allocating if Flight Recorder has never been started.
+     *
+     * @return RenderPhaseEvent
+     */
+    public static RenderPhaseEvent start() {
+        if (!FlightRecorder.isInitialized()) {
+            return null;
+        }
+        RenderPhaseEvent event = new RenderPhaseEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Ends timing the phase and commits it if it passes the recording's threshold.
+     *
+     * @param phase String name of the phase
+     * @param menu  String name of the menu being rendered
+     */
+    public void finish(String phase, String menu) {
+        this.end();
+        if (this.shouldCommit()) {
+            this.phase = phase;
+            this.menu = menu;
+            this.commit();
+        }
+    }
+
+}
@@ -0,0 +1,61 @@
+package com.ethpalser.cli.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for one ConsoleRunner.runCycle, from delivering completions to handling the input read.
+ */
+@Name("com.ethpalser.cli.RunCycle")
+@Label("Run Cycle")
+@Category({"Game CLI", "Runner"})
+@Description("One cycle of rendering a menu, reading input and handling it, including the time waiting for input")
+@StackTrace(false)
+public final class RunCycleEvent extends Event {
+
+    @Label("Menu")
+    @Description("Active menu at the start of the cycle")
+    String menu;
+
+    @Label("Continued")
+    @Description("False if the cycle ended with an escape")
+    boolean continued;
+
+    /**
+     * Starts timing a cycle, or returns null without allocating if Flight Recorder has never been started.
+     *
+     * @return RunCycleEvent
+     */
+    public static RunCycleEvent start() {
+        if (!FlightRecorder.isInitialized()) {
+            return null;
+        }
+        RunCycleEvent event = new RunCycleEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Ends timing the cycle and commits it if it passes the recording's threshold.
+     *
+     * @param menu      String name of the active menu
+     * @param continued boolean false if the cycle ended with an escape
+     */
+    public void finish(String menu, boolean continued) {
+        this.end();
+        if (this.shouldCommit()) {
+            this.menu = menu;
+            this.continued = continued;
+            this.commit();
+        }
+    }
+
+}
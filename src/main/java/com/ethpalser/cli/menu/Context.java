@@ -1,27 +1,66 @@
 package com.ethpalser.cli.menu;
 
+import com.ethpalser.cli.jfr.ContextChangeEvent;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 
+/**
+ * Context is the navigation state of one session: the stack of menus the user has opened and the default menu to
+ * return to. Each session has its own Context, while the menus themselves can be shared between sessions.
+ * <br><br>
+ * Listeners find the Context of the session they are running in with {@link #getInstance()}, which returns the
+ * Context bound to the current thread, or a global Context if none is bound. A Context is not safe to use from several
+ * threads at once, but a session only uses it from the thread running it.
+ */
 public class Context {
 
-    private static Context context;
+    private static final Context GLOBAL = new Context();
+    private static final ThreadLocal<Context> CURRENT = new ThreadLocal<>();
+
+    private static final LazyMenu[] NO_PINS = new LazyMenu[0];
 
     private final Deque<Menu> menus;
+    private final Deque<LazyMenu[]> pins; // LazyMenus pinned by each menu on the stack, popped together
+    private final Map<Menu, Integer> pages; // page of each PagedMenu this session has paged through
     private Menu defaultMenu;
     private boolean updated;
 
-    private Context() {
+    public Context() {
         this.menus = new ArrayDeque<>();
+        this.pins = new ArrayDeque<>();
+        this.pages = new IdentityHashMap<>();
         this.defaultMenu = null;
         this.updated = false;
     }
 
+    /**
+     * Returns the Context bound to the current thread, or the global Context if none is bound.
+     *
+     * @return Context
+     */
     public static Context getInstance() {
-        if (context == null) {
-            context = new Context();
-        }
-        return context;
+        Context current = CURRENT.get();
+        return current != null ? current : GLOBAL;
+    }
+
+    /**
+     * Binds a Context to the current thread, so it is returned by getInstance until another is bound. Binding null
+     * returns the thread to using the global Context. This is intended to be used around running a session, restoring
+     * the previous Context afterward.
+     *
+     * @param context Context to bind, or null
+     * @return the Context bound before, or null if none was
+     */
+    public static Context bind(Context context) {
+        Context previous = CURRENT.get();
+        // Set rather than removed, so binding every cycle reuses the thread's entry instead of allocating one
+        CURRENT.set(context);
+        return previous;
     }
 
     /**
@@ -47,7 +86,9 @@ public class Context {
             return;
         }
         this.menus.push(next);
+        this.pins.push(pin(next));
         this.updated = true;
+        ContextChangeEvent.emit(ContextChangeEvent.PUSH, next == null ? null : next.getName(), this.menus.size());
     }
 
     /**
@@ -62,7 +103,99 @@ public class Context {
             return this.defaultMenu;
         }
         this.updated = true;
-        return this.menus.pop();
+        Menu popped = this.menus.pop();
+        unpin(this.pins.pop());
+        ContextChangeEvent.emit(ContextChangeEvent.POP, popped == null ? null : popped.getName(), this.menus.size());
+        return popped;
+    }
+
+    /**
+     * Replaces the stack with the path from the default menu down to the given menu, as if each menu on the way had
+     * been entered one at a time. No events are sent to the menus on the way.
+     *
+     * @param menu Menu to make the active menu
+     * @return true if the menu is the default menu or one of its descendants, otherwise false and the stack is
+     * unchanged
+     */
+    public boolean jumpTo(Menu menu) {
+        Deque<Menu> path = new ArrayDeque<>();
+        MenuItem item = menu;
+        while (item != null && item != this.defaultMenu) {
+            path.push((Menu) item);
+            item = parentOf(item, menu);
+        }
+        if (item == null) {
+            return false;
+        }
+        this.reset();
+        while (!path.isEmpty()) {
+            this.push(path.pop());
+        }
+        this.updated = true;
+        return true;
+    }
+
+    /**
+     * Pins the menu and its ancestors that are LazyMenus, so they are not released while the menu is on the stack.
+     * The pinned menus are kept, so they are unpinned even if the menu is moved in the tree before it is popped.
+     */
+    private static LazyMenu[] pin(Menu menu) {
+        int count = 0;
+        for (MenuItem item = menu; item != null; item = parentOf(item, menu)) {
+            if (item instanceof LazyMenu) {
+                count++;
+            }
+        }
+        if (count == 0) {
+            return NO_PINS;
+        }
+        LazyMenu[] pinned = new LazyMenu[count];
+        int i = 0;
+        for (MenuItem item = menu; item != null && i < count; item = parentOf(item, menu)) {
+            if (item instanceof LazyMenu lazy) {
+                lazy.pin();
+                pinned[i++] = lazy;
+            }
+        }
+        return pinned;
+    }
+
+    // Stops at a cycle back to the menu, as getPropagationPath does
+    private static MenuItem parentOf(MenuItem item, Menu menu) {
+        Menu parent = item.getParent();
+        return parent == menu ? null : parent;
+    }
+
+    private static void unpin(LazyMenu[] pinned) {
+        for (LazyMenu lazy : pinned) {
+            lazy.unpin();
+        }
+    }
+
+    /**
+     * Returns the page this session is viewing of a menu listed one page at a time, such as a PagedMenu, so sessions
+     * sharing the menu each have their own page.
+     *
+     * @param menu Menu being paged through
+     * @return int page from 0, which is 0 if this session has not changed it
+     */
+    public int getPage(Menu menu) {
+        Integer page = this.pages.get(menu);
+        return page == null ? 0 : page;
+    }
+
+    /**
+     * Sets the page this session is viewing of a menu listed one page at a time.
+     *
+     * @param menu Menu being paged through
+     * @param page int page from 0
+     */
+    public void setPage(Menu menu, int page) {
+        if (page == 0) {
+            this.pages.remove(menu);
+        } else {
+            this.pages.put(menu, page);
+        }
     }
 
     /**
@@ -77,6 +210,24 @@ public class Context {
         return this.menus.isEmpty();
     }
 
+    /**
+     * Returns the names of the menus from the default menu to the active menu, which is the path the user took to
+     * reach the active menu. The default menu is omitted if it is not set.
+     *
+     * @return List of String
+     */
+    public List<String> getPath() {
+        List<String> path = new ArrayList<>(this.menus.size() + 1);
+        if (this.defaultMenu != null) {
+            path.add(this.defaultMenu.getName());
+        }
+        Iterator<Menu> it = this.menus.descendingIterator();
+        while (it.hasNext()) {
+            path.add(it.next().getName());
+        }
+        return path;
+    }
+
     /**
      * Sets the updated status to false and returns its previous status before being updated. <br/>
      * It is not recommended using this method solely to set its updated status to false. <br/>
@@ -95,9 +246,14 @@ public class Context {
      * to a consistent state.
      */
     public void reset() {
+        if (this.menus.isEmpty()) {
+            return;
+        }
         while (!this.menus.isEmpty()) {
             this.menus.pop();
+            unpin(this.pins.pop());
         }
+        ContextChangeEvent.emit(ContextChangeEvent.RESET, null, 0);
     }
 
     /**
@@ -0,0 +1,148 @@
+package com.ethpalser.cli.menu;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * LazyMenu is a SimpleMenu whose children are created by a supplier when they are first needed, such as when it is
+ * rendered after being selected, instead of when the tree is built. Large catalogs can then be declared as a small
+ * tree of LazyMenus, and only the parts that are visited are created.
+ * <br><br>
+ * Loaded menus are tracked by a {@link MenuBudget}, which releases the children of menus that have not been visited
+ * recently when there are too many, or when memory runs low. Released children are created again by the supplier
+ * the next time they are needed, so the supplier should create equivalent children each time it is called.
+ * <br><br>
+ * A menu on the stack of any {@link Context}, or with a descendant on one, is pinned and never released, so
+ * navigation through a released subtree is never left holding menus that are no longer in the tree.
+ */
+public class LazyMenu extends SimpleMenu {
+
+    private final Supplier<MenuItem[]> supplier;
+    private final MenuBudget budget;
+    private final AtomicInteger pins;
+    private volatile boolean loaded;
+
+    /**
+     * Creates a menu whose children are created by the supplier, tracked by the default budget, which never
+     * releases them by itself.
+     *
+     * @param name     String name of this menu
+     * @param supplier Supplier of this menu's children
+     */
+    public LazyMenu(final String name, final Supplier<MenuItem[]> supplier) {
+        this(name, supplier, MenuBudget.getDefault());
+    }
+
+    /**
+     * Creates a menu whose children are created by the supplier, tracked by a budget.
+     *
+     * @param name     String name of this menu
+     * @param supplier Supplier of this menu's children
+     * @param budget   MenuBudget deciding when to release the children
+     */
+    public LazyMenu(final String name, final Supplier<MenuItem[]> supplier, final MenuBudget budget) {
+        super(name);
+        if (supplier == null || budget == null) {
+            throw new IllegalArgumentException("supplier and budget cannot be null");
+        }
+        this.supplier = supplier;
+        this.budget = budget;
+        this.pins = new AtomicInteger();
+        this.loaded = false;
+    }
+
+    /**
+     * Determines if this menu's children have been created and not released since.
+     *
+     * @return boolean (true/false)
+     */
+    public boolean isLoaded() {
+        return this.loaded;
+    }
+
+    /**
+     * Determines if this menu or one of its descendants is on the stack of a Context, which prevents it from being
+     * released.
+     *
+     * @return boolean (true/false)
+     */
+    public boolean isPinned() {
+        return this.pins.get() > 0;
+    }
+
+    /**
+     * Fetches a text representation of the menu, creating its children first if needed. Rendering counts as a
+     * visit, so this menu is the last to be released by its budget.
+     *
+     * @return String representing a list of this menu's children.
+     */
+    @Override
+    public String getTextDisplay() {
+        this.loadChildren();
+        this.budget.visited(this);
+        return super.getTextDisplay();
+    }
+
+    /**
+     * Releases this menu's children, including any loaded LazyMenus among its descendants, unless it is pinned.
+     * They are created again when they are next needed.
+     *
+     * @return true if the children were released, otherwise false
+     */
+    public boolean release() {
+        synchronized (this) {
+            if (!this.loaded || this.isPinned()) {
+                return false;
+            }
+            MenuItem[] children = this.getChildren().values().toArray(new MenuItem[0]);
+            String[] names = this.getChildren().keySet().toArray(new String[0]);
+            this.loaded = false;
+            this.removeChildren(names);
+            this.clearCaches();
+            for (MenuItem child : children) {
+                releaseDescendants(child);
+            }
+        }
+        this.budget.released(this);
+        return true;
+    }
+
+    @Override
+    void loadChildren() {
+        if (this.loaded) {
+            return;
+        }
+        MenuItem[] children;
+        synchronized (this) {
+            if (this.loaded) {
+                return;
+            }
+            children = this.supplier.get();
+            if (children == null) {
+                children = new MenuItem[0];
+            }
+            this.loaded = true; // set first, so reading the children while they are added does not load them again
+            this.addChildren(children);
+        }
+        this.budget.loaded(this, children.length);
+    }
+
+    void pin() {
+        this.pins.incrementAndGet();
+    }
+
+    void unpin() {
+        this.pins.decrementAndGet();
+    }
+
+    private static void releaseDescendants(MenuItem item) {
+        if (item instanceof LazyMenu lazy) {
+            lazy.release();
+        } else if (item instanceof Menu menu) {
+            for (MenuItem child : menu.getChildren().values()) {
+                releaseDescendants(child);
+            }
+        }
+    }
+
+}
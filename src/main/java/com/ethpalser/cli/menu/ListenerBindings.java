@@ -0,0 +1,70 @@
+package com.ethpalser.cli.menu;
+
+import com.ethpalser.cli.menu.event.EventListener;
+import com.ethpalser.cli.menu.event.EventType;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * ListenerBindings names the code that adds listeners to menu items, so a tree saved as a {@link MenuSnapshot} can
+ * have its listeners added again when it is loaded. Listeners are code and cannot be saved, so an item saves the
+ * keys of the bindings applied to it instead, and the loader looks each key up in the program's bindings.
+ */
+public class ListenerBindings {
+
+    private final Map<String, Consumer<MenuItem>> binders;
+
+    public ListenerBindings() {
+        this.binders = new HashMap<>();
+    }
+
+    /**
+     * Registers the code to run on an item to add its listeners.
+     *
+     * @param key    String naming the binding
+     * @param binder Consumer adding listeners to an item
+     * @return this ListenerBindings
+     */
+    public ListenerBindings register(String key, Consumer<MenuItem> binder) {
+        if (key == null || binder == null) {
+            throw new IllegalArgumentException("binding key and binder cannot be null");
+        }
+        this.binders.put(key, binder);
+        return this;
+    }
+
+    /**
+     * Registers a binding that adds a single listener for an EventType.
+     *
+     * @param key       String naming the binding
+     * @param eventType EventType the listener handles
+     * @param listener  EventListener to add
+     * @return this ListenerBindings
+     */
+    public ListenerBindings register(String key, EventType eventType, EventListener listener) {
+        return this.register(key, item -> item.addEventListener(eventType, listener));
+    }
+
+    public boolean contains(String key) {
+        return this.binders.containsKey(key);
+    }
+
+    /**
+     * Adds the listeners of a binding to an item, and keeps the key on the item so it is written to snapshots.
+     *
+     * @param item MenuItem to add listeners to
+     * @param key  String naming a registered binding
+     * @return the item
+     */
+    public <T extends MenuItem> T bind(T item, String key) {
+        Consumer<MenuItem> binder = this.binders.get(key);
+        if (binder == null) {
+            throw new IllegalArgumentException("no listener binding registered for " + key);
+        }
+        binder.accept(item);
+        item.addBindingKey(key);
+        return item;
+    }
+
+}
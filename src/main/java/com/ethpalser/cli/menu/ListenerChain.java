@@ -0,0 +1,76 @@
+package com.ethpalser.cli.menu;
+
+import com.ethpalser.cli.menu.event.EventListener;
+import java.util.Arrays;
+
+/**
+ * ListenerChain is an immutable list of the EventListeners of one EventType, ordered by priority from highest to
+ * lowest and then by when they were added. Adding or removing a listener returns a new chain, so a chain being
+ * dispatched is never changed by a listener registering or removing another.
+ */
+final class ListenerChain {
+
+    static final ListenerChain EMPTY = new ListenerChain(new EventListener[0], new int[0]);
+
+    private final EventListener[] listeners;
+    private final int[] priorities;
+
+    private ListenerChain(final EventListener[] listeners, final int[] priorities) {
+        this.listeners = listeners;
+        this.priorities = priorities;
+    }
+
+    int size() {
+        return this.listeners.length;
+    }
+
+    EventListener get(int index) {
+        return this.listeners[index];
+    }
+
+    /**
+     * Returns a chain with the listener added after every listener of the same or higher priority.
+     */
+    ListenerChain with(EventListener listener, int priority) {
+        int at = 0;
+        while (at < this.priorities.length && this.priorities[at] >= priority) {
+            at++;
+        }
+        int length = this.listeners.length;
+        EventListener[] nextListeners = new EventListener[length + 1];
+        int[] nextPriorities = new int[length + 1];
+        System.arraycopy(this.listeners, 0, nextListeners, 0, at);
+        System.arraycopy(this.priorities, 0, nextPriorities, 0, at);
+        nextListeners[at] = listener;
+        nextPriorities[at] = priority;
+        System.arraycopy(this.listeners, at, nextListeners, at + 1, length - at);
+        System.arraycopy(this.priorities, at, nextPriorities, at + 1, length - at);
+        return new ListenerChain(nextListeners, nextPriorities);
+    }
+
+    /**
+     * Returns a chain without the first occurrence of the listener, or this chain if it does not have it.
+     */
+    ListenerChain without(EventListener listener) {
+        for (int i = 0; i < this.listeners.length; i++) {
+            if (this.listeners[i] == listener) {
+                if (this.listeners.length == 1) {
+                    return EMPTY;
+                }
+                EventListener[] nextListeners = new EventListener[this.listeners.length - 1];
+                int[] nextPriorities = new int[this.listeners.length - 1];
+                System.arraycopy(this.listeners, 0, nextListeners, 0, i);
+                System.arraycopy(this.priorities, 0, nextPriorities, 0, i);
+                System.arraycopy(this.listeners, i + 1, nextListeners, i, nextListeners.length - i);
+                System.arraycopy(this.priorities, i + 1, nextPriorities, i, nextPriorities.length - i);
+                return new ListenerChain(nextListeners, nextPriorities);
+            }
+        }
+        return this;
+    }
+
+    EventListener[] toArray() {
+        return Arrays.copyOf(this.listeners, this.listeners.length);
+    }
+
+}
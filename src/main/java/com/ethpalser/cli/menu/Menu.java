@@ -1,7 +1,16 @@
 package com.ethpalser.cli.menu;
 
+import com.ethpalser.cli.menu.command.CommandGrammar;
+import com.ethpalser.cli.menu.command.CommandHandler;
+import com.ethpalser.cli.menu.command.CommandSpec;
+import com.ethpalser.cli.menu.command.ParsedCommand;
+import com.ethpalser.cli.menu.event.EventListener;
 import com.ethpalser.cli.menu.event.EventType;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 
@@ -12,15 +21,25 @@ import java.util.Map;
 public class Menu extends MenuItem {
 
     private final Map<String, MenuItem> children;
+    private final Map<String, MenuItem> childrenView; // read-only, returned by getChildren
+    private Map<String, CommandEntry> commands; // replaced once the grammar of a change is compiled
+    private final EventListener enterListener;
+    private volatile ChildIndex index;
+    private volatile CommandGrammar commandGrammar;
+    private volatile SearchIndex searchIndex;
 
     public Menu(final String name, final String altDisplayString, final MenuItem[] children) {
         super(name, altDisplayString);
         this.children = new LinkedHashMap<>();
+        this.childrenView = Collections.unmodifiableMap(this.children);
+        this.commands = new LinkedHashMap<>();
+        this.commandGrammar = CommandGrammar.EMPTY;
         this.addChildren(children);
 
-        this.addEventListener(EventType.SELECT, event -> {
-            Context.getInstance().push(this);
-        });
+        // Added first, so listeners added later run after entering this menu. A listener with a higher priority can
+        // stop propagation to prevent entering it.
+        this.enterListener = event -> Context.getInstance().push(this);
+        this.addEventListener(EventType.SELECT, this.enterListener);
     }
 
     public Menu(final String name, final MenuItem[] children) {
@@ -32,12 +51,14 @@ public class Menu extends MenuItem {
     }
 
     /**
-     * Returns this Menu's children.
+     * Returns this Menu's children, which cannot be changed through the map, so they are only changed through
+     * addChildren and removeChildren, which keep this Menu's version and caches up to date.
      *
-     * @return Map of Menu name to Menu
+     * @return unmodifiable Map of Menu name to Menu
      */
     public Map<String, MenuItem> getChildren() {
-        return this.children;
+        this.loadChildren();
+        return this.childrenView;
     }
 
     /**
@@ -48,23 +69,130 @@ public class Menu extends MenuItem {
      * @return Menu
      */
     public MenuItem getChild(String name) {
+        this.loadChildren();
         return this.children.get(name.toLowerCase(Locale.ROOT));
     }
 
     /**
      * Return a single child Menu located at the given index. If the index is out of bounds, null will be returned.
-     * <br><br>
-     * Notice: There may not be an order to the elements, as each Map converted to an array my represent the order
-     * differently. As a result, the returned Menu may not be what is expected.
+     * Children are ordered by when they were first added, including hidden children.
      *
      * @param index integer representing the location in the Menu-storing data structure.
      * @return Menu
      */
     public MenuItem getChild(int index) {
-        if (this.children.size() <= index) {
+        MenuItem[] all = this.getIndex().all;
+        if (index < 0 || all.length <= index) {
             return null;
         }
-        return (MenuItem) this.children.values().toArray()[index];
+        return all[index];
+    }
+
+    /**
+     * Return a single visible child located at the given index, which is the position it is displayed at starting
+     * from 0. If the index is out of bounds, null will be returned.
+     *
+     * @param index integer representing the position among visible children
+     * @return MenuItem
+     */
+    public MenuItem getVisibleChild(int index) {
+        MenuItem[] visible = this.getIndex().visible;
+        if (index < 0 || visible.length <= index) {
+            return null;
+        }
+        return visible[index];
+    }
+
+    /**
+     * Returns the children that are not hidden, in the order they are displayed. The list cannot be modified and is
+     * reused until this Menu's version changes.
+     *
+     * @return List of MenuItem
+     */
+    public List<MenuItem> getVisibleChildren() {
+        return this.getIndex().visibleList;
+    }
+
+    /**
+     * Returns a snapshot of the names of visible children, in the order they are displayed. The same snapshot is
+     * returned until this Menu's version changes.
+     *
+     * @return MenuOptions
+     */
+    public MenuOptions getVisibleOptions() {
+        ChildIndex current = this.getIndex();
+        MenuOptions options = current.options;
+        if (options == null) {
+            options = MenuOptions.of(current.version, current.visible, current.commandGrammar);
+            current.options = options;
+        }
+        return options;
+    }
+
+    /**
+     * Returns the number of children that are not hidden.
+     *
+     * @return int
+     */
+    public int getVisibleChildCount() {
+        return this.getIndex().visible.length;
+    }
+
+    /**
+     * Returns the positional index for the current version, rebuilding it from the children if anything changed
+     * since it was last built.
+     */
+    private ChildIndex getIndex() {
+        this.loadChildren();
+        long version = this.getVersion();
+        ChildIndex current = this.index;
+        if (current == null || current.version != version) {
+            current = new ChildIndex(version, this.children.values().toArray(new MenuItem[0]),
+                    this.commandGrammar);
+            this.index = current;
+        }
+        return current;
+    }
+
+    /**
+     * Called before this Menu's children are read, so a subclass can create them when they are first needed. This
+     * does nothing by default.
+     */
+    void loadChildren() {
+        // Children are added eagerly
+    }
+
+    /**
+     * Returns the children that have been added, without creating them first as getChildren does.
+     */
+    Collection<MenuItem> getLoadedChildren() {
+        return this.children.values();
+    }
+
+    /**
+     * Returns the listener added by this Menu to enter itself when selected.
+     */
+    EventListener getEnterListener() {
+        return this.enterListener;
+    }
+
+    /**
+     * Returns the SearchIndex attached to this Menu as the root of a tree, or null if it has none.
+     */
+    SearchIndex getSearchIndex() {
+        return this.searchIndex;
+    }
+
+    void setSearchIndex(SearchIndex searchIndex) {
+        this.searchIndex = searchIndex;
+    }
+
+    /**
+     * Drops everything cached from this Menu's children, so released children are not kept reachable by it. The
+     * caches are rebuilt when next read.
+     */
+    void clearCaches() {
+        this.index = null;
     }
 
     /**
@@ -73,11 +201,30 @@ public class Menu extends MenuItem {
      * @param children array of Menu objects
      */
     public void addChildren(MenuItem... children) {
+        SearchIndex search = SearchIndex.find(this);
+        boolean changed = false;
         for (MenuItem child : children) {
             if (child.getName() == null) {
                 throw new IllegalArgumentException("MenuItem child's name cannot be null");
             }
-            this.children.put(child.getName().toLowerCase(Locale.ROOT), child);
+            MenuItem previous = this.children.put(child.getName().toLowerCase(Locale.ROOT), child);
+            if (previous == child) {
+                continue;
+            }
+            if (previous != null && previous.getParent() == this) {
+                previous.setParent(null);
+            }
+            child.setParent(this);
+            if (search != null) {
+                if (previous != null) {
+                    search.remove(previous);
+                }
+                search.add(child);
+            }
+            changed = true;
+        }
+        if (changed) {
+            this.incrementVersion();
         }
     }
 
@@ -96,8 +243,142 @@ public class Menu extends MenuItem {
      * @param names String array representing a list of Menu names
      */
     public void removeChildren(String... names) {
+        SearchIndex search = SearchIndex.find(this);
+        boolean changed = false;
         for (String childName : names) {
-            this.children.remove(childName);
+            MenuItem removed = this.children.remove(childName.toLowerCase(Locale.ROOT));
+            if (removed == null) {
+                continue;
+            }
+            if (removed.getParent() == this) {
+                removed.setParent(null);
+            }
+            if (search != null) {
+                search.remove(removed);
+            }
+            changed = true;
+        }
+        if (changed) {
+            this.incrementVersion();
+        }
+    }
+
+    /**
+     * Adds a command that can be entered while this Menu is active, in addition to selecting its children. Commands
+     * take priority over children with the same name. The spec is compiled into this Menu's CommandGrammar, which is
+     * reused for every input until the commands change. If the spec's name or aliases conflict with another command,
+     * the commands are left unchanged.
+     *
+     * @param spec    CommandSpec declaring the command's name, flags and arguments
+     * @param handler CommandHandler to perform the command
+     * @throws IllegalArgumentException The spec's name or an alias is used by another command.
+     */
+    public void addCommand(CommandSpec spec, CommandHandler handler) {
+        if (spec == null || handler == null) {
+            throw new IllegalArgumentException("command spec and handler cannot be null");
+        }
+        Map<String, CommandEntry> updated = new LinkedHashMap<>(this.commands);
+        updated.put(spec.getName(), new CommandEntry(spec, handler));
+        this.setCommands(updated);
+    }
+
+    /**
+     * Removes a command by its name. If there is no command with that name, nothing will change.
+     *
+     * @param name String naming the command
+     */
+    public void removeCommand(String name) {
+        String key = name.toLowerCase(Locale.ROOT);
+        if (!this.commands.containsKey(key)) {
+            return;
+        }
+        Map<String, CommandEntry> updated = new LinkedHashMap<>(this.commands);
+        updated.remove(key);
+        this.setCommands(updated);
+    }
+
+    // The grammar is compiled first, so commands that cannot be compiled are never kept
+    private void setCommands(Map<String, CommandEntry> commands) {
+        this.commandGrammar = CommandGrammar.of(commands.values().stream().map(entry -> entry.spec).toList());
+        this.commands = commands;
+        this.incrementVersion();
+    }
+
+    /**
+     * Returns the compiled grammar of this Menu's commands, which is empty if it has none.
+     *
+     * @return CommandGrammar
+     */
+    public CommandGrammar getCommandGrammar() {
+        return this.commandGrammar;
+    }
+
+    /**
+     * Performs a command parsed with this Menu's grammar. Invalid commands are not performed. Anything thrown by the
+     * handler is thrown to the caller, which a ConsoleRunner reports as an error the same as a failed event.
+     *
+     * @param command ParsedCommand
+     * @return true if this Menu has a handler for the command and it was performed, otherwise false
+     */
+    public boolean handleCommand(ParsedCommand command) {
+        if (command == null || !command.isValid() || command.isOption()) {
+            return false;
+        }
+        CommandEntry entry = this.commands.get(command.getName());
+        if (entry == null || entry.spec != command.getSpec()) {
+            return false;
+        }
+        entry.handler.handleCommand(command);
+        return true;
+    }
+
+    /**
+     * Called by a child when something affecting its display changes. Only this Menu's version changes, as a
+     * change in a child does not change how this Menu is displayed by its own parent.
+     *
+     * @param child MenuItem that changed
+     */
+    void childChanged(MenuItem child) {
+        this.incrementVersion();
+    }
+
+    /**
+     * Positional lookup of children built for a single version of a Menu. It is never modified after it is built,
+     * so it is safe to read while another thread replaces it.
+     */
+    private static final class ChildIndex {
+
+        private final long version;
+        private final MenuItem[] all;
+        private final MenuItem[] visible;
+        private final List<MenuItem> visibleList;
+        private final CommandGrammar commandGrammar;
+        private volatile MenuOptions options; // built on first use, as not every Menu is read from
+
+        private ChildIndex(long version, MenuItem[] all, CommandGrammar commandGrammar) {
+            this.version = version;
+            this.all = all;
+            this.commandGrammar = commandGrammar;
+            int count = 0;
+            MenuItem[] shown = new MenuItem[all.length];
+            for (MenuItem child : all) {
+                if (!child.isHidden()) {
+                    shown[count++] = child;
+                }
+            }
+            this.visible = count == all.length ? all : Arrays.copyOf(shown, count);
+            this.visibleList = Collections.unmodifiableList(Arrays.asList(this.visible));
+        }
+    }
+
+    private static final class CommandEntry {
+
+        private final CommandSpec spec;
+        private final CommandHandler handler;
+
+        private CommandEntry(CommandSpec spec, CommandHandler handler) {
+            this.spec = spec;
+            this.handler = handler;
         }
     }
 
@@ -0,0 +1,169 @@
+package com.ethpalser.cli.menu;
+
+import java.lang.ref.SoftReference;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * MenuBudget limits how many children of LazyMenus are loaded at once. Loaded menus are kept in order of their last
+ * visit, and when loading a menu puts the total number of children over the limit, the least recently visited menus
+ * are released until it is back under.
+ * <br><br>
+ * Memory pressure is detected with a soft reference, which the garbage collector clears before running out of
+ * memory. When it has been cleared, every loaded menu but the most recently visited is released the next time a menu
+ * is loaded or visited. Pinned menus, which are in use by a Context, are never released.
+ * <br><br>
+ * Releasing a menu changes its children the same as removeChildren, so it happens on the thread loading or visiting
+ * a menu. Menus used by several sessions on different threads at once should not share a budget that can release
+ * them, unless they are only released by calling {@link #releaseAll()} while no session is running. The default
+ * budget never releases menus by itself, so menus created without a budget are safe to share.
+ */
+public class MenuBudget {
+
+    private static final MenuBudget DEFAULT = new MenuBudget(Integer.MAX_VALUE, false);
+
+    private final int maxLoadedItems;
+    private final boolean releaseUnderPressure;
+    private final Map<LazyMenu, Integer> loaded; // in order of last visit, to the number of children loaded
+    private volatile SoftReference<Object> canary;
+    private long loadedItems;
+    private long releases;
+
+    /**
+     * Creates a budget releasing menus once more than the given number of children are loaded.
+     *
+     * @param maxLoadedItems int most children loaded at once, not counting pinned menus
+     */
+    public MenuBudget(final int maxLoadedItems) {
+        this(maxLoadedItems, true);
+    }
+
+    private MenuBudget(final int maxLoadedItems, final boolean releaseUnderPressure) {
+        if (maxLoadedItems <= 0) {
+            throw new IllegalArgumentException("max loaded items must be positive");
+        }
+        this.maxLoadedItems = maxLoadedItems;
+        this.releaseUnderPressure = releaseUnderPressure;
+        this.loaded = new LinkedHashMap<>(16, 0.75f, true);
+        this.canary = new SoftReference<>(new Object());
+        this.loadedItems = 0;
+        this.releases = 0;
+    }
+
+    /**
+     * Returns the budget used by LazyMenus created without one, which has no limit on the number of children and
+     * does not release menus under memory pressure, as its menus may be shared by sessions on several threads.
+     * They are only released by calling {@link #releaseAll()}.
+     *
+     * @return MenuBudget
+     */
+    public static MenuBudget getDefault() {
+        return DEFAULT;
+    }
+
+    public int getMaxLoadedItems() {
+        return this.maxLoadedItems;
+    }
+
+    /**
+     * Returns the number of children of loaded menus.
+     *
+     * @return long
+     */
+    public synchronized long getLoadedItems() {
+        return this.loadedItems;
+    }
+
+    public synchronized int getLoadedMenus() {
+        return this.loaded.size();
+    }
+
+    /**
+     * Returns the number of times a menu has been released by this budget.
+     *
+     * @return long
+     */
+    public synchronized long getReleases() {
+        return this.releases;
+    }
+
+    /**
+     * Releases every loaded menu that is not pinned, such as when the program knows it needs memory.
+     *
+     * @return int number of menus released
+     */
+    public int releaseAll() {
+        return this.release(this.candidates(null, true));
+    }
+
+    void loaded(LazyMenu menu, int items) {
+        Integer previous;
+        synchronized (this) {
+            previous = this.loaded.put(menu, items);
+            this.loadedItems += items - (previous == null ? 0 : previous);
+        }
+        this.enforce(menu);
+    }
+
+    void visited(LazyMenu menu) {
+        synchronized (this) {
+            this.loaded.get(menu); // moves it to the most recent
+        }
+        if (this.releaseUnderPressure && this.canary.get() == null) {
+            this.enforce(menu);
+        }
+    }
+
+    synchronized void released(LazyMenu menu) {
+        Integer items = this.loaded.remove(menu);
+        if (items != null) {
+            this.loadedItems -= items;
+            this.releases++;
+        }
+    }
+
+    private void enforce(LazyMenu current) {
+        boolean pressure;
+        synchronized (this) {
+            pressure = this.releaseUnderPressure && this.canary.get() == null;
+            if (pressure) {
+                this.canary = new SoftReference<>(new Object());
+            }
+        }
+        if (pressure) {
+            this.release(this.candidates(current, true));
+        } else if (this.getLoadedItems() > this.maxLoadedItems) {
+            this.release(this.candidates(current, false));
+        }
+    }
+
+    // Chosen while holding the lock and released after, as releasing a menu locks the menu and then this budget
+    private synchronized List<LazyMenu> candidates(LazyMenu current, boolean all) {
+        List<LazyMenu> candidates = new ArrayList<>();
+        long remaining = this.loadedItems;
+        for (Map.Entry<LazyMenu, Integer> entry : this.loaded.entrySet()) {
+            if (!all && remaining <= this.maxLoadedItems) {
+                break;
+            }
+            LazyMenu menu = entry.getKey();
+            if (menu != current && !menu.isPinned()) {
+                candidates.add(menu);
+                remaining -= entry.getValue();
+            }
+        }
+        return candidates;
+    }
+
+    private int release(List<LazyMenu> candidates) {
+        int count = 0;
+        for (LazyMenu menu : candidates) {
+            if (menu.release()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+}
@@ -1,31 +1,68 @@
 package com.ethpalser.cli.menu;
 
+import com.ethpalser.cli.jfr.DispatchEvent;
+import com.ethpalser.cli.menu.event.AsyncDispatcher;
+import com.ethpalser.cli.menu.event.AsyncEventListener;
 import com.ethpalser.cli.menu.event.Event;
 import com.ethpalser.cli.menu.event.EventListener;
+import com.ethpalser.cli.menu.event.EventPhase;
 import com.ethpalser.cli.menu.event.EventType;
 import com.ethpalser.cli.menu.event.Result;
-import java.util.EnumMap;
+import com.ethpalser.cli.metrics.MetricsRegistry;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
-import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
 
 public class MenuItem {
 
+    /**
+     * Priority of listeners added without one, including the listener every Menu adds to enter itself when selected.
+     */
+    public static final int DEFAULT_PRIORITY = 0;
+
+    private static final int EVENT_TYPES = EventType.values().length;
+    private static final EventPhase[] PHASES = EventPhase.values();
+    // Chains are never changed, so an empty one is shared by every item until a listener is added
+    private static final ListenerChain[] NO_LISTENERS = emptyChains();
+    private static final MenuItem[] NO_ANCESTORS = new MenuItem[0];
+    private static final String[] NO_BINDING_KEYS = new String[0];
+    // Menus can be shared by sessions on different threads, so concurrent changes must each get their own version
+    private static final AtomicLongFieldUpdater<MenuItem> VERSION =
+            AtomicLongFieldUpdater.newUpdater(MenuItem.class, "version");
+
     private final String name;
-    private final Map<EventType, EventListener> eventListeners;
+    // Indexed by EventPhase ordinal * EVENT_TYPES + EventType ordinal. Replaced rather than changed, so events are
+    // dispatched from a consistent snapshot
+    private volatile ListenerChain[] eventListeners;
+    private volatile int listenerCount; // listeners on this item's own events
+    private volatile int propagatingCount; // listeners capturing or bubbling events of descendants
+    private volatile MenuItem[] propagationPath;
 
     private String textDisplay; // alternate to display for screen readers, or primary display as string
     private boolean isDisabled;
     private boolean isHidden;
     private boolean submitOnLeave;
+    private Menu parent;
+    private volatile long version;
+    private String[] bindingKeys; // keys of the ListenerBindings applied to this item, written to snapshots
 
     public MenuItem(final String name, final String altDisplayString) {
         this.name = name;
         this.textDisplay = altDisplayString;
-        this.eventListeners = new EnumMap<>(EventType.class);
+        this.eventListeners = NO_LISTENERS;
+        this.listenerCount = 0;
+        this.propagatingCount = 0;
+        this.propagationPath = null;
         this.isDisabled = false;
         this.isHidden = false;
         this.submitOnLeave = false;
+        this.parent = null;
+        this.version = 0;
+        this.bindingKeys = NO_BINDING_KEYS;
     }
 
     public MenuItem(final String name) {
@@ -58,7 +95,17 @@ public class MenuItem {
      * @param stringDisplay Representation of its graphical display as a string.
      */
     public void setTextDisplay(String stringDisplay) {
+        if (Objects.equals(this.textDisplay, stringDisplay)) {
+            return;
+        }
         this.textDisplay = stringDisplay;
+        this.markChanged();
+        if (!(this instanceof Menu)) {
+            SearchIndex search = SearchIndex.find(this);
+            if (search != null) {
+                search.update(this);
+            }
+        }
     }
 
     /**
@@ -75,6 +122,90 @@ public class MenuItem {
      */
     public void toggleHidden() {
         this.isHidden = !this.isHidden;
+        this.markChanged();
+    }
+
+    /**
+     * Returns the Menu this was most recently added to, or null if it has not been added to a Menu. Only this Menu
+     * is informed of changes to this item, so an item should not be shared between several Menus.
+     *
+     * @return Menu
+     */
+    public Menu getParent() {
+        return this.parent;
+    }
+
+    void setParent(Menu parent) {
+        this.parent = parent;
+    }
+
+    /**
+     * Returns the ancestors of this item from the root to its parent, which is the path an event sent to this item
+     * is captured along and bubbles back up. The path is cached, and is only rebuilt when the parent of this item or
+     * one of its ancestors has changed since.
+     *
+     * @return array of MenuItem, which must not be changed
+     */
+    MenuItem[] getPropagationPath() {
+        MenuItem[] cached = this.propagationPath;
+        if (cached != null && this.isAncestry(cached)) {
+            return cached;
+        }
+        int depth = 0;
+        for (MenuItem p = this.parent; p != null && p != this; p = p.parent) {
+            depth++;
+        }
+        MenuItem[] ancestors = depth == 0 ? NO_ANCESTORS : new MenuItem[depth];
+        MenuItem p = this.parent;
+        for (int i = depth - 1; i >= 0; i--) {
+            ancestors[i] = p;
+            p = p.parent;
+        }
+        this.propagationPath = ancestors;
+        return ancestors;
+    }
+
+    // Determines if each item of a path is still the parent of the one after it, ending at this item's parent
+    private boolean isAncestry(MenuItem[] ancestors) {
+        int depth = ancestors.length;
+        if (depth == 0) {
+            return this.parent == null || this.parent == this;
+        }
+        if (ancestors[depth - 1] != this.parent) {
+            return false;
+        }
+        for (int i = depth - 1; i > 0; i--) {
+            if (ancestors[i].parent != ancestors[i - 1]) {
+                return false;
+            }
+        }
+        MenuItem root = ancestors[0].parent;
+        return root == null || root == this;
+    }
+
+    /**
+     * Returns a counter that changes whenever something affecting how this is displayed changes. For a Menu this
+     * includes adding or removing children and any change reported by its children. This can be used to cache
+     * anything derived from the display, which remains valid as long as the version is unchanged.
+     *
+     * @return long representing the current version
+     */
+    public long getVersion() {
+        return this.version;
+    }
+
+    /**
+     * Increments the version of this and reports the change to its parent, if it has one.
+     */
+    protected void markChanged() {
+        this.incrementVersion();
+        if (this.parent != null) {
+            this.parent.childChanged(this);
+        }
+    }
+
+    void incrementVersion() {
+        VERSION.incrementAndGet(this);
     }
 
     /**
@@ -89,52 +220,174 @@ public class MenuItem {
     }
 
     /**
-     * Returns all event listeners of this Menu as a list
+     * Returns all event listeners of this Menu as a list, in order of EventType and then in the order they are called.
      *
      * @return List of EventListener
      * @see EventListener
      */
     public List<EventListener> getEventListeners() {
-        return this.eventListeners.values().stream().toList();
+        List<EventListener> list = new ArrayList<>(this.listenerCount);
+        ListenerChain[] chains = this.eventListeners;
+        for (int i = 0; i < EVENT_TYPES; i++) {
+            list.addAll(Arrays.asList(chains[index(EventPhase.AT_TARGET, i)].toArray()));
+        }
+        return Collections.unmodifiableList(list);
+    }
+
+    /**
+     * Returns the EventListeners of an EventType in the order they are called.
+     *
+     * @param eventType EventType the EventListeners are on.
+     * @return List of EventListener
+     */
+    public List<EventListener> getEventListeners(EventType eventType) {
+        return this.getEventListeners(eventType, EventPhase.AT_TARGET);
     }
 
     /**
-     * Returns a single EventListener tied to a specific EventType. If there is no EventListener, an empty
+     * Returns the EventListeners of an EventType in a phase, in the order they are called.
+     *
+     * @param eventType EventType the EventListeners are on.
+     * @param phase     EventPhase the EventListeners are called in.
+     * @return List of EventListener
+     */
+    public List<EventListener> getEventListeners(EventType eventType, EventPhase phase) {
+        return List.of(this.eventListeners[index(phase, eventType.ordinal())].toArray());
+    }
+
+    /**
+     * Returns the first EventListener called for a specific EventType. If there is no EventListener, an empty
      * Optional object will be returned.
      *
      * @param eventType EventType the EventListener is on.
      * @return Optional of EventListener
      */
     public Optional<EventListener> getEventListener(EventType eventType) {
-        return Optional.ofNullable(this.eventListeners.get(eventType));
+        ListenerChain chain = this.eventListeners[index(EventPhase.AT_TARGET, eventType.ordinal())];
+        return chain.size() == 0 ? Optional.empty() : Optional.of(chain.get(0));
     }
 
     /**
-     * Connect an EventListener to an EventType. If there is already a listener on that EventType, it will be replaced.
+     * Connect an EventListener to an EventType with the default priority. It is called after the listeners already on
+     * that EventType with the same or a higher priority.
      *
      * @param eventType     EventType
      * @param eventListener EventListener
      */
     public void addEventListener(EventType eventType, EventListener eventListener) {
-        this.eventListeners.put(eventType, eventListener);
+        this.addEventListener(eventType, eventListener, DEFAULT_PRIORITY);
+    }
+
+    /**
+     * Connect an EventListener to an EventType. Listeners with a higher priority are called first, and listeners with
+     * the same priority are called in the order they were added. A listener can stop the listeners after it from
+     * being called with {@link Event#stopPropagation()}.
+     * <br><br>
+     * Listeners can be added and removed while an event is being dispatched, which takes effect from the next event.
+     *
+     * @param eventType     EventType
+     * @param eventListener EventListener
+     * @param priority      int priority, where {@link #DEFAULT_PRIORITY} is the default
+     */
+    public void addEventListener(EventType eventType, EventListener eventListener, int priority) {
+        this.addEventListener(eventType, eventListener, priority, EventPhase.AT_TARGET);
+    }
+
+    /**
+     * Connect an EventListener to an EventType in a phase. A listener in the AT_TARGET phase receives events sent to
+     * this item. A listener in the CAPTURING phase receives events sent to any descendant of this item, before the
+     * descendant does, and a listener in the BUBBLING phase receives them after the descendant does. This allows one
+     * listener on a root menu to observe or intercept the events of every item below it.
+     * <br><br>
+     * Listeners with a higher priority are called first, and listeners with the same priority are called in the
+     * order they were added. Listeners can be added and removed while an event is being dispatched, which takes
+     * effect from the next event.
+     *
+     * @param eventType     EventType
+     * @param eventListener EventListener
+     * @param priority      int priority, where {@link #DEFAULT_PRIORITY} is the default
+     * @param phase         EventPhase to receive events in
+     */
+    public void addEventListener(EventType eventType, EventListener eventListener, int priority, EventPhase phase) {
+        if (eventType == null || eventListener == null || phase == null) {
+            throw new IllegalArgumentException("event type, listener and phase cannot be null");
+        }
+        int i = index(phase, eventType.ordinal());
+        synchronized (this) {
+            ListenerChain[] next = this.eventListeners.clone();
+            next[i] = next[i].with(eventListener, priority);
+            this.eventListeners = next;
+            this.countListeners(phase, 1);
+        }
     }
 
     /**
-     * Removes an EventListener on an EventType. If there is no listener on that EventType, nothing will change.
+     * Removes every EventListener on an EventType, in every phase. If there is no listener on that EventType,
+     * nothing will change.
      *
      * @param eventType EventType
      */
     public void removeEventListener(EventType eventType) {
-        this.eventListeners.remove(eventType);
+        synchronized (this) {
+            ListenerChain[] next = this.eventListeners.clone();
+            for (EventPhase phase : PHASES) {
+                int i = index(phase, eventType.ordinal());
+                this.countListeners(phase, -next[i].size());
+                next[i] = ListenerChain.EMPTY;
+            }
+            this.eventListeners = next;
+        }
+    }
+
+    /**
+     * Removes an EventListener from an EventType, in every phase it was added to. If it is not on that EventType,
+     * nothing will change.
+     *
+     * @param eventType     EventType
+     * @param eventListener EventListener
+     */
+    public void removeEventListener(EventType eventType, EventListener eventListener) {
+        synchronized (this) {
+            ListenerChain[] next = this.eventListeners.clone();
+            for (EventPhase phase : PHASES) {
+                int i = index(phase, eventType.ordinal());
+                ListenerChain removed = next[i].without(eventListener);
+                if (removed != next[i]) {
+                    next[i] = removed;
+                    this.countListeners(phase, -1);
+                }
+            }
+            this.eventListeners = next;
+        }
+    }
+
+    private void countListeners(EventPhase phase, int delta) {
+        if (phase == EventPhase.AT_TARGET) {
+            this.listenerCount += delta;
+        } else {
+            this.propagatingCount += delta;
+        }
     }
 
     /**
-     * Determines if this Menu should not be interacted with
+     * Determines if this Menu should not be interacted with, which is when it is disabled or no listener would
+     * receive its events, either its own or an ancestor's capturing or bubbling listeners.
      *
      * @return boolean; true if
      */
     public boolean isDisabled() {
-        return this.isDisabled || Optional.ofNullable(this.getEventListeners()).orElse(List.of()).isEmpty();
+        if (this.isDisabled) {
+            return true;
+        }
+        if (this.listenerCount > 0) {
+            return false;
+        }
+        for (MenuItem ancestor : this.getPropagationPath()) {
+            if (ancestor.propagatingCount > 0) {
+                return false;
+            }
+        }
+        return true;
     }
 
     /**
@@ -142,30 +395,192 @@ public class MenuItem {
      */
     public void toggleDisabled() {
         this.isDisabled = !this.isDisabled;
+        this.markChanged();
+    }
+
+    /**
+     * Determines if this item was disabled with toggleDisabled, regardless of its listeners.
+     *
+     * @return boolean (true/false)
+     */
+    boolean isMarkedDisabled() {
+        return this.isDisabled;
+    }
+
+    /**
+     * Returns the keys of the listener bindings applied to this item, in the order they were applied.
+     *
+     * @return String[]
+     */
+    String[] getBindingKeys() {
+        return this.bindingKeys;
+    }
+
+    void addBindingKey(String key) {
+        String[] keys = Arrays.copyOf(this.bindingKeys, this.bindingKeys.length + 1);
+        keys[keys.length - 1] = key;
+        this.bindingKeys = keys;
     }
 
     /**
      * Accepts an event and defers handling to an event listener for that event. All Exceptions are caught and
      * returned as a Result containing an error and the exception message. Additionally, Results with an error
      * are returned for any case where the event cannot be processed, except if no listener is registered for the event.
+     * <br><br>
+     * The event is first captured by the CAPTURING listeners of this item's ancestors from the root down, then
+     * received by this item's listeners, then bubbles up through the BUBBLING listeners of its ancestors. The
+     * ancestors are found through each item's parent, which follows the Context stack when menus are entered by
+     * selecting them. Any listener can stop propagation to skip the listeners after it.
      *
      * @param event Event
      * @return Result
      */
     public Result receiveEvent(Event event) {
+        return this.receiveEvent(event, null);
+    }
+
+    /**
+     * Accepts an event the same as {@link #receiveEvent(Event)}, except an AsyncEventListener for the event is started
+     * with the dispatcher instead of being waited for. In that case the Result is pending, and the Result of the
+     * listener finishing is delivered by the dispatcher.
+     *
+     * @param event      Event
+     * @param dispatcher AsyncDispatcher to start asynchronous listeners with, or null to wait for them
+     * @return Result
+     */
+    public Result receiveEvent(Event event, AsyncDispatcher dispatcher) {
         if (event == null || event.getEventType() == null) {
-            return new Result(Result.INVALID_MESSAGE, true);
+            return Result.INVALID;
+        }
+        MetricsRegistry metrics = MetricsRegistry.getActive();
+        DispatchEvent recorded = DispatchEvent.start(); // null unless Flight Recorder is recording it
+        if (metrics == null && recorded == null) {
+            return this.dispatch(event, dispatcher);
+        }
+        long start = System.nanoTime();
+        Result result = this.dispatch(event, dispatcher);
+        if (recorded != null) {
+            recorded.finish(event.getEventType().name(), this.name, result.hasError(), result.isPending());
         }
-        Optional<EventListener> listener = this.getEventListener(event.getEventType());
-        if (listener.isEmpty()) {
-            return new Result(Result.MISSING_MESSAGE + ": for " + event.getEventType(), false);
+        if (metrics == null) {
+            return result;
+        }
+        long elapsed = System.nanoTime() - start;
+        metrics.histogram(MetricsRegistry.DISPATCH_TYPE_GROUP, event.getEventType().name()).record(elapsed);
+        if (this instanceof Menu) {
+            // Only menus are timed by name, as there can be any number of items
+            metrics.histogram(MetricsRegistry.DISPATCH_MENU_GROUP, this.name, MetricsRegistry.DEFAULT_GROUP_LIMIT)
+                    .record(elapsed);
+        }
+        if (result.hasError()) {
+            metrics.counter(MetricsRegistry.RESULT_GROUP, event.getEventType().name()).increment();
+        }
+        return result;
+    }
+
+    private Result dispatch(Event event, AsyncDispatcher dispatcher) {
+        int type = event.getEventType().ordinal();
+        ListenerChain targetChain = this.eventListeners[index(EventPhase.AT_TARGET, type)];
+        MenuItem[] path = this.getPropagationPath();
+        if (!hasPropagatingListeners(path)) {
+            if (targetChain.size() == 0) {
+                return Result.missing(event.getEventType());
+            }
+            event.beginDispatch(this);
+            event.enterPhase(EventPhase.AT_TARGET, this);
+            return invoke(targetChain, event, dispatcher, null);
         }
 
-        try {
-            listener.ifPresent(l -> l.handleEvent(event));
-        } catch (Exception ex) {
-            return new Result(Result.ERROR_MESSAGE + ": " + ex.getMessage(), true);
+        event.beginDispatch(this);
+        Result result = null;
+        boolean received = false;
+        for (int i = 0; i < path.length && !event.isPropagationStopped(); i++) {
+            ListenerChain chain = path[i].eventListeners[index(EventPhase.CAPTURING, type)];
+            if (chain.size() > 0) {
+                received = true;
+                event.enterPhase(EventPhase.CAPTURING, path[i]);
+                result = invoke(chain, event, dispatcher, result);
+                if (result.hasError()) {
+                    return result;
+                }
+            }
+        }
+        if (!event.isPropagationStopped() && targetChain.size() > 0) {
+            received = true;
+            event.enterPhase(EventPhase.AT_TARGET, this);
+            result = invoke(targetChain, event, dispatcher, result);
+            if (result.hasError()) {
+                return result;
+            }
         }
-        return new Result(Result.SUCCESS_MESSAGE, false);
+        for (int i = path.length - 1; i >= 0 && !event.isPropagationStopped(); i--) {
+            ListenerChain chain = path[i].eventListeners[index(EventPhase.BUBBLING, type)];
+            if (chain.size() > 0) {
+                received = true;
+                event.enterPhase(EventPhase.BUBBLING, path[i]);
+                result = invoke(chain, event, dispatcher, result);
+                if (result.hasError()) {
+                    return result;
+                }
+            }
+        }
+        return received ? result : Result.missing(event.getEventType());
     }
+
+    // An exception stops the listeners after it, the same as stopping propagation. A pending Result is kept until the
+    // end of the dispatch, unless an error replaces it.
+    private static Result invoke(ListenerChain chain, Event event, AsyncDispatcher dispatcher, Result previous) {
+        Result pending = previous == Result.PENDING ? previous : null;
+        for (int i = 0; i < chain.size() && !event.isPropagationStopped(); i++) {
+            EventListener listener = chain.get(i);
+            if (dispatcher != null && listener instanceof AsyncEventListener async) {
+                Result result = dispatcher.dispatch(async, event);
+                if (result.hasError()) {
+                    return result;
+                }
+                if (result == Result.PENDING) {
+                    pending = result;
+                }
+                continue;
+            }
+            try {
+                listener.handleEvent(event);
+            } catch (Exception ex) {
+                return Result.error(ex);
+            }
+        }
+        return pending != null ? pending : Result.SUCCESS;
+    }
+
+    /**
+     * Determines if sending an event of a type to this item would run any listener other than the given one, either
+     * its own or an ancestor's capturing or bubbling listeners.
+     */
+    boolean hasListenersOtherThan(EventType eventType, EventListener listener) {
+        ListenerChain chain = this.eventListeners[index(EventPhase.AT_TARGET, eventType.ordinal())];
+        if (chain.size() > 1 || (chain.size() == 1 && chain.get(0) != listener)) {
+            return true;
+        }
+        return hasPropagatingListeners(this.getPropagationPath());
+    }
+
+    private static boolean hasPropagatingListeners(MenuItem[] path) {
+        for (MenuItem ancestor : path) {
+            if (ancestor.propagatingCount > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int index(EventPhase phase, int eventType) {
+        return phase.ordinal() * EVENT_TYPES + eventType;
+    }
+
+    private static ListenerChain[] emptyChains() {
+        ListenerChain[] chains = new ListenerChain[PHASES.length * EVENT_TYPES];
+        Arrays.fill(chains, ListenerChain.EMPTY);
+        return chains;
+    }
+
 }
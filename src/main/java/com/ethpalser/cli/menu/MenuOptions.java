@@ -0,0 +1,140 @@
+package com.ethpalser.cli.menu;
+
+import com.ethpalser.cli.menu.command.CommandGrammar;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * MenuOptions is an immutable snapshot of the names that can be selected from a Menu, in the order they are
+ * displayed. A Menu reuses the same snapshot until its version changes, so it can be kept between reads instead of
+ * building a new list of options for every input.
+ */
+public final class MenuOptions {
+
+    private final long version;
+    private final List<String> names;
+    private final Map<String, Integer> indexByName;
+    private final CommandGrammar commandGrammar;
+    private volatile OptionResolver resolver;
+
+    private MenuOptions(final long version, final String[] names, final CommandGrammar commandGrammar) {
+        this.version = version;
+        this.commandGrammar = commandGrammar;
+        this.names = Collections.unmodifiableList(Arrays.asList(names));
+        this.indexByName = new HashMap<>(names.length * 4 / 3 + 1);
+        for (int i = 0; i < names.length; i++) {
+            // The first option keeps the name if several only differ by case, as a linear search would find it first
+            this.indexByName.putIfAbsent(names[i].toLowerCase(Locale.ROOT), i);
+        }
+    }
+
+    /**
+     * Creates a snapshot of the given names. This is intended for fixed option lists, such as confirmations.
+     *
+     * @param names List of option names
+     * @return MenuOptions
+     */
+    public static MenuOptions of(List<String> names) {
+        return new MenuOptions(0, names.toArray(new String[0]), CommandGrammar.EMPTY);
+    }
+
+    static MenuOptions of(long version, MenuItem[] items, CommandGrammar commandGrammar) {
+        String[] names = new String[items.length];
+        for (int i = 0; i < items.length; i++) {
+            names[i] = items[i].getName();
+        }
+        return new MenuOptions(version, names, commandGrammar);
+    }
+
+    /**
+     * Returns the version of the Menu this snapshot was built from.
+     *
+     * @return long
+     */
+    public long getVersion() {
+        return this.version;
+    }
+
+    /**
+     * Returns the grammar of commands that can be entered alongside these options, which is empty unless the Menu
+     * has commands.
+     *
+     * @return CommandGrammar
+     */
+    public CommandGrammar getCommandGrammar() {
+        return this.commandGrammar;
+    }
+
+    /**
+     * Returns the option names in display order. The list cannot be modified.
+     *
+     * @return List of String
+     */
+    public List<String> getNames() {
+        return this.names;
+    }
+
+    public int size() {
+        return this.names.size();
+    }
+
+    /**
+     * Returns the option at the given index, or null if the index is out of bounds.
+     *
+     * @param index integer starting from 0
+     * @return String
+     */
+    public String get(int index) {
+        if (index < 0 || this.names.size() <= index) {
+            return null;
+        }
+        return this.names.get(index);
+    }
+
+    /**
+     * Returns the index of the option matching the given name, ignoring case. If there is no match, -1 is returned.
+     *
+     * @param name String representing the name of an option
+     * @return integer starting from 0, or -1
+     */
+    public int indexOf(String name) {
+        if (name == null) {
+            return -1;
+        }
+        Integer index = this.indexByName.get(name);
+        if (index == null) {
+            index = this.indexByName.get(name.toLowerCase(Locale.ROOT));
+        }
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * Returns a resolver for these options, which also accepts 1-based indexes and unique prefixes of names. It is
+     * built on first use and shared by every read of this snapshot.
+     *
+     * @return OptionResolver
+     */
+    public OptionResolver getResolver() {
+        OptionResolver current = this.resolver;
+        if (current == null) {
+            current = OptionResolver.of(this.names);
+            this.resolver = current;
+        }
+        return current;
+    }
+
+    /**
+     * Determines if an option matches the given name, ignoring case.
+     *
+     * @param name String representing the name of an option
+     * @return boolean (true/false)
+     */
+    public boolean contains(String name) {
+        return this.indexOf(name) != -1;
+    }
+
+}
@@ -0,0 +1,338 @@
+package com.ethpalser.cli.menu;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * MenuSnapshot saves a menu tree to a compact binary file, and loads it back by memory-mapping the file and creating
+ * each menu's children only when they are first needed. Loading a snapshot reads its header and its bindings table,
+ * decoding each distinct binding key once to check it is registered, so a missing binding fails the load rather than
+ * a later visit. No nodes are read until they are needed, and the parts of the tree that are never visited are never
+ * created. Loaded menus are LazyMenus, so the children of menus that have not been visited recently can be released
+ * by a {@link MenuBudget} and created again from the file.
+ * <br><br>
+ * A snapshot keeps each item's name, text display, hidden and disabled flags and the keys of the
+ * {@link ListenerBindings} applied to it, which are applied again when it is loaded. Items are loaded as a MenuItem,
+ * a Menu or a SimpleMenu, whichever their class is or extends, so behaviour added by other subclasses is not kept.
+ * <br><br>
+ * The file is a header followed by four tables:
+ * <ul>
+ *     <li>header: {@link #MAGIC}, {@link #FORMAT_VERSION}, three reserved bytes, then the number of nodes, bindings
+ *     and strings as ints</li>
+ *     <li>nodes, in breadth-first order so each node's children are consecutive, starting with the root. Each is
+ *     {@value #NODE_SIZE} bytes: its kind, its flags, its number of bindings as a short, then as ints its name, its
+ *     text display (-1 if it has none), its first child, its number of children and its first binding</li>
+ *     <li>bindings, the string of each binding key as an int</li>
+ *     <li>strings, the offset of each string in the file as an int</li>
+ *     <li>string data, each string's length in bytes as an int followed by its UTF-8 bytes</li>
+ * </ul>
+ * Numbers are big-endian. Strings are written once and referred to by their index.
+ */
+public final class MenuSnapshot {
+
+    static final int MAGIC = 0x47434D53; // "GCMS"
+    static final int FORMAT_VERSION = 1;
+    static final int HEADER_SIZE = 20;
+    static final int NODE_SIZE = 24;
+
+    private static final byte KIND_ITEM = 0;
+    private static final byte KIND_MENU = 1;
+    private static final byte KIND_SIMPLE_MENU = 2;
+    private static final byte FLAG_HIDDEN = 1;
+    private static final byte FLAG_DISABLED = 2;
+    private static final int NO_STRING = -1;
+
+    private final ByteBuffer buffer;
+    private final ListenerBindings bindings;
+    private final MenuBudget budget;
+    private final int nodeCount;
+    private final int bindingsOffset;
+    private final int stringsOffset;
+
+    private MenuSnapshot(final ByteBuffer buffer, final ListenerBindings bindings, final MenuBudget budget)
+            throws IOException {
+        this.buffer = buffer;
+        this.bindings = bindings;
+        this.budget = budget;
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("not a menu snapshot");
+        }
+        int version = buffer.get(4) & 0xFF;
+        if (version != FORMAT_VERSION) {
+            throw new IOException("unsupported menu snapshot version " + version);
+        }
+        this.nodeCount = buffer.getInt(8);
+        int bindingCount = buffer.getInt(12);
+        int stringCount = buffer.getInt(16);
+        long bindingsStart = HEADER_SIZE + (long) this.nodeCount * NODE_SIZE;
+        long stringsStart = bindingsStart + 4L * bindingCount;
+        if (this.nodeCount <= 0 || bindingCount < 0 || stringCount < 0
+                || stringsStart + 4L * stringCount > buffer.capacity()) {
+            throw new IOException("corrupt menu snapshot, tables do not fit the file");
+        }
+        this.bindingsOffset = (int) bindingsStart;
+        this.stringsOffset = (int) stringsStart;
+        this.checkBindings(bindingCount, stringCount);
+    }
+
+    /**
+     * Writes a menu tree to a file, replacing it if it exists. Every menu's children are read, so LazyMenus in the
+     * tree are loaded.
+     *
+     * @param root Menu at the root of the tree
+     * @param file Path of the snapshot
+     * @throws IOException An I/O exception occurred writing the file.
+     */
+    public static void write(Menu root, Path file) throws IOException {
+        if (root == null) {
+            throw new IllegalArgumentException("root menu cannot be null");
+        }
+        // Breadth-first, so each node's children are consecutive
+        List<MenuItem> nodes = new ArrayList<>();
+        List<MenuItem[]> children = new ArrayList<>();
+        Deque<MenuItem> queue = new ArrayDeque<>();
+        queue.add(root);
+        while (!queue.isEmpty()) {
+            MenuItem item = queue.poll();
+            nodes.add(item);
+            MenuItem[] itemChildren = item instanceof Menu menu
+                    ? menu.getChildren().values().toArray(new MenuItem[0])
+                    : new MenuItem[0];
+            children.add(itemChildren);
+            for (MenuItem child : itemChildren) {
+                queue.add(child);
+            }
+        }
+
+        Map<String, Integer> strings = new HashMap<>();
+        List<byte[]> stringData = new ArrayList<>();
+        List<Integer> bindingStrings = new ArrayList<>();
+        int[] names = new int[nodes.size()];
+        int[] displays = new int[nodes.size()];
+        int[] firstBindings = new int[nodes.size()];
+        for (int i = 0; i < nodes.size(); i++) {
+            MenuItem item = nodes.get(i);
+            names[i] = intern(item.getName(), strings, stringData);
+            displays[i] = kindOf(item) == KIND_SIMPLE_MENU || item.getTextDisplay() == null
+                    ? NO_STRING
+                    : intern(item.getTextDisplay(), strings, stringData);
+            firstBindings[i] = bindingStrings.size();
+            for (String key : item.getBindingKeys()) {
+                bindingStrings.add(intern(key, strings, stringData));
+            }
+        }
+
+        long stringDataStart = HEADER_SIZE + (long) nodes.size() * NODE_SIZE + 4L * bindingStrings.size()
+                + 4L * stringData.size();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeByte(FORMAT_VERSION);
+            out.write(new byte[3]);
+            out.writeInt(nodes.size());
+            out.writeInt(bindingStrings.size());
+            out.writeInt(stringData.size());
+
+            int nextChild = 1;
+            for (int i = 0; i < nodes.size(); i++) {
+                MenuItem item = nodes.get(i);
+                int childCount = children.get(i).length;
+                int bindingCount = item.getBindingKeys().length;
+                if (bindingCount > 0xFFFF) {
+                    throw new IOException("too many listener bindings on " + item.getName());
+                }
+                out.writeByte(kindOf(item));
+                out.writeByte((item.isHidden() ? FLAG_HIDDEN : 0) | (item.isMarkedDisabled() ? FLAG_DISABLED : 0));
+                out.writeShort(bindingCount);
+                out.writeInt(names[i]);
+                out.writeInt(displays[i]);
+                out.writeInt(childCount == 0 ? 0 : nextChild);
+                out.writeInt(childCount);
+                out.writeInt(firstBindings[i]);
+                nextChild += childCount;
+            }
+            for (int string : bindingStrings) {
+                out.writeInt(string);
+            }
+            long offset = stringDataStart;
+            for (byte[] data : stringData) {
+                if (offset > Integer.MAX_VALUE) {
+                    throw new IOException("menu snapshot larger than 2GB");
+                }
+                out.writeInt((int) offset);
+                offset += 4 + data.length;
+            }
+            for (byte[] data : stringData) {
+                out.writeInt(data.length);
+                out.write(data);
+            }
+        }
+    }
+
+    /**
+     * Loads a snapshot using the default MenuBudget, so loaded menus are kept until it is told to release them.
+     *
+     * @param file     Path of the snapshot
+     * @param bindings ListenerBindings of every key in the snapshot
+     * @return Menu at the root of the tree
+     * @throws IOException An I/O exception occurred, or the file is not a snapshot.
+     * @throws IllegalArgumentException The snapshot uses a binding key that is not registered.
+     */
+    public static Menu load(Path file, ListenerBindings bindings) throws IOException {
+        return load(file, bindings, MenuBudget.getDefault());
+    }
+
+    /**
+     * Loads a snapshot by memory-mapping it. Only the root is created, and each menu's children are created from
+     * the mapped file when they are first needed. Every binding key used is checked up front, so a missing binding
+     * is reported now instead of when the item using it is first visited.
+     *
+     * @param file     Path of the snapshot
+     * @param bindings ListenerBindings of every key in the snapshot
+     * @param budget   MenuBudget deciding when the children of loaded menus are released
+     * @return Menu at the root of the tree
+     * @throws IOException An I/O exception occurred, or the file is not a snapshot.
+     * @throws IllegalArgumentException The snapshot uses a binding key that is not registered.
+     */
+    public static Menu load(Path file, ListenerBindings bindings, MenuBudget budget) throws IOException {
+        if (bindings == null || budget == null) {
+            throw new IllegalArgumentException("bindings and budget cannot be null");
+        }
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("menu snapshot larger than 2GB");
+            }
+            // The mapping stays valid after the channel is closed
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        MenuSnapshot snapshot = new MenuSnapshot(buffer, bindings, budget);
+        MenuItem root = snapshot.decode(0);
+        if (!(root instanceof Menu menu)) {
+            throw new IOException("menu snapshot root is not a menu");
+        }
+        return menu;
+    }
+
+    private MenuItem decode(int node) {
+        int offset = HEADER_SIZE + node * NODE_SIZE;
+        byte kind = this.buffer.get(offset);
+        byte flags = this.buffer.get(offset + 1);
+        String name = this.string(this.buffer.getInt(offset + 4));
+        String display = this.string(this.buffer.getInt(offset + 8));
+
+        MenuItem item = switch (kind) {
+            case KIND_ITEM -> new MenuItem(name, display);
+            case KIND_MENU, KIND_SIMPLE_MENU -> new SnapshotMenu(name, kind == KIND_SIMPLE_MENU ? null : display,
+                    this, node);
+            default -> throw new IllegalStateException("corrupt menu snapshot, unknown kind " + kind);
+        };
+        if ((flags & FLAG_HIDDEN) != 0) {
+            item.toggleHidden();
+        }
+        if ((flags & FLAG_DISABLED) != 0) {
+            item.toggleDisabled();
+        }
+        int bindingCount = this.buffer.getShort(offset + 2) & 0xFFFF;
+        int firstBinding = this.buffer.getInt(offset + 20);
+        for (int i = 0; i < bindingCount; i++) {
+            this.bindings.bind(item, this.string(this.buffer.getInt(this.bindingsOffset + 4 * (firstBinding + i))));
+        }
+        return item;
+    }
+
+    private MenuItem[] decodeChildren(int node) {
+        int offset = HEADER_SIZE + node * NODE_SIZE;
+        int firstChild = this.buffer.getInt(offset + 12);
+        int childCount = this.buffer.getInt(offset + 16);
+        if (childCount < 0 || firstChild + (long) childCount > this.nodeCount) {
+            throw new IllegalStateException("corrupt menu snapshot, children out of range");
+        }
+        MenuItem[] children = new MenuItem[childCount];
+        for (int i = 0; i < childCount; i++) {
+            children[i] = this.decode(firstChild + i);
+        }
+        return children;
+    }
+
+    private String string(int index) {
+        if (index == NO_STRING) {
+            return null;
+        }
+        int offset = this.buffer.getInt(this.stringsOffset + 4 * index);
+        byte[] bytes = new byte[this.buffer.getInt(offset)];
+        this.buffer.get(offset + 4, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // Reads each distinct key once, which is a small part of even a large snapshot
+    private void checkBindings(int bindingCount, int stringCount) throws IOException {
+        BitSet checked = new BitSet(stringCount);
+        for (int i = 0; i < bindingCount; i++) {
+            int index = this.buffer.getInt(this.bindingsOffset + 4 * i);
+            if (index < 0 || index >= stringCount) {
+                throw new IOException("corrupt menu snapshot, unknown string " + index);
+            }
+            if (!checked.get(index)) {
+                checked.set(index);
+                String key = this.string(index);
+                if (!this.bindings.contains(key)) {
+                    throw new IllegalArgumentException("no listener binding registered for " + key);
+                }
+            }
+        }
+    }
+
+    private static byte kindOf(MenuItem item) {
+        if (item instanceof SimpleMenu) {
+            return KIND_SIMPLE_MENU;
+        }
+        return item instanceof Menu ? KIND_MENU : KIND_ITEM;
+    }
+
+    private static int intern(String value, Map<String, Integer> strings, List<byte[]> stringData) {
+        Integer index = strings.get(value);
+        if (index == null) {
+            index = stringData.size();
+            strings.put(value, index);
+            stringData.add(value.getBytes(StandardCharsets.UTF_8));
+        }
+        return index;
+    }
+
+    /**
+     * A menu loaded from a snapshot, whose children are decoded from the mapped file when they are needed. A menu
+     * saved from a Menu that was not a SimpleMenu keeps its saved text display instead of listing its children.
+     */
+    private static final class SnapshotMenu extends LazyMenu {
+
+        private final String display;
+
+        private SnapshotMenu(final String name, final String display, final MenuSnapshot snapshot, final int node) {
+            super(name, () -> snapshot.decodeChildren(node), snapshot.budget);
+            this.display = display;
+        }
+
+        @Override
+        public String getTextDisplay() {
+            if (this.display == null) {
+                return super.getTextDisplay();
+            }
+            return this.display;
+        }
+    }
+
+}
@@ -0,0 +1,289 @@
+package com.ethpalser.cli.menu;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * OptionResolver finds which option an input refers to. An input can be the 1-based index of an option, its name,
+ * or any prefix of its name that no other option shares. Names are compared ignoring case.
+ * <br><br>
+ * The names are stored in a trie built once for a list of options, so resolving an input takes time proportional
+ * to the length of the input rather than the number of options, and does not allocate.
+ */
+public final class OptionResolver {
+
+    /**
+     * Returned by resolve when no option matches the input.
+     */
+    public static final int NO_MATCH = -1;
+    /**
+     * Returned by resolve when the input is a prefix of more than one option, and is not an option itself.
+     */
+    public static final int AMBIGUOUS = -2;
+
+    private static final int ROOT = 0;
+
+    private final String[] options;
+    // Each node's edges are edgeLabel/edgeTarget[edgeStart[node] .. edgeStart[node + 1]), sorted by label
+    private final int[] edgeStart;
+    private final char[] edgeLabel;
+    private final int[] edgeTarget;
+    // Option whose full name ends at the node, or NO_MATCH
+    private final int[] terminal;
+    // Option found under the node if only one option is found under it, otherwise AMBIGUOUS
+    private final int[] unique;
+
+    private OptionResolver(final String[] options) {
+        this.options = options;
+        TrieBuilder builder = new TrieBuilder(options);
+        int nodes = builder.size;
+        this.terminal = Arrays.copyOf(builder.terminal, nodes);
+        this.unique = Arrays.copyOf(builder.unique, nodes);
+        this.edgeStart = new int[nodes + 1];
+        this.edgeLabel = new char[nodes - 1];
+        this.edgeTarget = new int[nodes - 1];
+        int edge = 0;
+        for (int node = 0; node < nodes; node++) {
+            this.edgeStart[node] = edge;
+            for (int child = builder.firstChild[node]; child != 0; child = builder.nextSibling[child]) {
+                this.edgeLabel[edge] = builder.label[child];
+                this.edgeTarget[edge] = child;
+                edge++;
+            }
+        }
+        this.edgeStart[nodes] = edge;
+    }
+
+    /**
+     * Builds a resolver for the given option names. If several names only differ by case, the first is used.
+     *
+     * @param options List of option names
+     * @return OptionResolver
+     */
+    public static OptionResolver of(List<String> options) {
+        return new OptionResolver(options.toArray(new String[0]));
+    }
+
+    /**
+     * Resolves the whole input to an option.
+     *
+     * @param input CharSequence typed by the user
+     * @return the index of the option from 0, {@link #NO_MATCH} or {@link #AMBIGUOUS}
+     * @see #resolve(CharSequence, int, int)
+     */
+    public int resolve(CharSequence input) {
+        if (input == null) {
+            return NO_MATCH;
+        }
+        return this.resolve(input, 0, input.length());
+    }
+
+    /**
+     * Resolves part of an input to an option. The part is first read as a 1-based index if it only contains digits
+     * and is in range. Otherwise, an option whose name matches it exactly is used, followed by the only option whose
+     * name starts with it.
+     *
+     * @param input CharSequence typed by the user
+     * @param start index of the first character to resolve
+     * @param end   index after the last character to resolve
+     * @return the index of the option from 0, {@link #NO_MATCH} or {@link #AMBIGUOUS}
+     */
+    public int resolve(CharSequence input, int start, int end) {
+        if (start >= end) {
+            return NO_MATCH;
+        }
+        int index = this.parseIndex(input, start, end);
+        if (index != NO_MATCH) {
+            return index;
+        }
+        int node = this.find(input, start, end);
+        if (node == NO_MATCH) {
+            return NO_MATCH;
+        }
+        return this.terminal[node] != NO_MATCH ? this.terminal[node] : this.unique[node];
+    }
+
+    /**
+     * Returns the names of options starting with the given prefix, in alphabetical order. This is intended for
+     * reporting an ambiguous input, so at most limit names are returned.
+     *
+     * @param prefix CharSequence all returned names start with, ignoring case
+     * @param limit  maximum number of names to return
+     * @return List of String
+     */
+    public List<String> getCandidates(CharSequence prefix, int limit) {
+        int node = this.find(prefix, 0, prefix.length());
+        if (node == NO_MATCH || limit <= 0) {
+            return Collections.emptyList();
+        }
+        List<String> candidates = new ArrayList<>();
+        this.collect(node, candidates, limit);
+        return candidates;
+    }
+
+    /**
+     * Returns the name of the option at the given index, or null if it is out of bounds.
+     *
+     * @param index integer starting from 0
+     * @return String
+     */
+    public String getOption(int index) {
+        if (index < 0 || this.options.length <= index) {
+            return null;
+        }
+        return this.options[index];
+    }
+
+    public int size() {
+        return this.options.length;
+    }
+
+    private int parseIndex(CharSequence input, int start, int end) {
+        if (end - start > 9) {
+            return NO_MATCH; // larger than any index that fits an array
+        }
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            char c = input.charAt(i);
+            if (c < '0' || c > '9') {
+                return NO_MATCH;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return 0 < value && value <= this.options.length ? value - 1 : NO_MATCH;
+    }
+
+    private int find(CharSequence input, int start, int end) {
+        int node = ROOT;
+        for (int i = start; i < end; i++) {
+            node = this.child(node, Character.toLowerCase(input.charAt(i)));
+            if (node == NO_MATCH) {
+                return NO_MATCH;
+            }
+        }
+        return node;
+    }
+
+    private int child(int node, char c) {
+        int low = this.edgeStart[node];
+        int high = this.edgeStart[node + 1] - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            char label = this.edgeLabel[mid];
+            if (label < c) {
+                low = mid + 1;
+            } else if (label > c) {
+                high = mid - 1;
+            } else {
+                return this.edgeTarget[mid];
+            }
+        }
+        return NO_MATCH;
+    }
+
+    private void collect(int node, List<String> candidates, int limit) {
+        if (this.terminal[node] != NO_MATCH) {
+            candidates.add(this.options[this.terminal[node]]);
+        }
+        for (int e = this.edgeStart[node]; e < this.edgeStart[node + 1] && candidates.size() < limit; e++) {
+            this.collect(this.edgeTarget[e], candidates, limit);
+        }
+    }
+
+    /**
+     * Builds the trie as first-child/next-sibling links. Names are inserted in sorted order, so a new edge is always
+     * the last child of its node and an existing edge can only be the last child, which keeps insertion O(1) per
+     * character and leaves each node's children sorted by label.
+     */
+    private static final class TrieBuilder {
+
+        private int size;
+        private char[] label;
+        private int[] firstChild;
+        private int[] lastChild;
+        private int[] nextSibling;
+        private int[] terminal;
+        private int[] unique;
+
+        private TrieBuilder(String[] options) {
+            String[] folded = new String[options.length];
+            Integer[] order = new Integer[options.length];
+            int capacity = 1;
+            for (int i = 0; i < options.length; i++) {
+                folded[i] = fold(options[i]);
+                order[i] = i;
+                capacity += folded[i].length();
+            }
+            // Sorting by name then by index keeps the first of several names that only differ by case
+            Arrays.sort(order, (a, b) -> {
+                int cmp = folded[a].compareTo(folded[b]);
+                return cmp != 0 ? cmp : Integer.compare(a, b);
+            });
+
+            this.label = new char[capacity];
+            this.firstChild = new int[capacity];
+            this.lastChild = new int[capacity];
+            this.nextSibling = new int[capacity];
+            this.terminal = new int[capacity];
+            this.unique = new int[capacity];
+            this.size = 0;
+            this.newNode('\0');
+
+            String previous = null;
+            for (Integer index : order) {
+                if (folded[index].equals(previous)) {
+                    continue;
+                }
+                previous = folded[index];
+                this.insert(folded[index], index);
+            }
+        }
+
+        private static String fold(String name) {
+            char[] chars = name.toCharArray();
+            for (int i = 0; i < chars.length; i++) {
+                chars[i] = Character.toLowerCase(chars[i]);
+            }
+            return new String(chars);
+        }
+
+        private int newNode(char c) {
+            int node = this.size++;
+            this.label[node] = c;
+            this.terminal[node] = NO_MATCH;
+            this.unique[node] = NO_MATCH;
+            return node;
+        }
+
+        private void insert(String name, int index) {
+            int node = ROOT;
+            this.visit(node, index);
+            for (int i = 0; i < name.length(); i++) {
+                char c = name.charAt(i);
+                int last = this.lastChild[node];
+                int next;
+                if (last != 0 && this.label[last] == c) {
+                    next = last;
+                } else {
+                    next = this.newNode(c);
+                    if (last == 0) {
+                        this.firstChild[node] = next;
+                    } else {
+                        this.nextSibling[last] = next;
+                    }
+                    this.lastChild[node] = next;
+                }
+                node = next;
+                this.visit(node, index);
+            }
+            this.terminal[node] = index;
+        }
+
+        private void visit(int node, int index) {
+            this.unique[node] = this.unique[node] == NO_MATCH ? index : AMBIGUOUS;
+        }
+    }
+
+}
@@ -0,0 +1,164 @@
+package com.ethpalser.cli.menu;
+
+import com.ethpalser.cli.menu.command.ArgumentType;
+import com.ethpalser.cli.menu.command.CommandSpec;
+import com.ethpalser.cli.util.StringUtils;
+import java.util.List;
+
+/**
+ * PagedMenu lists its visible children one page at a time, so a menu with thousands of children renders a frame no
+ * larger than its page size. Children are numbered by their position among every visible child, not just those on
+ * the page, so any child can be selected by its number or name from any page, as with a SimpleMenu.
+ * <br><br>
+ * The page is changed with the commands {@value #NEXT_COMMAND}, {@value #PRIOR_COMMAND} and
+ * {@value #PAGE_COMMAND} followed by a page number, which are added when it is created. Changing the page does not
+ * change this menu's version, as its children and options are the same, so they are not rebuilt. Only the text of
+ * the current page is built, by reading its children from the positional index.
+ * <br><br>
+ * The current page is kept by the Context of the session, see {@link Context#getInstance()}, so sessions sharing this
+ * menu each page through it on their own.
+ */
+public class PagedMenu extends Menu {
+
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final String NEXT_COMMAND = "next";
+    public static final String PRIOR_COMMAND = "prior";
+    public static final String PAGE_COMMAND = "page";
+
+    private final int pageSize;
+    private volatile RenderedPage rendered;
+
+    public PagedMenu(final String name, final MenuItem[] children, final int pageSize) {
+        super(name, children);
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("page size must be positive");
+        }
+        this.pageSize = pageSize;
+        this.addCommand(CommandSpec.builder(NEXT_COMMAND).build(), command -> this.nextPage());
+        this.addCommand(CommandSpec.builder(PRIOR_COMMAND).build(), command -> this.priorPage());
+        this.addCommand(CommandSpec.builder(PAGE_COMMAND).argument("number", ArgumentType.INTEGER).build(),
+                command -> this.setPage(command.getInt("number") - 1));
+    }
+
+    public PagedMenu(final String name, final MenuItem[] children) {
+        this(name, children, DEFAULT_PAGE_SIZE);
+    }
+
+    public PagedMenu(final String name) {
+        this(name, new MenuItem[]{});
+    }
+
+    public int getPageSize() {
+        return this.pageSize;
+    }
+
+    /**
+     * Returns the number of pages needed to list every visible child, which is at least 1.
+     *
+     * @return int
+     */
+    public int getPageCount() {
+        return Math.max(1, (this.getVisibleChildCount() + this.pageSize - 1) / this.pageSize);
+    }
+
+    /**
+     * Returns the current page of the current session, starting from 0. If children were removed or hidden since it
+     * was set, it is moved back to the last page.
+     *
+     * @return int
+     */
+    public int getPage() {
+        return Math.min(Context.getInstance().getPage(this), this.getPageCount() - 1);
+    }
+
+    /**
+     * Sets the current page of the current session, starting from 0. A page past the last is moved to the last, and
+     * a negative page to the first.
+     *
+     * @param page int page from 0
+     */
+    public void setPage(int page) {
+        Context.getInstance().setPage(this, Math.max(0, Math.min(page, this.getPageCount() - 1)));
+    }
+
+    /**
+     * Moves to the next page, unless this is the last.
+     *
+     * @return true if the page changed, otherwise false
+     */
+    public boolean nextPage() {
+        int current = this.getPage();
+        this.setPage(current + 1);
+        return this.getPage() != current;
+    }
+
+    /**
+     * Moves to the page before this one, unless this is the first.
+     *
+     * @return true if the page changed, otherwise false
+     */
+    public boolean priorPage() {
+        int current = this.getPage();
+        this.setPage(current - 1);
+        return this.getPage() != current;
+    }
+
+    /**
+     * Fetches a text representation of the current page as a list of its children, numbered by their position among
+     * all visible children, followed by the page number and the commands to change it.
+     * <br><br>
+     * The text is cached and only rebuilt when the page or the version of this menu changes, so sessions viewing
+     * different pages rebuild it as they take turns.
+     *
+     * @return String representing a page of this menu's children.
+     */
+    @Override
+    public String getTextDisplay() {
+        long version = this.getVersion();
+        int current = this.getPage();
+        RenderedPage cached = this.rendered;
+        if (cached == null || cached.version != version || cached.page != current) {
+            cached = new RenderedPage(version, current, this.buildTextDisplayFromPage(current));
+            this.rendered = cached;
+        }
+        return cached.text;
+    }
+
+    @Override
+    void clearCaches() {
+        super.clearCaches();
+        this.rendered = null;
+    }
+
+    private String buildTextDisplayFromPage(int page) {
+        List<MenuItem> visible = this.getVisibleChildren();
+        int first = page * this.pageSize;
+        int end = Math.min(first + this.pageSize, visible.size());
+        StringBuilder sb = new StringBuilder((end - first + 1) * 16);
+        for (int i = first; i < end; i++) {
+            sb.append(i + 1).append(". ").append(StringUtils.capitalizeWord(visible.get(i).getName())).append("\n");
+        }
+        sb.append("Page ").append(page + 1).append(" of ").append(this.getPageCount())
+                .append(" (").append(NEXT_COMMAND).append(", ").append(PRIOR_COMMAND).append(", ")
+                .append(PAGE_COMMAND).append(" <number>)");
+        return sb.toString();
+    }
+
+    /**
+     * Text built for a specific version and page, so a reader always sees a matching set even if another thread
+     * rebuilds it.
+     */
+    private static final class RenderedPage {
+
+        private final long version;
+        private final int page;
+        private final String text;
+
+        private RenderedPage(long version, int page, String text) {
+            this.version = version;
+            this.page = page;
+            this.text = text;
+        }
+    }
+
+}
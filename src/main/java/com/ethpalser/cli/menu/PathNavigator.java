@@ -0,0 +1,241 @@
+package com.ethpalser.cli.menu;
+
+import com.ethpalser.cli.menu.event.AsyncDispatcher;
+import com.ethpalser.cli.menu.event.Event;
+import com.ethpalser.cli.menu.event.EventType;
+import com.ethpalser.cli.menu.event.Result;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * PathNavigator enters a chain of menus in one step from a path such as "start/advanced/custom", instead of selecting
+ * one menu at a time. Each segment of the path is resolved among the visible children of the menu before it the same
+ * way as typed input, so it can be an option's name, a unique prefix of its name or its number. A path starting with
+ * {@value #SEPARATOR} starts from the default menu of the Context, and any other path from its active menu.
+ * <br><br>
+ * Menus on the path are pushed onto the Context directly when entering them is all selecting them would do. A menu
+ * with other SELECT listeners, or with ancestors capturing or bubbling events, is sent a SELECT event instead, so its
+ * listeners still run, and the path stops there if they keep it from being entered. If the path ends at an item that
+ * is not a menu, it is sent a SELECT event once the menus before it are entered.
+ * <br><br>
+ * Recently resolved paths are cached, up to a limit with the least recently used dropped first. A cached path is
+ * used as long as each item on it is still a child of the menu before it and no menu on it has changed its version,
+ * such as by adding, removing or hiding children. Changes anywhere else, such as in other trees, do not affect it.
+ */
+public class PathNavigator {
+
+    public static final char SEPARATOR = '/';
+    public static final int DEFAULT_CACHE_SIZE = 64;
+
+    private final Map<PathKey, ResolvedPath> cache;
+
+    public PathNavigator() {
+        this(DEFAULT_CACHE_SIZE);
+    }
+
+    public PathNavigator(final int cacheSize) {
+        if (cacheSize < 0) {
+            throw new IllegalArgumentException("cache size cannot be negative");
+        }
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<PathKey, ResolvedPath> eldest) {
+                return this.size() > cacheSize;
+            }
+        };
+    }
+
+    /**
+     * Determines if an input is a path rather than a single option.
+     *
+     * @param input String typed by the user
+     * @return boolean (true/false)
+     */
+    public static boolean isPath(String input) {
+        return input != null && input.indexOf(SEPARATOR) >= 0;
+    }
+
+    /**
+     * Resolves a path to the items along it, starting from a menu. Empty segments, such as from a trailing
+     * separator, are ignored.
+     *
+     * @param start Menu the path is relative to
+     * @param path  String of segments separated by {@value #SEPARATOR}
+     * @return array of MenuItem from the first segment to the last, which must not be changed, or null if a segment
+     * does not match a visible child or a segment other than the last is not a menu
+     */
+    public MenuItem[] resolve(Menu start, String path) {
+        if (start == null || path == null) {
+            return null;
+        }
+        PathKey key = new PathKey(start, path);
+        synchronized (this.cache) {
+            ResolvedPath cached = this.cache.get(key);
+            if (cached != null && cached.isValid(start)) {
+                return cached.items;
+            }
+        }
+
+        List<MenuItem> items = new ArrayList<>();
+        Menu menu = start;
+        int from = 0;
+        while (from <= path.length()) {
+            int to = path.indexOf(SEPARATOR, from);
+            if (to == -1) {
+                to = path.length();
+            }
+            if (to > from) {
+                if (menu == null) {
+                    return null; // the item before this segment is not a menu
+                }
+                int index = menu.getVisibleOptions().getResolver().resolve(path, from, to);
+                MenuItem child = index < 0 ? null : menu.getVisibleChild(index);
+                if (child == null) {
+                    return null;
+                }
+                items.add(child);
+                menu = child instanceof Menu next ? next : null;
+            }
+            from = to + 1;
+        }
+
+        ResolvedPath resolved = new ResolvedPath(start, items.toArray(new MenuItem[0]));
+        synchronized (this.cache) {
+            this.cache.put(key, resolved);
+        }
+        return resolved.items;
+    }
+
+    /**
+     * Navigates a Context along a path, without any arguments for the item it ends at.
+     *
+     * @param context Context to navigate
+     * @param path    String of segments separated by {@value #SEPARATOR}
+     * @return Result
+     * @see #navigate(Context, String, String[], AsyncDispatcher)
+     */
+    public Result navigate(Context context, String path) {
+        return this.navigate(context, path, null, null);
+    }
+
+    /**
+     * Navigates a Context along a path, entering each menu on it. The Context is bound to this thread while the
+     * SELECT events are sent, so listeners entering menus enter them in this Context.
+     *
+     * @param context    Context to navigate
+     * @param path       String of segments separated by {@value #SEPARATOR}
+     * @param args       String array of arguments for the SELECT event of the item the path ends at, or null
+     * @param dispatcher AsyncDispatcher to start asynchronous listeners with, or null to wait for them
+     * @return Result of the last SELECT event sent, or a Result with an error if the path could not be followed
+     */
+    public Result navigate(Context context, String path, String[] args, AsyncDispatcher dispatcher) {
+        if (context == null || path == null) {
+            return Result.INVALID;
+        }
+        boolean absolute = !path.isEmpty() && path.charAt(0) == SEPARATOR;
+        MenuItem[] items = this.resolve(absolute ? context.getDefault() : context.peek(), path);
+        if (items == null) {
+            return new Result("path not found: " + path, true);
+        }
+
+        Context previous = Context.bind(context);
+        try {
+            if (absolute) {
+                context.reset();
+            }
+            Result result = Result.SUCCESS;
+            for (int i = 0; i < items.length; i++) {
+                MenuItem item = items[i];
+                if (item.isDisabled()) {
+                    return new Result("path disabled at: " + item.getName(), true);
+                }
+                boolean last = i == items.length - 1;
+                if (item instanceof Menu menu && !menu.hasListenersOtherThan(EventType.SELECT,
+                        menu.getEnterListener())) {
+                    context.push(menu);
+                    continue;
+                }
+                result = item.receiveEvent(new Event(EventType.SELECT, item.getName(), last ? args : null),
+                        dispatcher);
+                if (result.hasError()) {
+                    return result;
+                }
+                if (item instanceof Menu && context.peek() != item) {
+                    return new Result("path stopped at: " + item.getName(), true);
+                }
+            }
+            return result;
+        } finally {
+            Context.bind(previous);
+        }
+    }
+
+    /**
+     * Drops every cached path.
+     */
+    public void clearCache() {
+        synchronized (this.cache) {
+            this.cache.clear();
+        }
+    }
+
+    /**
+     * A path from a menu, compared by the identity of the menu.
+     */
+    private static final class PathKey {
+
+        private final Menu start;
+        private final String path;
+
+        private PathKey(Menu start, String path) {
+            this.start = start;
+            this.path = path;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof PathKey other && this.start == other.start && this.path.equals(other.path);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(this.start) + this.path.hashCode();
+        }
+    }
+
+    /**
+     * The items along a path, with the versions of the menus their names were resolved in.
+     */
+    private static final class ResolvedPath {
+
+        private final MenuItem[] items;
+        private final long[] versions; // of the start, then of each item but the last
+
+        private ResolvedPath(Menu start, MenuItem[] items) {
+            this.items = items;
+            this.versions = new long[Math.max(1, items.length)];
+            this.versions[0] = start.getVersion();
+            for (int i = 0; i < items.length - 1; i++) {
+                this.versions[i + 1] = items[i].getVersion();
+            }
+        }
+
+        private boolean isValid(Menu start) {
+            if (this.versions[0] != start.getVersion()) {
+                return false;
+            }
+            MenuItem parent = start;
+            for (int i = 0; i < this.items.length; i++) {
+                if (this.items[i].getParent() != parent
+                        || (i < this.items.length - 1 && this.versions[i + 1] != this.items[i].getVersion())) {
+                    return false;
+                }
+                parent = this.items[i];
+            }
+            return true;
+        }
+    }
+
+}
@@ -0,0 +1,423 @@
+package com.ethpalser.cli.menu;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * SearchIndex finds items anywhere in a menu tree by their name, or by the text display of items that are not menus,
+ * as a menu's display is usually built from its children. The index is attached to the root of the tree and is kept
+ * up to date as children are added to or removed from any menu in it, including when a LazyMenu loads or releases
+ * its children. Children of LazyMenus that are not loaded are not indexed, as that would load them.
+ * <br><br>
+ * Text is indexed by its trigrams, every three characters in a row, with a space before it so the start of each word
+ * counts. Each trigram keeps the ids of the items having it in increasing order. A query matches an item having at
+ * least half of the query's trigrams, so a match can have a typo or a missing word. Items are examined from the
+ * rarest of the query's trigrams to the most common, and an item's other trigrams are counted by searching forward
+ * through their ids. Once enough items are found that no item left to examine could have more trigrams, the search
+ * stops. At most {@value #MAX_CANDIDATES} items are examined, so a query takes about the same time regardless of the
+ * size of the tree, and a very common query may miss some of its matches.
+ * <br><br>
+ * Removed items are only marked as removed, as are the old entries of items whose text changed, and the index is
+ * rebuilt once more entries are removed than are left.
+ */
+public final class SearchIndex {
+
+    static final int MIN_QUERY_LENGTH = 2;
+    static final int MAX_CANDIDATES = 8192;
+    private static final int MIN_REBUILD = 1024;
+
+    private final Menu root;
+    private final Map<MenuItem, Integer> ids;
+    private final Map<Long, Postings> postings;
+    private MenuItem[] items; // null once removed
+    private String[] names; // folded, with a leading space
+    private String[] displays; // folded, with a leading space, or null if there is no other text
+    private int[] examined; // the search that last examined each item, so it is examined once per search
+    private int search;
+    private int size;
+    private int removed;
+
+    private SearchIndex(final Menu root) {
+        this.root = root;
+        this.ids = new IdentityHashMap<>();
+        this.postings = new HashMap<>();
+        this.items = new MenuItem[16];
+        this.names = new String[16];
+        this.displays = new String[16];
+        this.examined = new int[16];
+        this.search = 0;
+        this.size = 0;
+        this.removed = 0;
+    }
+
+    /**
+     * Returns the index of a menu tree, creating it and indexing every loaded item if the menu does not have one.
+     *
+     * @param root Menu at the root of the tree
+     * @return SearchIndex
+     */
+    public static SearchIndex of(Menu root) {
+        if (root == null) {
+            throw new IllegalArgumentException("root menu cannot be null");
+        }
+        synchronized (root) {
+            SearchIndex index = root.getSearchIndex();
+            if (index == null) {
+                index = new SearchIndex(root);
+                index.add(root);
+                root.setSearchIndex(index);
+            }
+            return index;
+        }
+    }
+
+    /**
+     * Returns the index of the tree an item is in, or null if none of its ancestors has an index.
+     */
+    static SearchIndex find(MenuItem item) {
+        for (MenuItem current = item; current != null; current = current.getParent()) {
+            if (current instanceof Menu menu) {
+                SearchIndex index = menu.getSearchIndex();
+                if (index != null) {
+                    return index;
+                }
+            }
+        }
+        return null;
+    }
+
+    public Menu getRoot() {
+        return this.root;
+    }
+
+    /**
+     * Returns the number of items indexed.
+     *
+     * @return int
+     */
+    public synchronized int size() {
+        return this.size - this.removed;
+    }
+
+    /**
+     * Returns the number of entries, including those marked as removed and not yet dropped by a rebuild.
+     */
+    synchronized int entries() {
+        return this.size;
+    }
+
+    /**
+     * Finds the items best matching a query, best first. Items that are hidden, or that have a hidden ancestor, are
+     * not returned. Items are ranked by how many of the query's trigrams they have, then by whether their name
+     * contains the whole query, then by the length of their name.
+     *
+     * @param query String to search for
+     * @param limit int most items to return
+     * @return List of MenuItem, which is empty if the query is shorter than two characters or nothing matches
+     */
+    public synchronized List<MenuItem> search(String query, int limit) {
+        String folded = query == null ? "" : fold(query).trim();
+        if (folded.length() < MIN_QUERY_LENGTH || limit <= 0) {
+            return List.of();
+        }
+        String text = " " + folded;
+        long[] grams = trigrams(text);
+        Postings[] lists = new Postings[grams.length];
+        for (int i = 0; i < grams.length; i++) {
+            lists[i] = this.postings.get(grams[i]);
+        }
+        Arrays.sort(lists, Comparator.comparingInt(list -> list == null ? 0 : list.size));
+
+        // An item with at least half of the trigrams must have one of the rarest, all but required - 1 of them
+        int required = (grams.length + 1) / 2;
+        if (++this.search == 0) {
+            Arrays.fill(this.examined, 0);
+            this.search = 1;
+        }
+        Match[] best = new Match[Math.min(limit, MAX_CANDIDATES)]; // kept in rank order
+        int found = 0;
+        int candidates = 0;
+        examine:
+        for (int l = 0; l < grams.length - required + 1; l++) {
+            // Items not examined yet are not in the rarer lists, so they can have at most this many trigrams
+            if (found == best.length && best[found - 1].hits >= grams.length - l) {
+                break;
+            }
+            Postings list = lists[l];
+            if (list == null) {
+                continue;
+            }
+            // Ids are examined in increasing order, so each other list is searched forward from where it last was
+            int[] cursors = new int[lists.length];
+            for (int i = 0; i < list.size; i++) {
+                int id = list.ids[i];
+                if (this.items[id] == null || this.examined[id] == this.search) {
+                    continue;
+                }
+                if (++candidates > MAX_CANDIDATES) {
+                    break examine;
+                }
+                this.examined[id] = this.search;
+                int hits = 1;
+                for (int other = l + 1; other < lists.length && hits + lists.length - other >= required; other++) {
+                    cursors[other] = lists[other].seek(cursors[other], id);
+                    if (cursors[other] < lists[other].size && lists[other].ids[cursors[other]] == id) {
+                        hits++;
+                    }
+                }
+                if (hits < required || (found == best.length && hits < best[found - 1].hits)) {
+                    continue;
+                }
+                boolean contains = this.names[id].contains(folded)
+                        || (this.displays[id] != null && this.displays[id].contains(folded));
+                Match match = new Match(id, hits, contains, this.names[id].length());
+                if ((found < best.length || match.ranksAbove(best[found - 1])) && this.isShown(this.items[id])) {
+                    int position = Math.min(found, best.length - 1);
+                    while (position > 0 && match.ranksAbove(best[position - 1])) {
+                        best[position] = best[position - 1];
+                        position--;
+                    }
+                    best[position] = match;
+                    found = Math.min(found + 1, best.length);
+                }
+            }
+        }
+
+        List<MenuItem> results = new ArrayList<>(found);
+        for (int i = 0; i < found; i++) {
+            results.add(this.items[best[i].id]);
+        }
+        return results;
+    }
+
+    /**
+     * Indexes an item and its loaded descendants, skipping any already indexed.
+     */
+    synchronized void add(MenuItem item) {
+        Deque<MenuItem> pending = new ArrayDeque<>();
+        pending.push(item);
+        while (!pending.isEmpty()) {
+            MenuItem next = pending.pop();
+            if (this.ids.containsKey(next)) {
+                continue;
+            }
+            this.addEntry(next);
+            if (next instanceof Menu menu) {
+                for (MenuItem child : menu.getLoadedChildren()) {
+                    pending.push(child);
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes an item and its loaded descendants from the index.
+     */
+    synchronized void remove(MenuItem item) {
+        Deque<MenuItem> pending = new ArrayDeque<>();
+        pending.push(item);
+        while (!pending.isEmpty()) {
+            MenuItem next = pending.pop();
+            Integer id = this.ids.remove(next);
+            if (id == null) {
+                continue;
+            }
+            this.items[id] = null;
+            this.removed++;
+            if (next instanceof Menu menu) {
+                for (MenuItem child : menu.getLoadedChildren()) {
+                    pending.push(child);
+                }
+            }
+        }
+        this.rebuildIfSparse();
+    }
+
+    /**
+     * Indexes an item's text again after it changed. The item gets a new id, and its old one is marked as removed.
+     */
+    synchronized void update(MenuItem item) {
+        Integer id = this.ids.remove(item);
+        if (id != null) {
+            this.items[id] = null;
+            this.removed++;
+            this.addEntry(item);
+            this.rebuildIfSparse();
+        }
+    }
+
+    private void rebuildIfSparse() {
+        if (this.removed > MIN_REBUILD && this.removed > this.size - this.removed) {
+            this.rebuild();
+        }
+    }
+
+    private void addEntry(MenuItem item) {
+        if (this.size == this.items.length) {
+            int capacity = this.items.length * 2;
+            this.items = Arrays.copyOf(this.items, capacity);
+            this.names = Arrays.copyOf(this.names, capacity);
+            this.displays = Arrays.copyOf(this.displays, capacity);
+            this.examined = Arrays.copyOf(this.examined, capacity);
+        }
+        int id = this.size++;
+        String name = item.getName() == null ? "" : fold(item.getName());
+        String display = item instanceof Menu || item.getTextDisplay() == null ? null : fold(item.getTextDisplay());
+        this.items[id] = item;
+        this.names[id] = " " + name;
+        this.displays[id] = display == null || display.equals(name) ? null : " " + display;
+        this.ids.put(item, id);
+        this.addPostings(id, this.names[id]);
+        this.addPostings(id, this.displays[id]);
+    }
+
+    private void addPostings(int id, String text) {
+        if (text == null) {
+            return;
+        }
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            Postings list = this.postings.computeIfAbsent(trigram(text, i), key -> new Postings());
+            // Ids are added in increasing order, so a trigram repeated by this item is always the last one added
+            if (list.size == 0 || list.ids[list.size - 1] != id) {
+                list.add(id);
+            }
+        }
+    }
+
+    private void rebuild() {
+        MenuItem[] live = new MenuItem[this.size - this.removed];
+        int count = 0;
+        for (int id = 0; id < this.size; id++) {
+            if (this.items[id] != null) {
+                live[count++] = this.items[id];
+            }
+        }
+        this.ids.clear();
+        this.postings.clear();
+        this.items = new MenuItem[Math.max(16, count)];
+        this.names = new String[this.items.length];
+        this.displays = new String[this.items.length];
+        this.examined = new int[this.items.length];
+        this.size = 0;
+        this.removed = 0;
+        for (MenuItem item : live) {
+            this.addEntry(item);
+        }
+    }
+
+    // An item is shown if neither it nor its ancestors below the root are hidden, and it is still in the tree
+    private boolean isShown(MenuItem item) {
+        for (MenuItem current = item; current != null; current = current.getParent()) {
+            if (current == this.root) {
+                return true;
+            }
+            if (current.isHidden()) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private static long[] trigrams(String text) {
+        long[] grams = new long[Math.max(0, text.length() - 2)];
+        int count = 0;
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            long gram = trigram(text, i);
+            boolean repeated = false;
+            for (int j = 0; j < count && !repeated; j++) {
+                repeated = grams[j] == gram;
+            }
+            if (!repeated) {
+                grams[count++] = gram;
+            }
+        }
+        return Arrays.copyOf(grams, count);
+    }
+
+    private static long trigram(String text, int start) {
+        return ((long) text.charAt(start) << 32) | ((long) text.charAt(start + 1) << 16) | text.charAt(start + 2);
+    }
+
+    // Lower case, with anything other than letters and digits as a space
+    private static String fold(String text) {
+        char[] chars = text.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.isLetterOrDigit(chars[i]) ? Character.toLowerCase(chars[i]) : ' ';
+        }
+        return new String(chars);
+    }
+
+    private static final class Postings {
+
+        private int[] ids = new int[4];
+        private int size;
+
+        private void add(int id) {
+            if (this.size == this.ids.length) {
+                this.ids = Arrays.copyOf(this.ids, this.size * 2);
+            }
+            this.ids[this.size++] = id;
+        }
+
+        /**
+         * Returns the position of the first id at or after from that is not less than the given id, found by
+         * doubling the step and then by binary search, so a search close to the last one is quick.
+         */
+        private int seek(int from, int id) {
+            int step = 1;
+            int low = from;
+            int high = from;
+            while (high < this.size && this.ids[high] < id) {
+                low = high + 1;
+                high += step;
+                step <<= 1;
+            }
+            high = Math.min(high, this.size);
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (this.ids[mid] < id) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+
+    private static final class Match {
+
+        private final int id;
+        private final int hits;
+        private final boolean contains;
+        private final int length;
+
+        private Match(int id, int hits, boolean contains, int length) {
+            this.id = id;
+            this.hits = hits;
+            this.contains = contains;
+            this.length = length;
+        }
+
+        private boolean ranksAbove(Match other) {
+            if (this.hits != other.hits) {
+                return this.hits > other.hits;
+            }
+            if (this.contains != other.contains) {
+                return this.contains;
+            }
+            if (this.length != other.length) {
+                return this.length < other.length;
+            }
+            return this.id < other.id;
+        }
+    }
+
+}
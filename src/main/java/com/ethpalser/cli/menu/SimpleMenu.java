@@ -1,9 +1,12 @@
 package com.ethpalser.cli.menu;
 
 import com.ethpalser.cli.util.StringUtils;
+import java.util.List;
 
 public class SimpleMenu extends Menu {
 
+    private volatile RenderedDisplay rendered;
+
     public SimpleMenu(String name, MenuItem[] children) {
         super(name, children);
     }
@@ -15,26 +18,52 @@ public class SimpleMenu extends Menu {
     /**
      * Fetches a text representation of the menu as a list of its children. This list starts from
      * 1 and goes to n, the length of the list, corresponding to its child's name at index i from 0 to n-1.
+     * <br><br>
+     * The text is cached and only rebuilt when the version of this menu changes, such as when children are added,
+     * removed, hidden or shown.
      *
      * @return String representing a list of this menu's children.
      */
     @Override
     public String getTextDisplay() {
-        return this.buildTextDisplayFromChildren(this.getChildren().values().toArray(new MenuItem[0]));
+        long version = this.getVersion();
+        RenderedDisplay cached = this.rendered;
+        if (cached == null || cached.version != version) {
+            cached = new RenderedDisplay(version, this.buildTextDisplayFromChildren());
+            this.rendered = cached;
+        }
+        return cached.text;
+    }
+
+    @Override
+    void clearCaches() {
+        super.clearCaches();
+        this.rendered = null;
     }
 
-    private String buildTextDisplayFromChildren(MenuItem[] children) {
-        StringBuilder sb = new StringBuilder();
-        int i = 0;
-        for (MenuItem child : children) {
-            if (child.isHidden())
-                continue;
+    private String buildTextDisplayFromChildren() {
+        List<MenuItem> visible = this.getVisibleChildren();
+        StringBuilder sb = new StringBuilder(visible.size() * 16);
+        for (int i = 0; i < visible.size(); i++) {
             if (i != 0)
                 sb.append("\n");
-            sb.append(i + 1).append(". ").append(StringUtils.capitalizeWord(children[i].getName()));
-            i++;
+            sb.append(i + 1).append(". ").append(StringUtils.capitalizeWord(visible.get(i).getName()));
         }
         return sb.toString();
     }
 
+    /**
+     * Text built for a specific version, so a reader always sees a matching pair even if another thread rebuilds it.
+     */
+    private static final class RenderedDisplay {
+
+        private final long version;
+        private final String text;
+
+        private RenderedDisplay(long version, String text) {
+            this.version = version;
+            this.text = text;
+        }
+    }
+
 }
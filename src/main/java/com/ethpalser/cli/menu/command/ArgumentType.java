@@ -0,0 +1,53 @@
+package com.ethpalser.cli.menu.command;
+
+import com.ethpalser.cli.util.InputTokenizer;
+
+/**
+ * The type of a positional argument of a command. Each type converts a token to its value, or returns null if the
+ * token is not valid for that type.
+ */
+public enum ArgumentType {
+    STRING,
+    INTEGER,
+    DECIMAL,
+    BOOLEAN;
+
+    private static final String MIN_INTEGER = Integer.toString(Integer.MIN_VALUE);
+
+    Object parse(InputTokenizer tokens, int token) {
+        return switch (this) {
+            case STRING -> tokens.token(token);
+            case INTEGER -> {
+                // MIN_VALUE doubles as the failure value, so it is only valid if it was typed
+                int value = tokens.parseInt(token, Integer.MIN_VALUE);
+                if (value == Integer.MIN_VALUE && !tokens.tokenEqualsIgnoreCase(token, MIN_INTEGER)) {
+                    yield null;
+                }
+                yield value;
+            }
+            case DECIMAL -> parseDecimal(tokens.token(token));
+            case BOOLEAN -> {
+                if (tokens.tokenEqualsIgnoreCase(token, "true") || tokens.tokenEqualsIgnoreCase(token, "yes")) {
+                    yield Boolean.TRUE;
+                } else if (tokens.tokenEqualsIgnoreCase(token, "false") || tokens.tokenEqualsIgnoreCase(token, "no")) {
+                    yield Boolean.FALSE;
+                }
+                yield null;
+            }
+        };
+    }
+
+    private static Double parseDecimal(String token) {
+        for (int i = 0; i < token.length(); i++) {
+            char c = token.charAt(i);
+            if ((c < '0' || c > '9') && c != '.' && c != '-' && c != '+' && c != 'e' && c != 'E') {
+                return null; // rejects NaN, Infinity and hex, which Double.parseDouble would otherwise accept
+            }
+        }
+        try {
+            return Double.parseDouble(token);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
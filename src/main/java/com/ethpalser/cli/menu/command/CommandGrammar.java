@@ -0,0 +1,103 @@
+package com.ethpalser.cli.menu.command;
+
+import com.ethpalser.cli.util.InputTokenizer;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * CommandGrammar is an immutable set of CommandSpecs compiled for parsing. A line is parsed in a single pass over its
+ * tokens: the first token selects a spec by name or alias, and the remaining tokens are matched to its flags and
+ * positional arguments. Compiling a grammar once and reusing it avoids compiling a regular expression for every line.
+ */
+public final class CommandGrammar {
+
+    /**
+     * A grammar without commands, which never matches.
+     */
+    public static final CommandGrammar EMPTY = new CommandGrammar(Collections.emptyList());
+
+    private final List<CommandSpec> specs;
+    private final Map<String, CommandSpec> specsByName;
+
+    private CommandGrammar(final Collection<CommandSpec> specs) {
+        this.specs = List.copyOf(specs);
+        this.specsByName = new HashMap<>();
+        for (CommandSpec spec : this.specs) {
+            this.register(spec.getName(), spec);
+            for (String alias : spec.getAliases()) {
+                this.register(alias, spec);
+            }
+        }
+    }
+
+    public static CommandGrammar of(CommandSpec... specs) {
+        return of(Arrays.asList(specs));
+    }
+
+    public static CommandGrammar of(Collection<CommandSpec> specs) {
+        return specs.isEmpty() ? EMPTY : new CommandGrammar(specs);
+    }
+
+    public List<CommandSpec> getSpecs() {
+        return this.specs;
+    }
+
+    public boolean isEmpty() {
+        return this.specs.isEmpty();
+    }
+
+    /**
+     * Returns the spec called by the given name or alias, ignoring case, or null if there is none.
+     *
+     * @param name String
+     * @return CommandSpec
+     */
+    public CommandSpec getSpec(String name) {
+        if (name == null || this.specsByName.isEmpty()) {
+            return null;
+        }
+        CommandSpec spec = this.specsByName.get(name);
+        return spec != null ? spec : this.specsByName.get(name.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Parses tokenized input. If the first token does not name a command in this grammar, null is returned.
+     * Otherwise, a ParsedCommand is returned, which is invalid if the rest of the input does not fit the spec.
+     *
+     * @param tokens InputTokenizer holding the line to parse
+     * @return ParsedCommand, or null
+     */
+    public ParsedCommand parse(InputTokenizer tokens) {
+        if (tokens.isEmpty() || this.specsByName.isEmpty()) {
+            return null;
+        }
+        CommandSpec spec = this.getSpec(tokens.command());
+        if (spec == null) {
+            return null;
+        }
+        return spec.parse(tokens);
+    }
+
+    /**
+     * Parses a line of input, the same as {@link #parse(InputTokenizer)}.
+     *
+     * @param line CharSequence of input
+     * @return ParsedCommand, or null if the line does not start with a command in this grammar
+     */
+    public ParsedCommand parse(CharSequence line) {
+        return this.parse(new InputTokenizer().reset(line));
+    }
+
+    private void register(String name, CommandSpec spec) {
+        CommandSpec existing = this.specsByName.putIfAbsent(name, spec);
+        if (existing != null && existing != spec) {
+            throw new IllegalArgumentException("command name used by more than one spec: " + name);
+        }
+    }
+
+}
@@ -0,0 +1,16 @@
+package com.ethpalser.cli.menu.command;
+
+/**
+ * CommandHandler objects are registered to a Menu with a CommandSpec and process the command when it is entered
+ * while that Menu is active.
+ */
+public interface CommandHandler {
+
+    /**
+     * Performs the action for a command. The command is always valid for the spec it was registered with.
+     *
+     * @param command ParsedCommand holding the flags and argument values that were entered
+     */
+    void handleCommand(ParsedCommand command);
+
+}
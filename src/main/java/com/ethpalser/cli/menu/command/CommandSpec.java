@@ -0,0 +1,241 @@
+package com.ethpalser.cli.menu.command;
+
+import com.ethpalser.cli.util.InputTokenizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * CommandSpec declares the shape of a command: its name and aliases, the flags it accepts, such as -y, and its
+ * typed positional arguments. A spec is immutable once built, and is grouped with others into a CommandGrammar to
+ * parse input.
+ */
+public final class CommandSpec {
+
+    private final String name;
+    private final List<String> aliases;
+    private final List<String> flags;
+    private final List<Argument> arguments;
+    private final int requiredArguments;
+
+    private CommandSpec(final Builder builder) {
+        this.name = builder.name;
+        this.aliases = Collections.unmodifiableList(new ArrayList<>(builder.aliases));
+        this.flags = Collections.unmodifiableList(new ArrayList<>(builder.flags));
+        this.arguments = Collections.unmodifiableList(new ArrayList<>(builder.arguments));
+        int required = 0;
+        for (Argument argument : this.arguments) {
+            if (argument.isRequired()) {
+                required++;
+            }
+        }
+        this.requiredArguments = required;
+    }
+
+    public static Builder builder(String name) {
+        return new Builder(name);
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    public List<String> getAliases() {
+        return this.aliases;
+    }
+
+    public List<String> getFlags() {
+        return this.flags;
+    }
+
+    public List<Argument> getArguments() {
+        return this.arguments;
+    }
+
+    public int getRequiredArguments() {
+        return this.requiredArguments;
+    }
+
+    /**
+     * Returns the position of a flag in this spec, ignoring case, or -1 if this spec does not accept it.
+     *
+     * @param flag String such as "-y"
+     * @return int
+     */
+    public int indexOfFlag(String flag) {
+        for (int i = 0; i < this.flags.size(); i++) {
+            if (this.flags.get(i).equalsIgnoreCase(flag)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the position of an argument in this spec by its name, or -1 if there is no such argument.
+     *
+     * @param argumentName String
+     * @return int
+     */
+    public int indexOfArgument(String argumentName) {
+        for (int i = 0; i < this.arguments.size(); i++) {
+            if (this.arguments.get(i).getName().equals(argumentName)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Parses tokenized input against this spec in a single pass. The first token is taken as the command's name and
+     * is not checked, as a CommandGrammar has already used it to select this spec. Flags may appear anywhere after
+     * it, and the other tokens are converted to the positional arguments in order. If the input does not fit, the
+     * returned command is invalid and describes the first problem found.
+     *
+     * @param tokens InputTokenizer holding the line to parse
+     * @return ParsedCommand
+     */
+    public ParsedCommand parse(InputTokenizer tokens) {
+        boolean[] flags = new boolean[this.flags.size()];
+        Object[] values = new Object[this.arguments.size()];
+        String error = null;
+        int position = 0;
+        for (int token = 1; token < tokens.size(); token++) {
+            int flag = this.indexOfFlag(tokens, token);
+            if (flag != -1) {
+                flags[flag] = true;
+                continue;
+            }
+            if (position == this.arguments.size()) {
+                if (error == null) {
+                    error = "unexpected argument: " + tokens.token(token);
+                }
+                continue;
+            }
+            Argument argument = this.arguments.get(position++);
+            Object value = argument.getType().parse(tokens, token);
+            if (value == null && error == null) {
+                error = "expected " + argument.getType().name().toLowerCase(Locale.ROOT) + " for "
+                        + argument.getName() + ": " + tokens.token(token);
+            }
+            values[position - 1] = value;
+        }
+        if (error == null && position < this.requiredArguments) {
+            error = "missing argument: " + this.arguments.get(position).getName();
+        }
+        return new ParsedCommand(this, flags, values, error);
+    }
+
+    private int indexOfFlag(InputTokenizer tokens, int token) {
+        for (int i = 0; i < this.flags.size(); i++) {
+            if (tokens.tokenEqualsIgnoreCase(token, this.flags.get(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * A named, typed positional argument.
+     */
+    public static final class Argument {
+
+        private final String name;
+        private final ArgumentType type;
+        private final boolean required;
+
+        private Argument(final String name, final ArgumentType type, final boolean required) {
+            this.name = name;
+            this.type = type;
+            this.required = required;
+        }
+
+        public String getName() {
+            return this.name;
+        }
+
+        public ArgumentType getType() {
+            return this.type;
+        }
+
+        public boolean isRequired() {
+            return this.required;
+        }
+    }
+
+    public static final class Builder {
+
+        private final String name;
+        private final List<String> aliases;
+        private final List<String> flags;
+        private final List<Argument> arguments;
+
+        private Builder(final String name) {
+            if (name == null || name.isBlank()) {
+                throw new IllegalArgumentException("command name cannot be null or blank");
+            }
+            this.name = name.toLowerCase(Locale.ROOT);
+            this.aliases = new ArrayList<>();
+            this.flags = new ArrayList<>();
+            this.arguments = new ArrayList<>();
+        }
+
+        /**
+         * Adds another name the command can be called by.
+         *
+         * @param alias String
+         * @return this Builder
+         */
+        public Builder alias(String alias) {
+            this.aliases.add(alias.toLowerCase(Locale.ROOT));
+            return this;
+        }
+
+        /**
+         * Adds a flag, such as "-y", which may appear anywhere after the command name.
+         *
+         * @param flag String starting with '-'
+         * @return this Builder
+         */
+        public Builder flag(String flag) {
+            if (flag == null || flag.length() < 2 || flag.charAt(0) != '-') {
+                throw new IllegalArgumentException("flag must start with '-': " + flag);
+            }
+            this.flags.add(flag.toLowerCase(Locale.ROOT));
+            return this;
+        }
+
+        /**
+         * Adds a required positional argument. Required arguments must be added before optional ones.
+         *
+         * @param argumentName String
+         * @param type         ArgumentType of its value
+         * @return this Builder
+         */
+        public Builder argument(String argumentName, ArgumentType type) {
+            if (!this.arguments.isEmpty() && !this.arguments.get(this.arguments.size() - 1).isRequired()) {
+                throw new IllegalStateException("required argument cannot follow an optional argument");
+            }
+            this.arguments.add(new Argument(argumentName, type, true));
+            return this;
+        }
+
+        /**
+         * Adds an optional positional argument, which is null in the parsed command when it is not given.
+         *
+         * @param argumentName String
+         * @param type         ArgumentType of its value
+         * @return this Builder
+         */
+        public Builder optionalArgument(String argumentName, ArgumentType type) {
+            this.arguments.add(new Argument(argumentName, type, false));
+            return this;
+        }
+
+        public CommandSpec build() {
+            return new CommandSpec(this);
+        }
+    }
+
+}
@@ -0,0 +1,155 @@
+package com.ethpalser.cli.menu.command;
+
+/**
+ * ParsedCommand is the result of parsing one line of input with a CommandGrammar. It holds the spec that matched,
+ * which flags were given and the converted value of each positional argument. If the line named the command but did
+ * not fit its spec, the command is invalid and has an error message describing why.
+ * <br><br>
+ * A ParsedCommand can also represent input that selected an option rather than a command. It has no spec, no
+ * flags, and its arguments are the remaining tokens as they were typed.
+ */
+public final class ParsedCommand {
+
+    private static final boolean[] NO_FLAGS = new boolean[0];
+
+    private final String name;
+    private final CommandSpec spec;
+    private final boolean[] flags;
+    private final Object[] values;
+    private final String error;
+
+    ParsedCommand(final CommandSpec spec, final boolean[] flags, final Object[] values, final String error) {
+        this.name = spec.getName();
+        this.spec = spec;
+        this.flags = flags;
+        this.values = values;
+        this.error = error;
+    }
+
+    private ParsedCommand(final String name, final String[] args) {
+        this.name = name;
+        this.spec = null;
+        this.flags = NO_FLAGS;
+        this.values = args == null ? new Object[0] : args.clone();
+        this.error = null;
+    }
+
+    /**
+     * Creates a result for input that selected an option, which has no spec.
+     *
+     * @param name String naming the option
+     * @param args String array of the following tokens, which may be null
+     * @return ParsedCommand
+     */
+    public static ParsedCommand ofOption(String name, String[] args) {
+        return new ParsedCommand(name, args);
+    }
+
+    /**
+     * Returns the spec that matched, or null if the input selected an option.
+     *
+     * @return CommandSpec
+     */
+    public CommandSpec getSpec() {
+        return this.spec;
+    }
+
+    /**
+     * Returns the command's name, which is the spec's name even if it was called by an alias.
+     *
+     * @return String
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    public boolean isOption() {
+        return this.spec == null;
+    }
+
+    public boolean isValid() {
+        return this.error == null;
+    }
+
+    public String getError() {
+        return this.error;
+    }
+
+    /**
+     * Determines if a flag was given. Flags are recorded even if the command is invalid.
+     *
+     * @param flag String such as "-y"
+     * @return boolean (true/false)
+     */
+    public boolean hasFlag(String flag) {
+        if (this.spec == null) {
+            return false;
+        }
+        int index = this.spec.indexOfFlag(flag);
+        return index != -1 && this.flags[index];
+    }
+
+    /**
+     * Returns the value of a positional argument, or null if it was not given or was invalid.
+     *
+     * @param index int position of the argument in the spec
+     * @return Object of the argument's type
+     */
+    public Object get(int index) {
+        if (index < 0 || this.values.length <= index) {
+            return null;
+        }
+        return this.values[index];
+    }
+
+    /**
+     * Returns the value of a positional argument by its name, or null if it was not given or was invalid.
+     *
+     * @param argumentName String
+     * @return Object of the argument's type
+     */
+    public Object get(String argumentName) {
+        if (this.spec == null) {
+            return null;
+        }
+        return this.get(this.spec.indexOfArgument(argumentName));
+    }
+
+    public String getString(String argumentName) {
+        Object value = this.get(argumentName);
+        return value == null ? null : value.toString();
+    }
+
+    public Integer getInt(String argumentName) {
+        return (Integer) this.get(argumentName);
+    }
+
+    public Double getDecimal(String argumentName) {
+        return (Double) this.get(argumentName);
+    }
+
+    public Boolean getBoolean(String argumentName) {
+        return (Boolean) this.get(argumentName);
+    }
+
+    /**
+     * Returns the positional arguments as Strings, which is the form arguments take in an Event.
+     *
+     * @return String array, or null if there are no arguments
+     */
+    public String[] getArgs() {
+        int last = this.values.length;
+        while (last > 0 && this.values[last - 1] == null) {
+            last--;
+        }
+        if (last == 0) {
+            return null;
+        }
+        String[] args = new String[last];
+        for (int i = 0; i < last; i++) {
+            args[i] = this.values[i] == null ? null : this.values[i].toString();
+        }
+        return args;
+    }
+
+}
@@ -0,0 +1,152 @@
+package com.ethpalser.cli.menu.event;
+
+import java.util.Queue;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * AsyncDispatcher starts AsyncEventListeners on an Executor and collects them as they finish, so their completions
+ * can be delivered later on the thread that dispatched them. A dispatcher belongs to one session, and only dispatch
+ * and deliver need to be called from that session's thread.
+ * <br><br>
+ * Events sent every cycle are reused, and their dispatch state changes as they are sent again, so each listener is
+ * started with a copy of the event as it was when dispatched. Stopping propagation of the copy does not stop the
+ * listeners after it.
+ */
+public final class AsyncDispatcher {
+
+    private static final long AWAIT_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final Executor executor;
+    private final Queue<Completion> completed;
+    private final AtomicInteger pending;
+
+    public AsyncDispatcher(final Executor executor) {
+        if (executor == null) {
+            throw new IllegalArgumentException("executor cannot be null");
+        }
+        this.executor = executor;
+        this.completed = new ConcurrentLinkedQueue<>();
+        this.pending = new AtomicInteger();
+    }
+
+    public Executor getExecutor() {
+        return this.executor;
+    }
+
+    /**
+     * Starts an AsyncEventListener without waiting for it. The returned Result only reports whether it started, while
+     * the Result of it finishing is delivered later.
+     *
+     * @param listener AsyncEventListener to start
+     * @param event    Event to process, which is copied
+     * @return Result pending if the listener started, otherwise the Result of it failing or finishing immediately
+     */
+    public Result dispatch(AsyncEventListener listener, Event event) {
+        Event copy = event.copy();
+        CompletionStage<?> stage;
+        try {
+            stage = listener.handleEventAsync(copy, this.executor);
+        } catch (Exception ex) {
+            return toResult(ex);
+        }
+        if (stage == null) {
+            listener.onComplete(copy, Result.SUCCESS);
+            return Result.SUCCESS;
+        }
+        this.pending.incrementAndGet();
+        stage.whenComplete((value, ex) -> {
+            Result result = ex == null ? Result.SUCCESS : toResult(ex);
+            this.completed.add(new Completion(listener, copy, result));
+            this.pending.decrementAndGet();
+        });
+        return Result.PENDING;
+    }
+
+    /**
+     * Returns the number of listeners that have started and not yet finished.
+     *
+     * @return int
+     */
+    public int getPendingCount() {
+        return this.pending.get();
+    }
+
+    /**
+     * Delivers every listener that finished since the last delivery, calling its onComplete and then passing its
+     * Completion to the consumer, such as to report errors. This is called on the session's thread.
+     *
+     * @param consumer Consumer of each Completion, or null
+     * @return int number of completions delivered
+     */
+    public int deliver(Consumer<Completion> consumer) {
+        int count = 0;
+        Completion completion;
+        while ((completion = this.completed.poll()) != null) {
+            try {
+                completion.listener.onComplete(completion.event, completion.result);
+            } catch (Exception ex) {
+                completion = new Completion(completion.listener, completion.event, toResult(ex));
+            }
+            if (consumer != null) {
+                consumer.accept(completion);
+            }
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Waits until no listeners are pending or the timeout passes, without delivering their completions.
+     *
+     * @param timeout long amount of time to wait
+     * @param unit    TimeUnit of the timeout
+     * @return boolean true if no listeners are pending, otherwise false
+     */
+    public boolean awaitPending(long timeout, TimeUnit unit) {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (this.pending.get() > 0) {
+            if (System.nanoTime() - deadline >= 0 || Thread.currentThread().isInterrupted()) {
+                return false;
+            }
+            LockSupport.parkNanos(AWAIT_PARK_NANOS);
+        }
+        return true;
+    }
+
+    static Result toResult(Throwable ex) {
+        Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+        return Result.error(cause);
+    }
+
+    /**
+     * A finished AsyncEventListener, with the Event it processed and the Result of processing it.
+     */
+    public static final class Completion {
+
+        private final AsyncEventListener listener;
+        private final Event event;
+        private final Result result;
+
+        private Completion(final AsyncEventListener listener, final Event event, final Result result) {
+            this.listener = listener;
+            this.event = event;
+            this.result = result;
+        }
+
+        public Event getEvent() {
+            return this.event;
+        }
+
+        public Result getResult() {
+            return this.result;
+        }
+    }
+
+}
@@ -0,0 +1,82 @@
+package com.ethpalser.cli.menu.event;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+
+/**
+ * AsyncEventListener objects process an event without blocking the thread it occurred on, such as a listener loading a
+ * save file. When dispatched by an {@link AsyncDispatcher}, the work runs on the dispatcher's Executor while menus keep
+ * rendering and accepting input, and {@link #onComplete(Event, Result)} is called on the session's thread once it
+ * finishes.
+ * <br><br>
+ * Work done on the Executor must not change the Context or menus, as these belong to the session's thread. Such
+ * changes are made in onComplete instead.
+ */
+public interface AsyncEventListener extends EventListener {
+
+    /**
+     * Starts processing an Event, returning a stage that completes when processing is finished.
+     *
+     * @param event    Event representing a record of information for an EventType, including the EventType
+     * @param executor Executor to run the work on
+     * @return CompletionStage that completes when the event has been processed, or null if it already has
+     */
+    CompletionStage<?> handleEventAsync(Event event, Executor executor);
+
+    /**
+     * Called on the session's thread after the stage returned by handleEventAsync completes. The default does
+     * nothing.
+     *
+     * @param event  Event that was processed
+     * @param result Result of processing it, with an error if the stage completed exceptionally
+     */
+    default void onComplete(Event event, Result result) {
+    }
+
+    /**
+     * Processes an Event on the current thread, waiting for it to finish. This is used when there is no dispatcher,
+     * so the listener behaves like any other EventListener.
+     *
+     * @param event Event representing a record of information for an EventType, including the EventType
+     */
+    @Override
+    default void handleEvent(Event event) {
+        CompletionStage<?> stage = this.handleEventAsync(event, Runnable::run);
+        Result result = Result.SUCCESS;
+        try {
+            if (stage != null) {
+                stage.toCompletableFuture().join();
+            }
+        } catch (RuntimeException ex) {
+            result = AsyncDispatcher.toResult(ex);
+            throw ex;
+        } finally {
+            this.onComplete(event, result);
+        }
+    }
+
+    /**
+     * Creates an AsyncEventListener that runs an EventListener on the dispatcher's Executor.
+     *
+     * @param listener   EventListener to run off the session's thread
+     * @param onComplete EventListener called on the session's thread after it has run, or null
+     * @return AsyncEventListener
+     */
+    static AsyncEventListener of(EventListener listener, EventListener onComplete) {
+        return new AsyncEventListener() {
+            @Override
+            public CompletionStage<?> handleEventAsync(Event event, Executor executor) {
+                return CompletableFuture.runAsync(() -> listener.handleEvent(event), executor);
+            }
+
+            @Override
+            public void onComplete(Event event, Result result) {
+                if (onComplete != null && !result.hasError()) {
+                    onComplete.handleEvent(event);
+                }
+            }
+        };
+    }
+
+}
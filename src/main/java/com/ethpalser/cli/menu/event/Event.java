@@ -1,10 +1,16 @@
 package com.ethpalser.cli.menu.event;
 
+import com.ethpalser.cli.menu.MenuItem;
+
 public class Event {
 
     private final EventType eventType;
     private final String command;
     private final String[] args;
+    private boolean propagationStopped;
+    private EventPhase phase;
+    private MenuItem target;
+    private MenuItem currentTarget;
 
     public Event(EventType eventType, String command) {
         this(eventType, command, null);
@@ -20,6 +26,30 @@ public class Event {
         this(eventType, null);
     }
 
+    /**
+     * Creates a copy of an event, including the state of its dispatch in progress.
+     *
+     * @param event Event to copy
+     */
+    protected Event(Event event) {
+        this(event.eventType, event.command, event.args);
+        this.propagationStopped = event.propagationStopped;
+        this.phase = event.phase;
+        this.target = event.target;
+        this.currentTarget = event.currentTarget;
+    }
+
+    /**
+     * Returns a copy of this event as it is now, which is not changed when this event is dispatched again. This is
+     * used to hand an event that is reused, such as one sent every cycle, to a listener running on another thread.
+     * Subclasses with state of their own should override this.
+     *
+     * @return Event
+     */
+    public Event copy() {
+        return new Event(this);
+    }
+
     public EventType getEventType() {
         return this.eventType;
     }
@@ -31,4 +61,74 @@ public class Event {
     public String[] getArgs() {
         return this.args;
     }
+
+    /**
+     * Stops the listeners after the current one from receiving this event. This only lasts for the current dispatch,
+     * so sending the event again reaches every listener.
+     */
+    public void stopPropagation() {
+        this.propagationStopped = true;
+    }
+
+    public boolean isPropagationStopped() {
+        return this.propagationStopped;
+    }
+
+    /**
+     * Allows every listener to receive this event again. This is called when the event is dispatched.
+     */
+    public void resetPropagation() {
+        this.propagationStopped = false;
+    }
+
+    /**
+     * Returns the phase of the dispatch in progress, or null if the event has not been dispatched.
+     *
+     * @return EventPhase
+     */
+    public EventPhase getPhase() {
+        return this.phase;
+    }
+
+    /**
+     * Returns the MenuItem this event was sent to, or null if the event has not been dispatched.
+     *
+     * @return MenuItem
+     */
+    public MenuItem getTarget() {
+        return this.target;
+    }
+
+    /**
+     * Returns the MenuItem whose listeners are receiving this event, which is an ancestor of the target while
+     * capturing and bubbling.
+     *
+     * @return MenuItem
+     */
+    public MenuItem getCurrentTarget() {
+        return this.currentTarget;
+    }
+
+    /**
+     * Starts a dispatch to a target, allowing every listener to receive this event again. This is called by MenuItem.
+     *
+     * @param target MenuItem the event is sent to
+     */
+    public void beginDispatch(MenuItem target) {
+        this.propagationStopped = false;
+        this.target = target;
+        this.currentTarget = null;
+        this.phase = null;
+    }
+
+    /**
+     * Moves the dispatch to the listeners of a phase on a MenuItem. This is called by MenuItem.
+     *
+     * @param phase         EventPhase
+     * @param currentTarget MenuItem whose listeners are called next
+     */
+    public void enterPhase(EventPhase phase, MenuItem currentTarget) {
+        this.phase = phase;
+        this.currentTarget = currentTarget;
+    }
 }
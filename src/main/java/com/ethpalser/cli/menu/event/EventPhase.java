@@ -0,0 +1,11 @@
+package com.ethpalser.cli.menu.event;
+
+/**
+ * EventPhase is the stage of dispatching an Event through the menu tree. An Event is first captured by each ancestor of
+ * its target from the root down, then received by the target, then bubbles up through the ancestors back to the root.
+ */
+public enum EventPhase {
+    CAPTURING,
+    AT_TARGET,
+    BUBBLING;
+}
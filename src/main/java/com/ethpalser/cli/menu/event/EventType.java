@@ -5,5 +5,6 @@ public enum EventType {
     RENDER,
     POST_RENDER,
     SELECT,
-    ON_CLOSE;
+    ON_CLOSE,
+    TICK;
 }
@@ -1,34 +1,96 @@
 package com.ethpalser.cli.menu.event;
 
+/**
+ * Result reports the outcome of sending an Event. Outcomes without an error are shared constants, so sending an event
+ * does not allocate a Result unless it fails, and messages with details are only formatted when they are read.
+ */
 public final class Result {
 
     public static final String SUCCESS_MESSAGE = "event success";
     public static final String MISSING_MESSAGE = "event ignored, as an event listener is missing";
     public static final String INVALID_MESSAGE = "event failed, as null or illegal event provided";
     public static final String ERROR_MESSAGE = "event failed, as an error occurred";
+    public static final String PENDING_MESSAGE = "event pending, as an asynchronous event listener is running";
+
+    public static final Result SUCCESS = new Result(SUCCESS_MESSAGE, false);
+    public static final Result INVALID = new Result(INVALID_MESSAGE, true);
+    public static final Result PENDING = new Result(PENDING_MESSAGE, false);
+
+    private static final Result[] MISSING = missingResults();
 
     private final String message;
     private final boolean hasError;
+    private final Object detail; // appended to the message when it is read
 
     public Result(final String message, final boolean hasError) {
-        this.message = message;
-        this.hasError = hasError;
+        this(message, hasError, null);
     }
 
     public Result(final boolean hasError) {
+        this(hasError ? ERROR_MESSAGE : SUCCESS_MESSAGE, hasError, null);
+    }
+
+    private Result(final String message, final boolean hasError, final Object detail) {
+        this.message = message;
         this.hasError = hasError;
-        if (hasError) {
-            this.message = SUCCESS_MESSAGE;
-        } else {
-            this.message = ERROR_MESSAGE;
-        }
+        this.detail = detail;
+    }
+
+    /**
+     * Returns the Result of an event that no listener is registered for.
+     *
+     * @param eventType EventType of the event
+     * @return Result without an error
+     */
+    public static Result missing(EventType eventType) {
+        return MISSING[eventType.ordinal()];
+    }
+
+    /**
+     * Returns the Result of an event whose listener threw an exception. The exception's message is only read when
+     * the Result's message is.
+     *
+     * @param ex Throwable thrown by the listener
+     * @return Result with an error
+     */
+    public static Result error(Throwable ex) {
+        return new Result(ERROR_MESSAGE, true, ex);
     }
 
     public String getMessage() {
-        return this.message;
+        if (this.detail == null) {
+            return this.message;
+        }
+        if (this.detail instanceof EventType eventType) {
+            return this.message + ": for " + eventType;
+        }
+        return this.message + ": " + ((Throwable) this.detail).getMessage();
     }
 
     public boolean hasError() {
         return hasError;
     }
+
+    /**
+     * Determines if the event is still being processed by an asynchronous listener.
+     *
+     * @return boolean (true/false)
+     */
+    public boolean isPending() {
+        return this == PENDING;
+    }
+
+    @Override
+    public String toString() {
+        return this.getMessage();
+    }
+
+    private static Result[] missingResults() {
+        EventType[] types = EventType.values();
+        Result[] results = new Result[types.length];
+        for (EventType type : types) {
+            results[type.ordinal()] = new Result(MISSING_MESSAGE, false, type);
+        }
+        return results;
+    }
 }
@@ -0,0 +1,66 @@
+package com.ethpalser.cli.menu.event;
+
+/**
+ * TickEvent is the event of one fixed step of a game's simulation, sent to the active menu by a GameLoop. The same
+ * TickEvent is sent every tick with its count advanced, so listeners should read it rather than keep it.
+ */
+public class TickEvent extends Event {
+
+    private final long stepNanos;
+    private long tick;
+
+    /**
+     * Creates a tick event for a simulation advancing by a fixed step.
+     *
+     * @param stepNanos long nanoseconds of simulated time each tick advances by
+     */
+    public TickEvent(final long stepNanos) {
+        super(EventType.TICK);
+        if (stepNanos <= 0) {
+            throw new IllegalArgumentException("step must be positive");
+        }
+        this.stepNanos = stepNanos;
+        this.tick = 0;
+    }
+
+    private TickEvent(final TickEvent event) {
+        super(event);
+        this.stepNanos = event.stepNanos;
+        this.tick = event.tick;
+    }
+
+    @Override
+    public TickEvent copy() {
+        return new TickEvent(this);
+    }
+
+    /**
+     * Returns the number of this tick, starting from 1 for the first tick sent.
+     *
+     * @return long
+     */
+    public long getTick() {
+        return this.tick;
+    }
+
+    public long getStepNanos() {
+        return this.stepNanos;
+    }
+
+    /**
+     * Returns the simulated time each tick advances by in seconds, such as to scale a speed per second.
+     *
+     * @return double
+     */
+    public double getStepSeconds() {
+        return this.stepNanos / 1e9;
+    }
+
+    /**
+     * Advances to the next tick. This is called before the event is sent.
+     */
+    public void next() {
+        this.tick++;
+    }
+
+}
@@ -0,0 +1,197 @@
+package com.ethpalser.cli.metrics;
+
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * MetricsRegistry holds the histograms and counters recorded by ConsoleRunner and MenuItem, such as how long rendering,
+ * dispatching events and waiting for input take. Metrics are grouped, such as by EventType or menu name, and looked up
+ * by group and name so recording does not build a key.
+ * <br><br>
+ * Metrics are only recorded while a registry is active. Code recording a metric first reads {@link #getActive()},
+ * which is a single volatile read, and skips timing altogether when it is null. A registry is activated at startup if
+ * the system property {@value #ENABLE_PROPERTY} is true.
+ */
+public final class MetricsRegistry {
+
+    public static final String ENABLE_PROPERTY = "com.ethpalser.cli.metrics";
+
+    public static final String CYCLE_GROUP = "cycle";
+    public static final String DISPATCH_TYPE_GROUP = "dispatch.type";
+    public static final String DISPATCH_MENU_GROUP = "dispatch.menu";
+    public static final String INPUT_GROUP = "input";
+    public static final String RESULT_GROUP = "result";
+    /**
+     * Name of the histogram recording every name past the limit of a bounded group.
+     */
+    public static final String OTHER_NAME = "other";
+    public static final int DEFAULT_GROUP_LIMIT = 256;
+
+    private static volatile MetricsRegistry active = Boolean.getBoolean(ENABLE_PROPERTY) ? new MetricsRegistry() : null;
+
+    private final Map<String, Map<String, Histogram>> histograms;
+    private final Map<String, Map<String, LongAdder>> counters;
+    private volatile PrintStream dumpTarget;
+
+    public MetricsRegistry() {
+        this.histograms = new ConcurrentHashMap<>();
+        this.counters = new ConcurrentHashMap<>();
+        this.dumpTarget = System.err;
+    }
+
+    /**
+     * Returns the active registry, or null if metrics are disabled.
+     *
+     * @return MetricsRegistry
+     */
+    public static MetricsRegistry getActive() {
+        return active;
+    }
+
+    /**
+     * Activates a new registry if none is active, and returns the active registry.
+     *
+     * @return MetricsRegistry
+     */
+    public static synchronized MetricsRegistry enable() {
+        if (active == null) {
+            active = new MetricsRegistry();
+        }
+        return active;
+    }
+
+    /**
+     * Activates the given registry, or disables metrics if it is null.
+     *
+     * @param registry MetricsRegistry
+     */
+    public static synchronized void setActive(MetricsRegistry registry) {
+        active = registry;
+    }
+
+    public static void disable() {
+        setActive(null);
+    }
+
+    /**
+     * Returns the histogram of a group and name, creating it if it does not exist.
+     *
+     * @param group String such as {@link #CYCLE_GROUP}
+     * @param name  String within the group
+     * @return Histogram
+     */
+    public Histogram histogram(String group, String name) {
+        Map<String, Histogram> byName = this.histograms.get(group);
+        if (byName == null) {
+            byName = this.histograms.computeIfAbsent(group, g -> new ConcurrentHashMap<>());
+        }
+        Histogram histogram = byName.get(name);
+        if (histogram == null) {
+            histogram = byName.computeIfAbsent(name, n -> new Histogram(group + "." + n));
+        }
+        return histogram;
+    }
+
+    /**
+     * Returns the histogram of a group and name, the same as {@link #histogram(String, String)}, unless the group
+     * already has as many histograms as its limit, in which case new names are recorded in the histogram named
+     * {@value #OTHER_NAME}. This keeps groups named by something without bound, such as menus, from growing with it.
+     * Histograms created at the same time by several threads can take a group slightly past its limit.
+     *
+     * @param group String such as {@link #DISPATCH_MENU_GROUP}
+     * @param name  String within the group
+     * @param limit int most histograms in the group, other than {@value #OTHER_NAME}
+     * @return Histogram
+     */
+    public Histogram histogram(String group, String name, int limit) {
+        Map<String, Histogram> byName = this.histograms.get(group);
+        Histogram histogram = byName == null ? null : byName.get(name);
+        if (histogram != null) {
+            return histogram;
+        }
+        if (byName != null && byName.size() >= limit) {
+            return this.histogram(group, OTHER_NAME);
+        }
+        return this.histogram(group, name);
+    }
+
+    /**
+     * Returns the counter of a group and name, creating it if it does not exist.
+     *
+     * @param group String such as {@link #INPUT_GROUP}
+     * @param name  String within the group
+     * @return LongAdder
+     */
+    public LongAdder counter(String group, String name) {
+        Map<String, LongAdder> byName = this.counters.get(group);
+        if (byName == null) {
+            byName = this.counters.computeIfAbsent(group, g -> new ConcurrentHashMap<>());
+        }
+        LongAdder counter = byName.get(name);
+        if (counter == null) {
+            counter = byName.computeIfAbsent(name, n -> new LongAdder());
+        }
+        return counter;
+    }
+
+    /**
+     * Returns every histogram by its full name, which is its group and name joined by a period, sorted by name.
+     *
+     * @return Map of String to Histogram
+     */
+    public Map<String, Histogram> getHistograms() {
+        Map<String, Histogram> all = new TreeMap<>();
+        this.histograms.values().forEach(byName -> byName.values().forEach(h -> all.put(h.getName(), h)));
+        return all;
+    }
+
+    /**
+     * Returns the current value of every counter by its full name, sorted by name.
+     *
+     * @return Map of String to Long
+     */
+    public Map<String, Long> getCounters() {
+        Map<String, Long> all = new TreeMap<>();
+        this.counters.forEach((group, byName) -> byName.forEach((name, c) -> all.put(group + "." + name, c.sum())));
+        return all;
+    }
+
+    /**
+     * Returns where the registry is written when a runner closes, or null if it is not written.
+     *
+     * @return PrintStream
+     */
+    public PrintStream getDumpTarget() {
+        return this.dumpTarget;
+    }
+
+    /**
+     * Sets where the registry is written when a runner closes. The default is System.err, and null disables it, such
+     * as when many sessions are hosted and the registry is read programmatically instead.
+     *
+     * @param dumpTarget PrintStream
+     */
+    public void setDumpTarget(PrintStream dumpTarget) {
+        this.dumpTarget = dumpTarget;
+    }
+
+    /**
+     * Writes every histogram and counter, one per line. Durations are in nanoseconds.
+     *
+     * @param out PrintStream to write to
+     */
+    public void dump(PrintStream out) {
+        out.println("metrics:");
+        for (Histogram histogram : this.getHistograms().values()) {
+            out.println("  " + histogram);
+        }
+        for (Map.Entry<String, Long> counter : this.getCounters().entrySet()) {
+            out.println("  " + counter.getKey() + " " + counter.getValue());
+        }
+        out.flush();
+    }
+
+}
@@ -0,0 +1,234 @@
+package com.ethpalser.cli.util;
+
+import java.util.Arrays;
+
+/**
+ * InputTokenizer splits a line of input into whitespace separated tokens in a single pass. Tokens are stored as
+ * offsets into the input, so nothing is copied until a token is requested as a String. A tokenizer is intended to be
+ * reused for every line read, and it is not safe to share between threads.
+ * <br><br>
+ * The first token is the command, such as an option name or index, and any following tokens are its arguments.
+ */
+public final class InputTokenizer {
+
+    private static final int INITIAL_CAPACITY = 8;
+
+    private CharSequence input;
+    private int[] starts;
+    private int[] ends;
+    private int count;
+
+    public InputTokenizer() {
+        this.input = "";
+        this.starts = new int[INITIAL_CAPACITY];
+        this.ends = new int[INITIAL_CAPACITY];
+        this.count = 0;
+    }
+
+    /**
+     * Tokenizes a new input, replacing the previous one. A null input has no tokens.
+     *
+     * @param input CharSequence to tokenize
+     * @return this tokenizer
+     */
+    public InputTokenizer reset(CharSequence input) {
+        this.input = input == null ? "" : input;
+        this.count = 0;
+        int length = this.input.length();
+        int i = 0;
+        while (i < length) {
+            while (i < length && isWhitespace(this.input.charAt(i))) {
+                i++;
+            }
+            if (i == length) {
+                break;
+            }
+            int start = i;
+            while (i < length && !isWhitespace(this.input.charAt(i))) {
+                i++;
+            }
+            this.add(start, i);
+        }
+        return this;
+    }
+
+    public CharSequence getInput() {
+        return this.input;
+    }
+
+    /**
+     * Returns the number of tokens, including the command.
+     *
+     * @return int
+     */
+    public int size() {
+        return this.count;
+    }
+
+    /**
+     * Determines if the input has no tokens, which is the case if it is empty or only whitespace.
+     *
+     * @return boolean (true/false)
+     */
+    public boolean isEmpty() {
+        return this.count == 0;
+    }
+
+    /**
+     * Returns the index in the input of the first character of a token.
+     *
+     * @param token integer from 0 to size - 1
+     * @return int
+     */
+    public int start(int token) {
+        this.checkToken(token);
+        return this.starts[token];
+    }
+
+    /**
+     * Returns the index in the input after the last character of a token.
+     *
+     * @param token integer from 0 to size - 1
+     * @return int
+     */
+    public int end(int token) {
+        this.checkToken(token);
+        return this.ends[token];
+    }
+
+    /**
+     * Returns a token as a new String.
+     *
+     * @param token integer from 0 to size - 1
+     * @return String
+     */
+    public String token(int token) {
+        this.checkToken(token);
+        return this.input.subSequence(this.starts[token], this.ends[token]).toString();
+    }
+
+    /**
+     * Returns the command, which is the first token, or an empty String if there are no tokens.
+     *
+     * @return String
+     */
+    public String command() {
+        return this.count == 0 ? "" : this.token(0);
+    }
+
+    /**
+     * Returns the tokens following the command as new Strings, or null if there are none.
+     *
+     * @return String array
+     */
+    public String[] arguments() {
+        if (this.count <= 1) {
+            return null;
+        }
+        String[] args = new String[this.count - 1];
+        for (int i = 1; i < this.count; i++) {
+            args[i - 1] = this.token(i);
+        }
+        return args;
+    }
+
+    /**
+     * Compares a token to a String ignoring case, without copying the token.
+     *
+     * @param token integer from 0 to size - 1
+     * @param value String to compare to
+     * @return boolean (true/false)
+     */
+    public boolean tokenEqualsIgnoreCase(int token, String value) {
+        this.checkToken(token);
+        int start = this.starts[token];
+        int length = this.ends[token] - start;
+        if (value == null || value.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            char a = this.input.charAt(start + i);
+            char b = value.charAt(i);
+            if (a != b && Character.toLowerCase(a) != Character.toLowerCase(b)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Parses a token as a decimal integer, returning the fallback instead of throwing if it is not one.
+     *
+     * @param token    integer from 0 to size - 1
+     * @param fallback int returned if the token is not an integer
+     * @return int
+     */
+    public int parseInt(int token, int fallback) {
+        this.checkToken(token);
+        return parseInt(this.input, this.starts[token], this.ends[token], fallback);
+    }
+
+    /**
+     * Parses part of a CharSequence as a decimal integer with an optional sign, returning the fallback instead of
+     * throwing if it is not one or does not fit in an int.
+     *
+     * @param chars    CharSequence to parse
+     * @param start    index of the first character
+     * @param end      index after the last character
+     * @param fallback int returned if the characters are not an integer
+     * @return int
+     */
+    public static int parseInt(CharSequence chars, int start, int end, int fallback) {
+        if (chars == null || start >= end) {
+            return fallback;
+        }
+        boolean negative = false;
+        int i = start;
+        char first = chars.charAt(i);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            i++;
+            if (i == end) {
+                return fallback;
+            }
+        }
+        long value = 0;
+        for (; i < end; i++) {
+            char c = chars.charAt(i);
+            if (c < '0' || c > '9') {
+                return fallback;
+            }
+            value = value * 10 + (c - '0');
+            if (value > (long) Integer.MAX_VALUE + 1) {
+                return fallback;
+            }
+        }
+        value = negative ? -value : value;
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            return fallback;
+        }
+        return (int) value;
+    }
+
+    // Same characters as \s in a regular expression
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    private void add(int start, int end) {
+        if (this.count == this.starts.length) {
+            this.starts = Arrays.copyOf(this.starts, this.count * 2);
+            this.ends = Arrays.copyOf(this.ends, this.count * 2);
+        }
+        this.starts[this.count] = start;
+        this.ends[this.count] = end;
+        this.count++;
+    }
+
+    private void checkToken(int token) {
+        if (token < 0 || token >= this.count) {
+            throw new IndexOutOfBoundsException("token " + token + " out of bounds for " + this.count + " tokens");
+        }
+    }
+
+}
@@ -1,5 +1,6 @@
 package com.ethpalser.cli.console;
 
+import com.ethpalser.cli.menu.MenuOptions;
 import com.ethpalser.cli.util.Pair;
 import java.util.List;
 
@@ -9,7 +10,7 @@ public class MockConsoleReader extends ConsoleReader {
     private boolean canRead;
 
     public MockConsoleReader() {
-        super(null, null);
+        super(null);
         this.readCount = 0;
         this.canRead = true;
     }
@@ -30,6 +31,11 @@ public class MockConsoleReader extends ConsoleReader {
         return resp;
     }
 
+    @Override
+    public Pair<String, String[]> readOption(MenuOptions options) {
+        return this.readOption(options.getNames());
+    }
+
     @Override
     public Pair<String, String[]> readCommand(List<String> options, String regex) {
         if (!canRead) {
@@ -46,6 +52,11 @@ public class MockConsoleReader extends ConsoleReader {
         return resp;
     }
 
+    @Override
+    public Pair<String, String[]> readCommand(MenuOptions options, String regex) {
+        return this.readCommand(options.getNames(), regex);
+    }
+
     @Override
     public boolean ready() {
         return this.canRead;
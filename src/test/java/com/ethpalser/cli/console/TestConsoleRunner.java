@@ -4,10 +4,16 @@ import com.ethpalser.cli.menu.Context;
 import com.ethpalser.cli.menu.Menu;
 import com.ethpalser.cli.menu.MenuItem;
 import com.ethpalser.cli.menu.SimpleMenu;
+import com.ethpalser.cli.menu.command.ArgumentType;
+import com.ethpalser.cli.menu.command.CommandSpec;
 import com.ethpalser.cli.menu.event.EventType;
 import com.ethpalser.cli.menu.exception.InvalidContextException;
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -185,6 +191,140 @@ class TestConsoleRunner {
 
     // endregion
 
+    // region ConsoleRunner.runScript tests
+
+    @Test
+    void testRunScript_givenCommands_thenExecutesWithoutRendering() throws InvalidContextException, IOException {
+        Menu main = this.testMainMenu();
+        main.addChild(this.testAction()); // Valid as option "1"
+        MenuItem submenu = this.testSubmenu();
+        main.addChild(submenu); // Valid as option "test"
+
+        ConsoleRunner runner = new ConsoleRunner(main);
+        String script = "# comment\n1\n\ntest -flag text\nunknown\nback\nexit\nyes\n1\n";
+        BatchReport report = runner.runScript(new BufferedReader(new StringReader(script)), ConfirmPolicy.SCRIPT);
+
+        Assertions.assertEquals(5, report.getCommands()); // The confirmation and the line after exit are not run
+        Assertions.assertEquals(1, report.getFailureCount());
+        Assertions.assertTrue(report.getFailures().get(0).startsWith("line 5:"));
+        Assertions.assertTrue(report.isEscaped());
+        Assertions.assertEquals(main, Context.getInstance().peek());
+        Assertions.assertTrue(eventOccurredSet.contains(EventType.SELECT));
+        Assertions.assertFalse(eventOccurredSet.contains(EventType.RENDER));
+    }
+
+    @Test
+    void testRunScript_givenRejectPolicy_thenEscapeIgnored() throws InvalidContextException, IOException {
+        Menu main = this.testMainMenu();
+        main.addChild(this.testAction());
+
+        ConsoleRunner runner = new ConsoleRunner(main);
+        String script = "exit\nexit -n\n1\n";
+        BatchReport report = runner.runScript(new BufferedReader(new StringReader(script)), ConfirmPolicy.REJECT);
+
+        Assertions.assertEquals(3, report.getCommands());
+        Assertions.assertEquals(0, report.getFailureCount());
+        Assertions.assertFalse(report.isEscaped());
+        Assertions.assertTrue(eventOccurredSet.contains(EventType.SELECT));
+    }
+
+    @Test
+    void testRunScript_givenGoto_thenDeeplyNestedMenuActive() throws InvalidContextException, IOException {
+        Menu main = this.testMainMenu();
+        Menu armoury = new SimpleMenu("armoury");
+        Menu swords = new SimpleMenu("swords");
+        swords.addChild(new MenuItem("dragon slayer"));
+        armoury.addChild(swords);
+        main.addChildren(armoury, this.testAction());
+
+        ConsoleRunner runner = new ConsoleRunner(main);
+        BatchReport report = runner.runScript(new BufferedReader(new StringReader("goto dragn slayer\ngoto zzz\n")),
+                ConfirmPolicy.REJECT);
+
+        Assertions.assertEquals(1, report.getFailureCount());
+        Assertions.assertEquals(swords, Context.getInstance().peek());
+        Assertions.assertEquals(List.of("main", "armoury", "swords"), Context.getInstance().getPath());
+        Assertions.assertFalse(eventOccurredSet.contains(EventType.SELECT));
+    }
+
+    @Test
+    void testRunScript_givenGotoDisabledMatch_thenRefused() throws InvalidContextException, IOException {
+        Menu main = this.testMainMenu();
+        Menu armoury = new SimpleMenu("armoury");
+        Menu swords = new SimpleMenu("swords");
+        swords.addChild(new MenuItem("dragon slayer"));
+        armoury.addChild(swords);
+        main.addChildren(armoury, this.testAction());
+        armoury.toggleDisabled();
+
+        ConsoleRunner runner = new ConsoleRunner(main);
+        BatchReport report = runner.runScript(new BufferedReader(new StringReader("goto dragon slayer\n")),
+                ConfirmPolicy.REJECT);
+
+        Assertions.assertEquals(1, report.getFailureCount());
+        Assertions.assertTrue(report.getFailures().get(0).contains("match disabled at: armoury"));
+        Assertions.assertEquals(main, Context.getInstance().peek());
+    }
+
+    @Test
+    void testRunScript_givenPath_thenNestedMenuEnteredInOneCommand() throws InvalidContextException, IOException {
+        Menu main = this.testMainMenu();
+        Menu advanced = new SimpleMenu("advanced");
+        advanced.addChild(this.testAction());
+        Menu start = new SimpleMenu("start");
+        start.addChild(advanced);
+        main.addChild(start);
+
+        ConsoleRunner runner = new ConsoleRunner(main);
+        String script = "start/advanced\nback\n/start/advanced/other\nstart/nothing\n";
+        BatchReport report = runner.runScript(new BufferedReader(new StringReader(script)), ConfirmPolicy.REJECT);
+
+        Assertions.assertEquals(4, report.getCommands());
+        Assertions.assertEquals(1, report.getFailureCount());
+        Assertions.assertTrue(report.getFailures().get(0).contains("path not found"));
+        Assertions.assertEquals(List.of("main", "start", "advanced"), Context.getInstance().getPath());
+        Assertions.assertTrue(eventOccurredSet.contains(EventType.SELECT));
+    }
+
+    @Test
+    void testRunScript_givenMenuCommand_thenHandledWithParsedArguments() throws InvalidContextException,
+            IOException {
+        Menu main = this.testMainMenu();
+        main.addChild(this.testAction());
+        List<Integer> healed = new ArrayList<>();
+        main.addCommand(CommandSpec.builder("heal").argument("amount", ArgumentType.INTEGER).build(),
+                command -> healed.add(command.getInt("amount")));
+
+        ConsoleRunner runner = new ConsoleRunner(main);
+        BatchReport report = runner.runScript(new BufferedReader(new StringReader("heal 5\nheal lots\nHEAL 7\n")),
+                ConfirmPolicy.REJECT);
+
+        Assertions.assertEquals(1, report.getFailureCount());
+        Assertions.assertEquals(List.of(5, 7), healed);
+        Assertions.assertFalse(eventOccurredSet.contains(EventType.SELECT));
+    }
+
+    @Test
+    void testRunScript_givenMenuCommandThrows_thenFailureReportedAndScriptContinues() throws
+            InvalidContextException, IOException {
+        Menu main = this.testMainMenu();
+        main.addChild(this.testAction());
+        main.addCommand(CommandSpec.builder("break").build(), command -> {
+            throw new IllegalStateException("handler broke");
+        });
+
+        ConsoleRunner runner = new ConsoleRunner(main);
+        BatchReport report = runner.runScript(new BufferedReader(new StringReader("break\n1\n")),
+                ConfirmPolicy.REJECT);
+
+        Assertions.assertEquals(2, report.getCommands());
+        Assertions.assertEquals(1, report.getFailureCount());
+        Assertions.assertTrue(report.getFailures().get(0).contains("handler broke"));
+        Assertions.assertTrue(eventOccurredSet.contains(EventType.SELECT));
+    }
+
+    // endregion
+
     @Test
     void testOpen_givenClosedReader_thenClose() {
         Menu main = this.testMainMenu();
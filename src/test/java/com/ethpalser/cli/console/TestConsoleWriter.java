@@ -0,0 +1,173 @@
+package com.ethpalser.cli.console;
+
+import com.ethpalser.cli.menu.MenuOptions;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class TestConsoleWriter {
+
+    @Test
+    void testWrite_givenNoFrame_thenFlushedPerWrite() throws IOException {
+        FlushCountingWriter out = new FlushCountingWriter();
+        ConsoleWriter writer = new ConsoleWriter(new BufferedWriter(out));
+        writer.write("one");
+        writer.write("two");
+        Assertions.assertEquals("onetwo", out.toString());
+        Assertions.assertEquals(2, out.flushes);
+    }
+
+    @Test
+    void testWrite_givenAppendedOutsideFrame_thenAppendedWrittenFirst() throws IOException {
+        FlushCountingWriter out = new FlushCountingWriter();
+        ConsoleWriter writer = new ConsoleWriter(new BufferedWriter(out));
+        writer.append("Gold: ").append("100").append('\n');
+        Assertions.assertEquals("", out.toString());
+
+        writer.write("> ");
+        Assertions.assertEquals("Gold: 100\n> ", out.toString());
+    }
+
+    @Test
+    void testWrite_givenFrame_thenFlushedOnce() throws IOException {
+        FlushCountingWriter out = new FlushCountingWriter();
+        ConsoleWriter writer = new ConsoleWriter(new BufferedWriter(out));
+        writer.beginFrame();
+        writer.write("one");
+        writer.write("two");
+        Assertions.assertEquals("", out.toString());
+        writer.endFrame();
+        Assertions.assertEquals("onetwo", out.toString());
+        Assertions.assertEquals(1, out.flushes);
+    }
+
+    @Test
+    void testReadOption_givenSharedWriterInFrame_thenFrameAndPromptFlushedTogether() throws IOException {
+        FlushCountingWriter out = new FlushCountingWriter();
+        ConsoleWriter writer = new ConsoleWriter(new BufferedWriter(out));
+        ConsoleReader reader = new ConsoleReader(new BufferedReader(new StringReader("zzz\n1\n")), writer);
+
+        writer.beginFrame();
+        writer.write("1. First");
+        reader.readOption(MenuOptions.of(List.of("First")));
+        writer.endFrame();
+
+        Assertions.assertEquals("1. First\n> input invalid\n\n> ", out.toString());
+        Assertions.assertEquals(2, out.flushes); // one per read, the invalid input causes a second read
+    }
+
+    @Test
+    void testEndFrame_givenDifferentialAndFirstFrame_thenScreenClearedAndDrawnWhole() throws IOException {
+        FlushCountingWriter out = new FlushCountingWriter();
+        ConsoleWriter writer = new ConsoleWriter(new BufferedWriter(out));
+        writer.setRenderMode(RenderMode.DIFFERENTIAL);
+        writer.beginFrame();
+        writer.write("1. First\n> ");
+        writer.endFrame();
+        Assertions.assertEquals("\033[H\033[2J\033[1;1H1. First\033[K\033[2;1H> \033[J", out.toString());
+    }
+
+    @Test
+    void testEndFrame_givenDifferentialAndUnchangedFrame_thenOnlyPromptRedrawn() throws IOException {
+        FlushCountingWriter out = new FlushCountingWriter();
+        ConsoleWriter writer = new ConsoleWriter(new BufferedWriter(out));
+        writer.setRenderMode(RenderMode.DIFFERENTIAL);
+        String frame = "Inventory\n1. Sword\n2. Shield\n3. Potion\n> ";
+        writer.beginFrame();
+        writer.write(frame);
+        writer.endFrame();
+        out.getBuffer().setLength(0);
+
+        writer.beginFrame();
+        writer.write(frame);
+        writer.endFrame();
+        Assertions.assertEquals("\033[5;3H\033[J", out.toString());
+    }
+
+    @Test
+    void testEndFrame_givenDifferentialAndChangedLine_thenOnlyChangeSent() throws IOException {
+        FlushCountingWriter out = new FlushCountingWriter();
+        ConsoleWriter writer = new ConsoleWriter(new BufferedWriter(out));
+        writer.setRenderMode(RenderMode.DIFFERENTIAL);
+        writer.beginFrame();
+        writer.write("Gold: 100\nHealth: 50\n> ");
+        writer.endFrame();
+        out.getBuffer().setLength(0);
+
+        writer.beginFrame();
+        writer.write("Gold: 95\nHealth: 50\n> ");
+        writer.endFrame();
+        Assertions.assertEquals("\033[1;7H95\033[K\033[3;3H\033[J", out.toString());
+    }
+
+    @Test
+    void testWrite_givenDifferentialOutsideFrame_thenNextFrameDrawnWhole() throws IOException {
+        FlushCountingWriter out = new FlushCountingWriter();
+        ConsoleWriter writer = new ConsoleWriter(new BufferedWriter(out));
+        writer.setRenderMode(RenderMode.DIFFERENTIAL);
+        writer.beginFrame();
+        writer.write("menu");
+        writer.endFrame();
+        writer.write("message\n");
+        out.getBuffer().setLength(0);
+
+        writer.beginFrame();
+        writer.write("menu");
+        writer.endFrame();
+        Assertions.assertEquals("\033[H\033[2J\033[1;1Hmenu\033[J", out.toString());
+    }
+
+    @Test
+    void testEndFrame_givenDifferentialAndFrameTallerThanScreen_thenWrittenWholeOnClearedScreen() throws IOException {
+        FlushCountingWriter out = new FlushCountingWriter();
+        ConsoleWriter writer = new ConsoleWriter(new BufferedWriter(out));
+        writer.setRenderMode(RenderMode.DIFFERENTIAL);
+        writer.setScreenSize(3, 80);
+        String frame = "1. First\n2. Second\n3. Third\n> ";
+        writer.beginFrame();
+        writer.write(frame);
+        writer.endFrame();
+        Assertions.assertEquals("\033[H\033[2J" + frame, out.toString());
+        out.getBuffer().setLength(0);
+
+        writer.beginFrame();
+        writer.write(frame);
+        writer.endFrame();
+        Assertions.assertEquals("\033[H\033[2J" + frame, out.toString());
+        out.getBuffer().setLength(0);
+
+        writer.beginFrame();
+        writer.write("1. First\n> ");
+        writer.endFrame();
+        Assertions.assertEquals("\033[H\033[2J\033[1;1H1. First\033[K\033[2;1H> \033[J", out.toString());
+    }
+
+    @Test
+    void testEndFrame_givenDifferentialAndLineWiderThanScreen_thenWrittenWholeOnClearedScreen() throws IOException {
+        FlushCountingWriter out = new FlushCountingWriter();
+        ConsoleWriter writer = new ConsoleWriter(new BufferedWriter(out));
+        writer.setRenderMode(RenderMode.DIFFERENTIAL);
+        writer.setScreenSize(24, 10);
+        writer.beginFrame();
+        writer.write("1. A very long option\n> ");
+        writer.endFrame();
+        Assertions.assertEquals("\033[H\033[2J1. A very long option\n> ", out.toString());
+    }
+
+    private static class FlushCountingWriter extends StringWriter {
+
+        private int flushes;
+
+        @Override
+        public void flush() {
+            this.flushes++;
+            super.flush();
+        }
+    }
+
+}
@@ -0,0 +1,108 @@
+package com.ethpalser.cli.console;
+
+import com.ethpalser.cli.menu.Context;
+import com.ethpalser.cli.menu.Menu;
+import com.ethpalser.cli.menu.MenuItem;
+import com.ethpalser.cli.menu.SimpleMenu;
+import com.ethpalser.cli.menu.event.EventType;
+import com.ethpalser.cli.menu.event.TickEvent;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PipedReader;
+import java.io.PipedWriter;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class TestGameLoop {
+
+    @Test
+    void testRun_givenInputWhileTicking_thenAppliedAtNextTickUntilEscape() throws IOException {
+        PipedWriter typed = new PipedWriter();
+        Menu main = new SimpleMenu("main");
+        MenuItem action = new MenuItem("action");
+        AtomicLong selectedAt = new AtomicLong();
+        AtomicLong lastTick = new AtomicLong();
+        main.addChild(action);
+        main.addEventListener(EventType.TICK, event -> {
+            long tick = ((TickEvent) event).getTick();
+            lastTick.set(tick);
+            if (tick == 3) {
+                type(typed, "action\n");
+            } else if (tick == 10) {
+                type(typed, "exit -y\n");
+            }
+        });
+        action.addEventListener(EventType.SELECT, event -> selectedAt.set(lastTick.get()));
+
+        ConsoleRunner runner = new ConsoleRunner(main, new Context(), new BufferedReader(new PipedReader(typed)),
+                new MockConsoleWriter());
+        GameLoop loop = new GameLoop(runner).setTickRate(500);
+        loop.run();
+
+        Assertions.assertTrue(selectedAt.get() >= 3, "selected at tick " + selectedAt.get());
+        Assertions.assertTrue(loop.getTickCount() >= 10);
+        Assertions.assertTrue(loop.getFrameCount() > 0);
+        Assertions.assertEquals(loop.getTickCount(), loop.getTickTimes().getCount());
+        Assertions.assertFalse(loop.isRunning());
+    }
+
+    @Test
+    void testRun_givenTicksOverrun_thenMissedTicksSkipped() throws IOException {
+        PipedWriter typed = new PipedWriter();
+        Menu main = new SimpleMenu("main");
+        ConsoleRunner runner = new ConsoleRunner(main, new Context(), new BufferedReader(new PipedReader(typed)),
+                new MockConsoleWriter());
+        GameLoop loop = new GameLoop(runner).setTickRate(1000).setMaxCatchUpTicks(2);
+        main.addEventListener(EventType.TICK, event -> {
+            long tick = ((TickEvent) event).getTick();
+            if (tick <= 3) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+            } else if (tick == 6) {
+                loop.stop();
+            }
+        });
+        loop.run();
+
+        Assertions.assertTrue(loop.getLateTicks() >= 3);
+        Assertions.assertTrue(loop.getSkippedTicks() > 0);
+        Assertions.assertTrue(loop.getSkippedFrames() > 0);
+    }
+
+    @Test
+    void testRun_givenEscapeAndAnswerQueuedTogether_thenAnswerTakenFromQueue() throws IOException {
+        PipedWriter typed = new PipedWriter();
+        Menu main = new SimpleMenu("main");
+        MenuItem yak = new MenuItem("yak");
+        AtomicLong selected = new AtomicLong();
+        main.addChild(yak);
+        main.addEventListener(EventType.TICK, event -> {
+            if (((TickEvent) event).getTick() == 2) {
+                type(typed, "exit\ny\n");
+            }
+        });
+        yak.addEventListener(EventType.SELECT, event -> selected.incrementAndGet());
+
+        ConsoleRunner runner = new ConsoleRunner(main, new Context(), new BufferedReader(new PipedReader(typed)),
+                new MockConsoleWriter());
+        GameLoop loop = new GameLoop(runner).setTickRate(500);
+        Assertions.assertTimeoutPreemptively(Duration.ofSeconds(10), loop::run);
+
+        Assertions.assertEquals(0, selected.get());
+        Assertions.assertFalse(loop.isRunning());
+    }
+
+    private static void type(PipedWriter typed, String line) {
+        try {
+            typed.write(line);
+            typed.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+}
@@ -0,0 +1,65 @@
+package com.ethpalser.cli.console;
+
+import com.ethpalser.cli.menu.MenuOptions;
+import com.ethpalser.cli.util.Pair;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PipedReader;
+import java.io.PipedWriter;
+import java.io.StringReader;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class TestQueuedInputSource {
+
+    @Test
+    void testPoll_givenNoInputYet_thenNullAndNotEnded() throws IOException {
+        PipedWriter typed = new PipedWriter();
+        try (QueuedInputSource source = QueuedInputSource.lines(new BufferedReader(new PipedReader(typed)))) {
+            Assertions.assertNull(source.poll(10, TimeUnit.MILLISECONDS));
+            Assertions.assertFalse(source.isEnded());
+
+            typed.write("1\n");
+            typed.flush();
+            Assertions.assertEquals("1", source.poll(1, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    void testPoll_givenInputEnded_thenNullAndEnded() throws IOException {
+        try (QueuedInputSource source = QueuedInputSource.lines(new BufferedReader(new StringReader("one\n")))) {
+            Assertions.assertEquals("one", source.poll(-1, TimeUnit.SECONDS));
+            Assertions.assertNull(source.poll(-1, TimeUnit.SECONDS));
+            Assertions.assertTrue(source.isEnded());
+        }
+    }
+
+    @Test
+    void testPoll_givenKeys_thenEachKeyAndEscapeSequenceSeparately() throws IOException {
+        try (QueuedInputSource source = QueuedInputSource.keys(new StringReader("w\033[A\r"))) {
+            Assertions.assertEquals("w", source.poll(1, TimeUnit.SECONDS));
+            Assertions.assertEquals("\033[A", source.poll(1, TimeUnit.SECONDS));
+            Assertions.assertEquals("", source.poll(1, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    void testReadOption_givenReadTimeoutAndNoInput_thenNoInputReturned() throws IOException {
+        PipedWriter typed = new PipedWriter();
+        ConsoleReader reader = new ConsoleReader(new BufferedReader(new PipedReader(typed)));
+        reader.setReadTimeout(10, TimeUnit.MILLISECONDS);
+        MenuOptions options = MenuOptions.of(List.of("First"));
+
+        Assertions.assertSame(ConsoleReader.NO_INPUT, reader.readOption(options));
+
+        typed.write("1\n");
+        typed.flush();
+        reader.setReadTimeout(1, TimeUnit.SECONDS);
+        Pair<String, String[]> input = reader.readOption(options);
+        Assertions.assertEquals("First", input.getFirst());
+        reader.close();
+    }
+
+}
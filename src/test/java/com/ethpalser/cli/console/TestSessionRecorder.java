@@ -0,0 +1,118 @@
+package com.ethpalser.cli.console;
+
+import com.ethpalser.cli.menu.Context;
+import com.ethpalser.cli.menu.Menu;
+import com.ethpalser.cli.menu.MenuItem;
+import com.ethpalser.cli.menu.SimpleMenu;
+import com.ethpalser.cli.menu.event.EventType;
+import com.ethpalser.cli.menu.exception.InvalidContextException;
+import com.ethpalser.cli.util.Pair;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class TestSessionRecorder {
+
+    @Test
+    void testRecord_givenRecords_thenLogReadsSameRecords() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (SessionRecorder recorder = new SessionRecorder(bytes)) {
+            recorder.record(List.of("main"), new Pair<>("start", null), 1);
+            recorder.record(List.of("main", "start"), new Pair<>("custom", new String[]{"-size", "10"}), 2);
+            recorder.record(List.of("main", "start"), new Pair<>("back", new String[0]), 2);
+        }
+
+        try (SessionLog log = new SessionLog(new ByteArrayInputStream(bytes.toByteArray()))) {
+            SessionLog.Record first = log.next();
+            Assertions.assertEquals(List.of("main"), first.getPath());
+            Assertions.assertEquals("start", first.getInput().getFirst());
+            Assertions.assertNull(first.getInput().getLast());
+            Assertions.assertEquals(1, first.getDisplayHash());
+
+            SessionLog.Record second = log.next();
+            Assertions.assertEquals(List.of("main", "start"), second.getPath());
+            Assertions.assertArrayEquals(new String[]{"-size", "10"}, second.getInput().getLast());
+            Assertions.assertTrue(second.getOffsetNanos() >= first.getOffsetNanos());
+
+            SessionLog.Record third = log.next();
+            Assertions.assertArrayEquals(new String[0], third.getInput().getLast());
+            Assertions.assertNull(log.next());
+        }
+    }
+
+    @Test
+    void testRecord_givenArgumentOver64KB_thenLogReadsSameArgument() throws IOException {
+        String pasted = "\u00e9".repeat(40_000); // 80,000 bytes of UTF-8
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (SessionRecorder recorder = new SessionRecorder(bytes)) {
+            recorder.record(List.of("main"), new Pair<>("note", new String[]{pasted}), 1);
+            recorder.record(List.of("main"), new Pair<>("note", new String[]{pasted}), 1);
+        }
+
+        try (SessionLog log = new SessionLog(new ByteArrayInputStream(bytes.toByteArray()))) {
+            Assertions.assertArrayEquals(new String[]{pasted}, log.next().getInput().getLast());
+            Assertions.assertArrayEquals(new String[]{pasted}, log.next().getInput().getLast());
+            Assertions.assertNull(log.next());
+        }
+    }
+
+    @Test
+    void testNext_givenTruncatedLog_thenEndsAtLastCompleteRecord() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (SessionRecorder recorder = new SessionRecorder(bytes)) {
+            recorder.record(List.of("main"), new Pair<>("start", null), 1);
+            recorder.record(List.of("main"), new Pair<>("other", null), 1);
+        }
+        byte[] truncated = Arrays.copyOf(bytes.toByteArray(), bytes.size() - 2);
+
+        try (SessionLog log = new SessionLog(new ByteArrayInputStream(truncated))) {
+            Assertions.assertNotNull(log.next());
+            Assertions.assertNull(log.next());
+        }
+    }
+
+    @Test
+    void testReplay_givenRecordedSession_thenSameMenusWithoutDifferences() throws IOException,
+            InvalidContextException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        int[] selected = {0};
+        ConsoleRunner runner = new ConsoleRunner(this.testMainMenu(selected));
+        runner.setRecorder(new SessionRecorder(bytes));
+        ConsoleReader reader = new MockConsoleReader();
+        ConsoleWriter writer = new MockConsoleWriter();
+        while (runner.runCycle(reader, writer)) {
+            // MockConsoleReader ends with an exit
+        }
+        runner.getRecorder().close();
+        Assertions.assertEquals(2, selected[0]);
+
+        selected[0] = 0;
+        ConsoleRunner replayRunner = new ConsoleRunner(this.testMainMenu(selected));
+        try (SessionLog log = new SessionLog(new ByteArrayInputStream(bytes.toByteArray()))) {
+            BatchReport report = new SessionReplayer(replayRunner).setVerify(true).replay(log);
+            Assertions.assertEquals(5, report.getCommands());
+            Assertions.assertEquals(0, report.getFailureCount(), report.toString());
+        }
+        Assertions.assertEquals(2, selected[0]);
+        Assertions.assertEquals(List.of("main"), Context.getInstance().getPath());
+    }
+
+    private Menu testMainMenu(int[] selected) {
+        Menu main = new SimpleMenu("main");
+        MenuItem action = new MenuItem("other");
+        action.addEventListener(EventType.SELECT, event -> selected[0]++);
+        main.addChild(action);
+        Menu submenu = new Menu("test");
+        submenu.addEventListener(EventType.SELECT, event -> {
+            selected[0]++;
+            Context.getInstance().push(submenu);
+        });
+        main.addChild(submenu);
+        return main;
+    }
+
+}
@@ -0,0 +1,67 @@
+package com.ethpalser.cli.console;
+
+import com.ethpalser.cli.menu.Context;
+import com.ethpalser.cli.menu.Menu;
+import com.ethpalser.cli.menu.SimpleMenu;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class TestSessionRuntime {
+
+    @Test
+    void testStart_givenManySessions_thenEachHasOwnContext() throws InterruptedException {
+        Context.getInstance().reset();
+        Menu main = new SimpleMenu("main");
+        main.addChild(new SimpleMenu("test"));
+        main.addChild(new SimpleMenu("other"));
+
+        List<SessionRuntime.Session> sessions = new ArrayList<>();
+        try (SessionRuntime runtime = new SessionRuntime(main)) {
+            for (int i = 0; i < 50; i++) {
+                // Half of the sessions go into "test" and half into "other", then stop reading
+                String script = (i % 2 == 0 ? "test" : "other") + "\n";
+                InputStream in = new ByteArrayInputStream(script.getBytes(StandardCharsets.UTF_8));
+                sessions.add(runtime.start(in, new ByteArrayOutputStream()));
+            }
+            this.awaitSessions(runtime);
+        }
+
+        for (int i = 0; i < sessions.size(); i++) {
+            List<String> expected = List.of("main", i % 2 == 0 ? "test" : "other");
+            Assertions.assertEquals(expected, sessions.get(i).getRunner().getContext().getPath());
+        }
+        Assertions.assertTrue(Context.getInstance().isEmpty());
+    }
+
+    @Test
+    void testClose_givenSessionWaitingForInput_thenSessionEnds() throws IOException, InterruptedException {
+        Menu main = new SimpleMenu("main");
+        PipedOutputStream input = new PipedOutputStream();
+        SessionRuntime runtime = new SessionRuntime(main);
+        SessionRuntime.Session session = runtime.start(new PipedInputStream(input), new ByteArrayOutputStream());
+        Assertions.assertEquals(1, runtime.getActiveSessions());
+
+        session.close();
+        this.awaitSessions(runtime);
+        Assertions.assertEquals(0, runtime.getActiveSessions());
+        runtime.close();
+        input.close();
+    }
+
+    private void awaitSessions(SessionRuntime runtime) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (runtime.getActiveSessions() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+}
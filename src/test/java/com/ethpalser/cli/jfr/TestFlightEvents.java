@@ -0,0 +1,71 @@
+package com.ethpalser.cli.jfr;
+
+import com.ethpalser.cli.menu.Context;
+import com.ethpalser.cli.menu.MenuItem;
+import com.ethpalser.cli.menu.SimpleMenu;
+import com.ethpalser.cli.menu.event.Event;
+import com.ethpalser.cli.menu.event.EventType;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class TestFlightEvents {
+
+    @Test
+    void testReceiveEvent_givenRecording_thenDispatchEventCommitted() throws IOException {
+        MenuItem item = new MenuItem("item");
+        item.addEventListener(EventType.SELECT, event -> {
+            throw new IllegalStateException();
+        });
+
+        List<RecordedEvent> events = record("com.ethpalser.cli.Dispatch", () -> {
+            item.receiveEvent(new Event(EventType.SELECT));
+            item.receiveEvent(new Event(EventType.RENDER));
+        });
+
+        Assertions.assertEquals(2, events.size());
+        RecordedEvent select = events.stream().filter(e -> "SELECT".equals(e.getString("eventType")))
+                .findFirst().orElseThrow();
+        Assertions.assertEquals("item", select.getString("menu"));
+        Assertions.assertTrue(select.getBoolean("error"));
+    }
+
+    @Test
+    void testPushAndPop_givenRecording_thenContextChangesCommitted() throws IOException {
+        Context context = new Context();
+        SimpleMenu menu = new SimpleMenu("inventory");
+
+        List<RecordedEvent> events = record("com.ethpalser.cli.ContextChange", () -> {
+            context.push(menu);
+            context.pop();
+        });
+
+        List<String> actions = events.stream().map(e -> e.getString("action") + " " + e.getString("menu"))
+                .sorted().collect(Collectors.toList());
+        Assertions.assertEquals(List.of("pop inventory", "push inventory"), actions);
+    }
+
+    private static List<RecordedEvent> record(String eventName, Runnable action) throws IOException {
+        Path file = Files.createTempFile("events", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(eventName);
+            recording.start();
+            action.run();
+            recording.stop();
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file).stream()
+                    .filter(e -> e.getEventType().getName().equals(eventName))
+                    .collect(Collectors.toList());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+}
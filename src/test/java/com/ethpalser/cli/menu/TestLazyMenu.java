@@ -0,0 +1,84 @@
+package com.ethpalser.cli.menu;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class TestLazyMenu {
+
+    @Test
+    void testGetTextDisplay_givenNotLoaded_thenChildrenCreatedOnce() {
+        AtomicInteger loads = new AtomicInteger();
+        LazyMenu menu = new LazyMenu("catalog", () -> {
+            loads.incrementAndGet();
+            return new MenuItem[]{new MenuItem("sword"), new MenuItem("shield")};
+        }, new MenuBudget(10));
+
+        Assertions.assertFalse(menu.isLoaded());
+        Assertions.assertEquals(0, loads.get());
+        Assertions.assertEquals("1. Sword\n2. Shield", menu.getTextDisplay());
+        Assertions.assertEquals("1. Sword\n2. Shield", menu.getTextDisplay());
+        Assertions.assertNotNull(menu.getChild("shield"));
+        Assertions.assertEquals(1, loads.get());
+    }
+
+    @Test
+    void testGetTextDisplay_givenOverBudget_thenLeastRecentlyVisitedReleasedAndRebuilt() {
+        MenuBudget budget = new MenuBudget(3);
+        AtomicInteger weaponLoads = new AtomicInteger();
+        LazyMenu weapons = new LazyMenu("weapons", () -> {
+            weaponLoads.incrementAndGet();
+            return new MenuItem[]{new MenuItem("sword"), new MenuItem("axe")};
+        }, budget);
+        LazyMenu armour = new LazyMenu("armour", () -> new MenuItem[]{new MenuItem("helm"), new MenuItem("boots")},
+                budget);
+
+        weapons.getTextDisplay();
+        armour.getTextDisplay();
+
+        Assertions.assertFalse(weapons.isLoaded());
+        Assertions.assertTrue(armour.isLoaded());
+        Assertions.assertEquals(2, budget.getLoadedItems());
+        Assertions.assertEquals(1, budget.getReleases());
+
+        Assertions.assertEquals("1. Sword\n2. Axe", weapons.getTextDisplay());
+        Assertions.assertEquals(2, weaponLoads.get());
+        Assertions.assertFalse(armour.isLoaded());
+    }
+
+    @Test
+    void testRelease_givenDescendantOnContextStack_thenPinnedUntilPopped() {
+        MenuBudget budget = new MenuBudget(100);
+        Menu shop = new SimpleMenu("shop");
+        LazyMenu catalog = new LazyMenu("catalog", () -> new MenuItem[]{shop}, budget);
+        Context context = new Context();
+        context.setDefault(catalog);
+
+        catalog.getTextDisplay();
+        context.push(shop);
+        Assertions.assertTrue(catalog.isPinned());
+        Assertions.assertEquals(0, budget.releaseAll());
+        Assertions.assertSame(catalog, shop.getParent());
+
+        context.pop();
+        Assertions.assertFalse(catalog.isPinned());
+        Assertions.assertEquals(1, budget.releaseAll());
+        Assertions.assertFalse(catalog.isLoaded());
+        Assertions.assertNull(shop.getParent());
+    }
+
+    @Test
+    void testRelease_givenLoadedLazyDescendant_thenDescendantReleasedToo() {
+        MenuBudget budget = new MenuBudget(100);
+        LazyMenu inner = new LazyMenu("inner", () -> new MenuItem[]{new MenuItem("leaf")}, budget);
+        LazyMenu outer = new LazyMenu("outer", () -> new MenuItem[]{inner}, budget);
+
+        outer.getTextDisplay();
+        inner.getTextDisplay();
+        Assertions.assertTrue(outer.release());
+
+        Assertions.assertFalse(inner.isLoaded());
+        Assertions.assertEquals(0, budget.getLoadedMenus());
+    }
+
+}
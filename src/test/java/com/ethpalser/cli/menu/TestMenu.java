@@ -1,5 +1,9 @@
 package com.ethpalser.cli.menu;
 
+import com.ethpalser.cli.menu.command.ArgumentType;
+import com.ethpalser.cli.menu.command.CommandGrammar;
+import com.ethpalser.cli.menu.command.CommandSpec;
+import com.ethpalser.cli.menu.command.ParsedCommand;
 import com.ethpalser.cli.menu.event.Event;
 import com.ethpalser.cli.menu.event.EventType;
 import com.ethpalser.cli.menu.event.Result;
@@ -57,4 +61,144 @@ class TestMenu {
         Assertions.assertEquals(child, Context.getInstance().peek());
     }
 
+    @Test
+    void testGetChild_givenIndex_thenChildInInsertionOrder() {
+        Menu menu = new Menu("test");
+        MenuItem first = new MenuItem("first");
+        MenuItem second = new MenuItem("second");
+        menu.addChildren(first, second);
+        Assertions.assertEquals(first, menu.getChild(0));
+        Assertions.assertEquals(second, menu.getChild(1));
+        Assertions.assertNull(menu.getChild(2));
+        Assertions.assertNull(menu.getChild(-1));
+    }
+
+    @Test
+    void testGetVisibleChild_givenHiddenOrRemovedChild_thenIndexUpdated() {
+        Menu menu = new Menu("test");
+        MenuItem first = new MenuItem("first");
+        MenuItem second = new MenuItem("second");
+        MenuItem third = new MenuItem("third");
+        menu.addChildren(first, second, third);
+        Assertions.assertEquals(second, menu.getVisibleChild(1));
+
+        first.toggleHidden();
+        Assertions.assertEquals(third, menu.getVisibleChild(1));
+        Assertions.assertEquals(2, menu.getVisibleChildCount());
+        Assertions.assertEquals(first, menu.getChild(0)); // still present, only hidden
+
+        menu.removeChildren("second");
+        Assertions.assertEquals(third, menu.getVisibleChild(0));
+        Assertions.assertEquals(third, menu.getChild(1));
+    }
+
+    @Test
+    void testHandleCommand_givenRegisteredCommand_thenHandlerPerformed() {
+        AtomicBoolean executed = new AtomicBoolean(false);
+        Menu menu = new Menu("test");
+        menu.addCommand(CommandSpec.builder("page").argument("number", ArgumentType.INTEGER).build(),
+                command -> executed.set(command.getInt("number") == 3));
+
+        ParsedCommand command = menu.getCommandGrammar().parse("Page 3");
+        Assertions.assertTrue(menu.handleCommand(command));
+        Assertions.assertTrue(executed.get());
+        Assertions.assertSame(menu.getCommandGrammar(), menu.getVisibleOptions().getCommandGrammar());
+    }
+
+    @Test
+    void testHandleCommand_givenInvalidCommand_thenNotPerformed() {
+        AtomicBoolean executed = new AtomicBoolean(false);
+        Menu menu = new Menu("test");
+        menu.addCommand(CommandSpec.builder("page").argument("number", ArgumentType.INTEGER).build(),
+                command -> executed.set(true));
+
+        ParsedCommand command = menu.getCommandGrammar().parse("page three");
+        Assertions.assertFalse(menu.handleCommand(command));
+        Assertions.assertFalse(executed.get());
+    }
+
+    @Test
+    void testAddCommand_givenConflictingAlias_thenCommandsUnchanged() {
+        Menu menu = new Menu("test");
+        menu.addCommand(CommandSpec.builder("page").build(), command -> { });
+        CommandGrammar grammar = menu.getCommandGrammar();
+
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> menu.addCommand(CommandSpec.builder("goto").alias("page").build(), command -> { }));
+        Assertions.assertSame(grammar, menu.getCommandGrammar());
+        Assertions.assertNull(menu.getCommandGrammar().getSpec("goto"));
+
+        menu.addCommand(CommandSpec.builder("next").build(), command -> { });
+        menu.removeCommand("page");
+        Assertions.assertNotNull(menu.getCommandGrammar().getSpec("next"));
+        Assertions.assertNull(menu.getCommandGrammar().getSpec("page"));
+    }
+
+    @Test
+    void testGetChildren_givenChangedThroughMap_thenThrows() {
+        Menu menu = new Menu("test");
+        menu.addChild(new MenuItem("first"));
+
+        Assertions.assertThrows(UnsupportedOperationException.class,
+                () -> menu.getChildren().put("second", new MenuItem("second")));
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> menu.getChildren().remove("first"));
+        Assertions.assertEquals(1, menu.getVisibleChildCount());
+    }
+
+    @Test
+    void testGetVisibleOptions_givenUnchangedMenu_thenSameSnapshot() {
+        Menu menu = new Menu("test");
+        menu.addChildren(new MenuItem("Sword"), new MenuItem("Shield"));
+
+        MenuOptions options = menu.getVisibleOptions();
+        menu.getTextDisplay();
+        menu.getChild("sword");
+        Assertions.assertSame(options, menu.getVisibleOptions());
+        Assertions.assertEquals(menu.getVersion(), options.getVersion());
+    }
+
+    @Test
+    void testGetVisibleOptions_givenMenuChanged_thenSnapshotRebuilt() {
+        Menu menu = new Menu("test");
+        MenuItem sword = new MenuItem("sword");
+        MenuItem shield = new MenuItem("shield");
+        menu.addChildren(sword, shield);
+
+        MenuOptions options = menu.getVisibleOptions();
+        menu.addChild(new MenuItem("potion"));
+        Assertions.assertNotSame(options, menu.getVisibleOptions());
+        Assertions.assertTrue(menu.getVisibleOptions().contains("potion"));
+
+        options = menu.getVisibleOptions();
+        menu.removeChildren("potion");
+        Assertions.assertNotSame(options, menu.getVisibleOptions());
+        Assertions.assertFalse(menu.getVisibleOptions().contains("potion"));
+
+        options = menu.getVisibleOptions();
+        shield.toggleHidden();
+        Assertions.assertNotSame(options, menu.getVisibleOptions());
+        Assertions.assertEquals(1, menu.getVisibleOptions().size());
+
+        options = menu.getVisibleOptions();
+        sword.toggleDisabled();
+        Assertions.assertNotSame(options, menu.getVisibleOptions());
+    }
+
+    @Test
+    void testGetVisibleOptions_givenHiddenChildAndMixedCase_thenHiddenExcludedAndCaseFolded() {
+        Menu menu = new Menu("test");
+        MenuItem secret = new MenuItem("secret");
+        secret.toggleHidden();
+        menu.addChildren(new MenuItem("Sword"), secret, new MenuItem("Magic Shield"));
+
+        MenuOptions options = menu.getVisibleOptions();
+        Assertions.assertEquals(2, options.size());
+        Assertions.assertTrue(options.contains("SWORD"));
+        Assertions.assertTrue(options.contains("sword"));
+        Assertions.assertEquals(1, options.indexOf("magic SHIELD"));
+        Assertions.assertEquals(-1, options.indexOf("secret"));
+        Assertions.assertFalse(options.contains("secret"));
+        Assertions.assertFalse(options.contains(null));
+    }
+
 }
@@ -0,0 +1,214 @@
+package com.ethpalser.cli.menu;
+
+import com.ethpalser.cli.menu.event.Event;
+import com.ethpalser.cli.menu.event.EventListener;
+import com.ethpalser.cli.menu.event.EventPhase;
+import com.ethpalser.cli.menu.event.EventType;
+import com.ethpalser.cli.menu.event.Result;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class TestMenuItem {
+
+    @Test
+    void testReceiveEvent_givenListenersWithPriorities_thenCalledHighestFirstThenInOrderAdded() {
+        List<String> calls = new ArrayList<>();
+        MenuItem item = new MenuItem("item");
+        item.addEventListener(EventType.SELECT, event -> calls.add("first"));
+        item.addEventListener(EventType.SELECT, event -> calls.add("low"), -1);
+        item.addEventListener(EventType.SELECT, event -> calls.add("second"));
+        item.addEventListener(EventType.SELECT, event -> calls.add("high"), 10);
+
+        Result result = item.receiveEvent(new Event(EventType.SELECT));
+        Assertions.assertFalse(result.hasError());
+        Assertions.assertEquals(List.of("high", "first", "second", "low"), calls);
+    }
+
+    @Test
+    void testReceiveEvent_givenStopPropagation_thenLaterListenersNotCalled() {
+        List<String> calls = new ArrayList<>();
+        MenuItem item = new MenuItem("item");
+        item.addEventListener(EventType.SELECT, event -> {
+            calls.add("first");
+            event.stopPropagation();
+        });
+        item.addEventListener(EventType.SELECT, event -> calls.add("second"));
+
+        Event event = new Event(EventType.SELECT);
+        item.receiveEvent(event);
+        item.receiveEvent(event); // stopping only lasts for one dispatch
+        Assertions.assertEquals(List.of("first", "first"), calls);
+    }
+
+    @Test
+    void testReceiveEvent_givenListenerRemovedDuringDispatch_thenTakesEffectNextEvent() {
+        List<String> calls = new ArrayList<>();
+        MenuItem item = new MenuItem("item");
+        EventListener second = event -> calls.add("second");
+        item.addEventListener(EventType.SELECT, event -> {
+            calls.add("first");
+            item.removeEventListener(EventType.SELECT, second);
+        });
+        item.addEventListener(EventType.SELECT, second);
+
+        item.receiveEvent(new Event(EventType.SELECT));
+        item.receiveEvent(new Event(EventType.SELECT));
+        Assertions.assertEquals(List.of("first", "second", "first"), calls);
+        Assertions.assertEquals(1, item.getEventListeners(EventType.SELECT).size());
+    }
+
+    @Test
+    void testRemoveEventListener_givenEventType_thenAllRemovedAndDisabled() {
+        MenuItem item = new MenuItem("item");
+        item.addEventListener(EventType.SELECT, event -> {});
+        item.addEventListener(EventType.SELECT, event -> {});
+        Assertions.assertFalse(item.isDisabled());
+
+        item.removeEventListener(EventType.SELECT);
+        Assertions.assertTrue(item.getEventListener(EventType.SELECT).isEmpty());
+        Assertions.assertTrue(item.isDisabled());
+    }
+
+    @Test
+    void testAddEventListener_givenMenuSelectListener_thenMenuStillEntered() {
+        Context.getInstance().reset();
+        List<String> calls = new ArrayList<>();
+        Menu menu = new Menu("menu");
+        menu.addEventListener(EventType.SELECT, event -> calls.add("user"));
+
+        menu.receiveEvent(new Event(EventType.SELECT));
+        Assertions.assertEquals(List.of("user"), calls);
+        Assertions.assertEquals(menu, Context.getInstance().peek());
+        Context.getInstance().reset();
+    }
+
+    @Test
+    void testReceiveEvent_givenNoErrors_thenSharedResults() {
+        MenuItem item = new MenuItem("item");
+        item.addEventListener(EventType.SELECT, event -> {});
+
+        Assertions.assertSame(Result.SUCCESS, item.receiveEvent(new Event(EventType.SELECT)));
+        Result missing = item.receiveEvent(new Event(EventType.RENDER));
+        Assertions.assertSame(Result.missing(EventType.RENDER), missing);
+        Assertions.assertEquals(Result.MISSING_MESSAGE + ": for RENDER", missing.getMessage());
+        Assertions.assertSame(Result.INVALID, item.receiveEvent(null));
+    }
+
+    @Test
+    void testReceiveEvent_givenListenerThrows_thenErrorMessageIncludesCause() {
+        MenuItem item = new MenuItem("item");
+        item.addEventListener(EventType.SELECT, event -> {
+            throw new IllegalStateException("broken");
+        });
+
+        Result result = item.receiveEvent(new Event(EventType.SELECT));
+        Assertions.assertTrue(result.hasError());
+        Assertions.assertEquals(Result.ERROR_MESSAGE + ": broken", result.getMessage());
+    }
+
+    @Test
+    void testResult_givenHasError_thenErrorMessage() {
+        Assertions.assertEquals(Result.ERROR_MESSAGE, new Result(true).getMessage());
+        Assertions.assertEquals(Result.SUCCESS_MESSAGE, new Result(false).getMessage());
+    }
+
+    @Test
+    void testReceiveEvent_givenAncestorListeners_thenCapturedThenTargetThenBubbled() {
+        List<String> calls = new ArrayList<>();
+        Menu root = new Menu("root");
+        Menu middle = new Menu("middle");
+        MenuItem leaf = new MenuItem("leaf");
+        root.addChild(middle);
+        middle.addChild(leaf);
+        root.addEventListener(EventType.ON_CLOSE, event -> calls.add("root capture"), 0, EventPhase.CAPTURING);
+        middle.addEventListener(EventType.ON_CLOSE, event -> calls.add("middle capture"), 0, EventPhase.CAPTURING);
+        leaf.addEventListener(EventType.ON_CLOSE, event -> calls.add("leaf " + event.getPhase()));
+        middle.addEventListener(EventType.ON_CLOSE, event -> calls.add("middle bubble"), 0, EventPhase.BUBBLING);
+        root.addEventListener(EventType.ON_CLOSE, event -> {
+            calls.add("root bubble");
+            Assertions.assertEquals(leaf, event.getTarget());
+            Assertions.assertEquals(root, event.getCurrentTarget());
+        }, 0, EventPhase.BUBBLING);
+
+        Result result = leaf.receiveEvent(new Event(EventType.ON_CLOSE));
+        Assertions.assertFalse(result.hasError());
+        Assertions.assertEquals(List.of("root capture", "middle capture", "leaf AT_TARGET", "middle bubble",
+                "root bubble"), calls);
+
+        // Events sent to the root itself are not captured or bubbled by its own listeners
+        calls.clear();
+        Assertions.assertSame(Result.missing(EventType.ON_CLOSE), root.receiveEvent(new Event(EventType.ON_CLOSE)));
+        Assertions.assertTrue(calls.isEmpty());
+    }
+
+    @Test
+    void testReceiveEvent_givenCaptureStopsPropagation_thenTargetNotCalled() {
+        List<String> calls = new ArrayList<>();
+        Menu root = new Menu("root");
+        MenuItem leaf = new MenuItem("leaf");
+        root.addChild(leaf);
+        root.addEventListener(EventType.SELECT, Event::stopPropagation, 0, EventPhase.CAPTURING);
+        leaf.addEventListener(EventType.SELECT, event -> calls.add("leaf"));
+
+        leaf.receiveEvent(new Event(EventType.SELECT));
+        Assertions.assertTrue(calls.isEmpty());
+    }
+
+    @Test
+    void testIsDisabled_givenOnlyAncestorBubbleListener_thenEnabledUntilMoved() {
+        List<String> selected = new ArrayList<>();
+        Menu root = new Menu("root");
+        Menu other = new Menu("other");
+        MenuItem leaf = new MenuItem("leaf");
+        root.addChild(leaf);
+        root.addEventListener(EventType.SELECT, event -> selected.add(event.getTarget().getName()), 0,
+                EventPhase.BUBBLING);
+
+        Assertions.assertFalse(leaf.isDisabled());
+        leaf.receiveEvent(new Event(EventType.SELECT));
+        Assertions.assertEquals(List.of("leaf"), selected);
+
+        root.removeChildren("leaf");
+        other.addChild(leaf);
+        Assertions.assertTrue(leaf.isDisabled()); // the cached path is replaced once the parent changes
+    }
+
+    @Test
+    void testGetPropagationPath_givenUnrelatedItemMoved_thenCachedPathKept() {
+        Menu root = new Menu("root");
+        Menu middle = new Menu("middle");
+        MenuItem leaf = new MenuItem("leaf");
+        middle.addChild(leaf);
+        root.addChild(middle);
+        MenuItem[] path = leaf.getPropagationPath();
+
+        new Menu("elsewhere").addChild(new MenuItem("other"));
+        Assertions.assertSame(path, leaf.getPropagationPath());
+
+        Menu top = new Menu("top");
+        root.removeChildren("middle");
+        top.addChild(middle);
+        Assertions.assertArrayEquals(new MenuItem[]{top, middle}, leaf.getPropagationPath());
+    }
+
+    @Test
+    void testIncrementVersion_givenConcurrentChanges_thenEachGetsOwnVersion() throws InterruptedException {
+        MenuItem item = new MenuItem("shared");
+        Runnable changes = () -> {
+            for (int i = 0; i < 100_000; i++) {
+                item.incrementVersion();
+            }
+        };
+        Thread first = new Thread(changes);
+        Thread second = new Thread(changes);
+        first.start();
+        second.start();
+        first.join();
+        second.join();
+
+        Assertions.assertEquals(200_000, item.getVersion());
+    }
+
+}
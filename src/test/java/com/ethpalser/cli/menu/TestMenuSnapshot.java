@@ -0,0 +1,94 @@
+package com.ethpalser.cli.menu;
+
+import com.ethpalser.cli.menu.event.Event;
+import com.ethpalser.cli.menu.event.EventType;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TestMenuSnapshot {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testLoad_givenWrittenTree_thenSameTreeWithListenersBound() throws IOException {
+        AtomicInteger selected = new AtomicInteger();
+        ListenerBindings bindings = new ListenerBindings()
+                .register("count", EventType.SELECT, event -> selected.incrementAndGet());
+        Menu root = new SimpleMenu("root");
+        Menu shop = new SimpleMenu("shop");
+        Menu info = new Menu("info", "Nothing to see here", new MenuItem[]{});
+        MenuItem sword = bindings.bind(new MenuItem("sword"), "count");
+        MenuItem secret = new MenuItem("secret", "Hidden item");
+        secret.toggleHidden();
+        MenuItem broken = new MenuItem("broken");
+        broken.toggleDisabled();
+        shop.addChildren(sword, secret, broken);
+        root.addChildren(shop, info);
+        Path file = this.dir.resolve("menu.snapshot");
+
+        MenuSnapshot.write(root, file);
+        Menu loaded = MenuSnapshot.load(file, bindings);
+
+        Assertions.assertEquals(root.getTextDisplay(), loaded.getTextDisplay());
+        Menu loadedShop = (Menu) loaded.getChild("shop");
+        Assertions.assertEquals(shop.getTextDisplay(), loadedShop.getTextDisplay());
+        Assertions.assertEquals("Nothing to see here", loaded.getChild("info").getTextDisplay());
+        Assertions.assertTrue(loadedShop.getChild("secret").isHidden());
+        Assertions.assertEquals("Hidden item", loadedShop.getChild("secret").getTextDisplay());
+        Assertions.assertTrue(loadedShop.getChild("broken").isDisabled());
+
+        loadedShop.getChild("sword").receiveEvent(new Event(EventType.SELECT));
+        Assertions.assertEquals(1, selected.get());
+    }
+
+    @Test
+    void testLoad_givenLargeTree_thenOnlyVisitedMenusDecoded() throws IOException {
+        Menu root = new SimpleMenu("root");
+        for (int i = 0; i < 50; i++) {
+            Menu category = new SimpleMenu("category" + i);
+            for (int j = 0; j < 20; j++) {
+                category.addChildren(new MenuItem("item" + i + "-" + j));
+            }
+            root.addChildren(category);
+        }
+        Path file = this.dir.resolve("large.snapshot");
+        MenuSnapshot.write(root, file);
+        MenuBudget budget = new MenuBudget(1000);
+
+        LazyMenu loaded = (LazyMenu) MenuSnapshot.load(file, new ListenerBindings(), budget);
+        Assertions.assertFalse(loaded.isLoaded());
+
+        LazyMenu category = (LazyMenu) loaded.getChild("category7");
+        Assertions.assertTrue(loaded.isLoaded());
+        Assertions.assertFalse(category.isLoaded());
+        Assertions.assertNotNull(category.getChild("item7-19"));
+        Assertions.assertFalse(((LazyMenu) loaded.getChild("category8")).isLoaded());
+        Assertions.assertEquals(70, budget.getLoadedItems());
+    }
+
+    @Test
+    void testLoad_givenUnregisteredBinding_thenThrowsBeforeDecoding() throws IOException {
+        ListenerBindings bindings = new ListenerBindings().register("attack", item -> { });
+        Menu root = new SimpleMenu("root");
+        root.addChildren(bindings.bind(new MenuItem("sword"), "attack"));
+        Path file = this.dir.resolve("bound.snapshot");
+        MenuSnapshot.write(root, file);
+
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> MenuSnapshot.load(file, new ListenerBindings()));
+    }
+
+    @Test
+    void testLoad_givenNotSnapshot_thenThrowsIOException() throws IOException {
+        Path file = Files.writeString(this.dir.resolve("menu.txt"), "not a snapshot at all");
+
+        Assertions.assertThrows(IOException.class, () -> MenuSnapshot.load(file, new ListenerBindings()));
+    }
+
+}
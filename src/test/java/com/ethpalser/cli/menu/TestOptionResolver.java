@@ -0,0 +1,50 @@
+package com.ethpalser.cli.menu;
+
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class TestOptionResolver {
+
+    private final OptionResolver resolver = OptionResolver.of(List.of("Basic", "Advanced", "Adventure", "Add", "Exit"));
+
+    @Test
+    void testResolve_givenExactNameIgnoringCase_thenIndex() {
+        Assertions.assertEquals(1, this.resolver.resolve("advanced"));
+        Assertions.assertEquals(4, this.resolver.resolve("EXIT"));
+    }
+
+    @Test
+    void testResolve_givenOneBasedIndex_thenIndex() {
+        Assertions.assertEquals(0, this.resolver.resolve("1"));
+        Assertions.assertEquals(4, this.resolver.resolve("5"));
+        Assertions.assertEquals(OptionResolver.NO_MATCH, this.resolver.resolve("0"));
+        Assertions.assertEquals(OptionResolver.NO_MATCH, this.resolver.resolve("6"));
+    }
+
+    @Test
+    void testResolve_givenUniquePrefix_thenIndex() {
+        Assertions.assertEquals(1, this.resolver.resolve("adva"));
+        Assertions.assertEquals(0, this.resolver.resolve("b"));
+    }
+
+    @Test
+    void testResolve_givenSharedPrefix_thenAmbiguous() {
+        Assertions.assertEquals(OptionResolver.AMBIGUOUS, this.resolver.resolve("adv"));
+        Assertions.assertEquals(List.of("Advanced", "Adventure"), this.resolver.getCandidates("adv", 5));
+    }
+
+    @Test
+    void testResolve_givenPrefixThatIsAlsoAnOption_thenExactOption() {
+        Assertions.assertEquals(3, this.resolver.resolve("add"));
+        Assertions.assertEquals(OptionResolver.AMBIGUOUS, this.resolver.resolve("ad"));
+    }
+
+    @Test
+    void testResolve_givenUnknownOrEmpty_thenNoMatch() {
+        Assertions.assertEquals(OptionResolver.NO_MATCH, this.resolver.resolve("custom"));
+        Assertions.assertEquals(OptionResolver.NO_MATCH, this.resolver.resolve(""));
+        Assertions.assertEquals(OptionResolver.NO_MATCH, this.resolver.resolve("basics"));
+    }
+
+}
@@ -0,0 +1,85 @@
+package com.ethpalser.cli.menu;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class TestPagedMenu {
+
+    private static PagedMenu createMenu(int children, int pageSize) {
+        MenuItem[] items = new MenuItem[children];
+        for (int i = 0; i < children; i++) {
+            items[i] = new MenuItem("item" + (i + 1));
+        }
+        return new PagedMenu("catalog", items, pageSize);
+    }
+
+    @Test
+    void testGetTextDisplay_givenFirstPage_thenOnlyPageListed() {
+        PagedMenu menu = createMenu(5, 2);
+
+        Assertions.assertEquals("1. Item1\n2. Item2\nPage 1 of 3 (next, prior, page <number>)", menu.getTextDisplay());
+    }
+
+    @Test
+    void testHandleCommand_givenPageCommand_thenPageListedWithGlobalNumbers() {
+        PagedMenu menu = createMenu(50_000, 20);
+
+        Assertions.assertTrue(menu.handleCommand(menu.getCommandGrammar().parse("page 300")));
+        Assertions.assertEquals(299, menu.getPage());
+        String display = menu.getTextDisplay();
+        Assertions.assertTrue(display.startsWith("5981. Item5981\n"));
+        Assertions.assertTrue(display.contains("6000. Item6000\nPage 300 of 2500"));
+        Assertions.assertEquals(5999, menu.getVisibleOptions().getResolver().resolve("6000"));
+    }
+
+    @Test
+    void testNextPage_givenLastPage_thenPageUnchanged() {
+        PagedMenu menu = createMenu(5, 2);
+        long version = menu.getVersion();
+
+        Assertions.assertTrue(menu.handleCommand(menu.getCommandGrammar().parse("next")));
+        Assertions.assertTrue(menu.nextPage());
+        Assertions.assertFalse(menu.nextPage());
+        Assertions.assertEquals("5. Item5\nPage 3 of 3 (next, prior, page <number>)", menu.getTextDisplay());
+        Assertions.assertEquals(version, menu.getVersion());
+
+        Assertions.assertTrue(menu.priorPage());
+        Assertions.assertEquals(1, menu.getPage());
+    }
+
+    @Test
+    void testGetPage_givenChildrenRemoved_thenMovedToLastPage() {
+        PagedMenu menu = createMenu(5, 2);
+        menu.setPage(2);
+
+        menu.removeChildren("item5");
+
+        Assertions.assertEquals(1, menu.getPage());
+        Assertions.assertEquals("3. Item3\n4. Item4\nPage 2 of 2 (next, prior, page <number>)", menu.getTextDisplay());
+    }
+
+    @Test
+    void testSetPage_givenTwoContexts_thenEachKeepsItsOwnPage() {
+        PagedMenu menu = createMenu(5, 2);
+        Context first = new Context();
+        Context second = new Context();
+
+        Context previous = Context.bind(first);
+        try {
+            Assertions.assertTrue(menu.handleCommand(menu.getCommandGrammar().parse("page 3")));
+            Context.bind(second);
+            Assertions.assertEquals(0, menu.getPage());
+            Assertions.assertTrue(menu.getTextDisplay().startsWith("1. Item1\n"));
+            Assertions.assertTrue(menu.nextPage());
+
+            Context.bind(first);
+            Assertions.assertEquals(2, menu.getPage());
+            Assertions.assertTrue(menu.getTextDisplay().startsWith("5. Item5\n"));
+            Context.bind(second);
+            Assertions.assertEquals(1, menu.getPage());
+        } finally {
+            Context.bind(previous);
+        }
+    }
+
+}
@@ -0,0 +1,98 @@
+package com.ethpalser.cli.menu;
+
+import com.ethpalser.cli.menu.event.EventType;
+import com.ethpalser.cli.menu.event.Result;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class TestPathNavigator {
+
+    private static Menu menu(String name, MenuItem... children) {
+        return new SimpleMenu(name, children);
+    }
+
+    @Test
+    void testResolve_givenNamesNumbersAndPrefixes_thenItemsAlongPath() {
+        MenuItem custom = new MenuItem("custom");
+        Menu advanced = menu("advanced", new MenuItem("preset"), custom);
+        Menu start = menu("start", new MenuItem("easy"), advanced);
+        Menu main = menu("main", start);
+        PathNavigator navigator = new PathNavigator();
+
+        Assertions.assertArrayEquals(new MenuItem[]{start, advanced, custom},
+                navigator.resolve(main, "start/advanced/custom"));
+        Assertions.assertArrayEquals(new MenuItem[]{start, advanced, custom}, navigator.resolve(main, "1/adv/2/"));
+        Assertions.assertNull(navigator.resolve(main, "start/missing"));
+        Assertions.assertNull(navigator.resolve(main, "start/easy/more"));
+    }
+
+    @Test
+    void testResolve_givenTreeChanged_thenCachedPathInvalidated() {
+        Menu advanced = menu("advanced", new MenuItem("custom"));
+        Menu start = menu("start", advanced);
+        Menu main = menu("main", start);
+        PathNavigator navigator = new PathNavigator();
+
+        MenuItem[] first = navigator.resolve(main, "start/advanced");
+        Assertions.assertSame(first, navigator.resolve(main, "start/advanced"));
+
+        advanced.toggleHidden();
+        Assertions.assertNull(navigator.resolve(main, "start/advanced"));
+        advanced.toggleHidden();
+        Menu replacement = menu("advanced");
+        start.addChild(replacement);
+        Assertions.assertSame(replacement, navigator.resolve(main, "start/advanced")[1]);
+    }
+
+    @Test
+    void testResolve_givenOtherTreeChanged_thenCachedPathKept() {
+        Menu advanced = menu("advanced", new MenuItem("custom"));
+        Menu main = menu("main", menu("start", advanced));
+        PathNavigator navigator = new PathNavigator();
+
+        MenuItem[] first = navigator.resolve(main, "start/advanced/custom");
+        menu("other").addChild(new MenuItem("unrelated"));
+        Assertions.assertSame(first, navigator.resolve(main, "start/advanced/custom"));
+    }
+
+    @Test
+    void testNavigate_givenPath_thenChainPushedAndOnlyNeededSelectsSent() {
+        AtomicInteger advancedSelects = new AtomicInteger();
+        AtomicInteger customSelects = new AtomicInteger();
+        MenuItem custom = new MenuItem("custom");
+        custom.addEventListener(EventType.SELECT, event -> customSelects.incrementAndGet());
+        Menu advanced = menu("advanced", custom);
+        advanced.addEventListener(EventType.SELECT, event -> advancedSelects.incrementAndGet());
+        Menu start = menu("start", advanced);
+        Menu main = menu("main", start);
+        Context context = new Context();
+        context.setDefault(main);
+
+        Result result = new PathNavigator().navigate(context, "start/advanced/custom");
+
+        Assertions.assertFalse(result.hasError());
+        Assertions.assertEquals(List.of("main", "start", "advanced"), context.getPath());
+        Assertions.assertEquals(1, advancedSelects.get());
+        Assertions.assertEquals(1, customSelects.get());
+    }
+
+    @Test
+    void testNavigate_givenAbsolutePathAndDisabledItem_thenStopsAtDisabled() {
+        Menu locked = menu("locked");
+        locked.toggleDisabled();
+        Menu start = menu("start", locked);
+        Menu options = menu("options");
+        Menu main = menu("main", start, options);
+        Context context = new Context();
+        context.setDefault(main);
+        context.push(options);
+
+        Result result = new PathNavigator().navigate(context, "/start/locked");
+
+        Assertions.assertTrue(result.hasError());
+        Assertions.assertEquals(start, context.peek());
+    }
+
+}
@@ -0,0 +1,98 @@
+package com.ethpalser.cli.menu;
+
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class TestSearchIndex {
+
+    @Test
+    void testSearch_givenTypo_thenBestMatchFirst() {
+        Menu root = new SimpleMenu("root");
+        Menu weapons = new SimpleMenu("weapons");
+        MenuItem longsword = new MenuItem("longsword");
+        MenuItem sword = new MenuItem("sword");
+        weapons.addChildren(longsword, sword, new MenuItem("shield"));
+        root.addChild(weapons);
+
+        List<MenuItem> matches = SearchIndex.of(root).search("Sword", 5);
+
+        Assertions.assertEquals(List.of(sword, longsword), matches);
+        Assertions.assertEquals(List.of(weapons), SearchIndex.of(root).search("weapnos", 1));
+    }
+
+    @Test
+    void testSearch_givenTextDisplay_thenItemFound() {
+        Menu root = new SimpleMenu("root");
+        MenuItem potion = new MenuItem("item1", "Potion of healing");
+        root.addChild(potion);
+        SearchIndex index = SearchIndex.of(root);
+
+        Assertions.assertEquals(List.of(potion), index.search("healing", 5));
+        potion.setTextDisplay("Potion of mana");
+        Assertions.assertTrue(index.search("healing", 5).isEmpty());
+        Assertions.assertEquals(List.of(potion), index.search("mana potion", 5));
+    }
+
+    @Test
+    void testSearch_givenTextDisplayChangedRepeatedly_thenEntriesBounded() {
+        Menu root = new SimpleMenu("root");
+        MenuItem counter = new MenuItem("counter", "Count 0");
+        root.addChild(counter);
+        SearchIndex index = SearchIndex.of(root);
+
+        for (int i = 1; i <= 10_000; i++) {
+            counter.setTextDisplay("Count " + i);
+        }
+
+        Assertions.assertEquals(2, index.size());
+        Assertions.assertTrue(index.entries() <= 2 * 1024 + 2, "entries: " + index.entries());
+        Assertions.assertEquals(List.of(counter), index.search("count 10000", 1));
+    }
+
+    @Test
+    void testSearch_givenChildrenAddedAndRemoved_thenIndexUpdated() {
+        Menu root = new SimpleMenu("root");
+        SearchIndex index = SearchIndex.of(root);
+        Menu shop = new SimpleMenu("shop");
+        shop.addChild(new MenuItem("lantern"));
+
+        root.addChild(shop);
+        Assertions.assertEquals(3, index.size());
+        Assertions.assertEquals("lantern", index.search("lantern", 1).get(0).getName());
+
+        root.removeChildren("shop");
+        Assertions.assertEquals(1, index.size());
+        Assertions.assertTrue(index.search("lantern", 1).isEmpty());
+    }
+
+    @Test
+    void testSearch_givenHiddenAncestor_thenNotFound() {
+        Menu root = new SimpleMenu("root");
+        Menu secret = new SimpleMenu("secret");
+        secret.addChild(new MenuItem("treasure"));
+        root.addChild(secret);
+        SearchIndex index = SearchIndex.of(root);
+
+        secret.toggleHidden();
+
+        Assertions.assertTrue(index.search("treasure", 1).isEmpty());
+    }
+
+    @Test
+    void testSearch_givenLazyMenu_thenOnlyLoadedChildrenIndexed() {
+        Menu root = new SimpleMenu("root");
+        LazyMenu catalog = new LazyMenu("catalog", () -> new MenuItem[]{new MenuItem("compass")});
+        root.addChild(catalog);
+        SearchIndex index = SearchIndex.of(root);
+
+        Assertions.assertTrue(index.search("compass", 1).isEmpty());
+        Assertions.assertFalse(catalog.isLoaded());
+
+        catalog.getTextDisplay();
+        Assertions.assertEquals(1, index.search("compass", 1).size());
+        catalog.release();
+        Assertions.assertTrue(index.search("compass", 1).isEmpty());
+    }
+
+}
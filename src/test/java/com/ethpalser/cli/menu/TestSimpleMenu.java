@@ -0,0 +1,56 @@
+package com.ethpalser.cli.menu;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class TestSimpleMenu {
+
+    @Test
+    void testGetTextDisplay_givenNoChange_thenSameInstance() {
+        SimpleMenu menu = new SimpleMenu("main");
+        menu.addChild(new MenuItem("first"));
+        menu.addChild(new MenuItem("second"));
+        String display = menu.getTextDisplay();
+        Assertions.assertEquals("1. First\n2. Second", display);
+        Assertions.assertSame(display, menu.getTextDisplay());
+    }
+
+    @Test
+    void testGetTextDisplay_givenChildAddedOrRemoved_thenRebuilt() {
+        SimpleMenu menu = new SimpleMenu("main");
+        menu.addChild(new MenuItem("first"));
+        Assertions.assertEquals("1. First", menu.getTextDisplay());
+
+        menu.addChild(new MenuItem("second"));
+        Assertions.assertEquals("1. First\n2. Second", menu.getTextDisplay());
+
+        menu.removeChildren("First");
+        Assertions.assertEquals("1. Second", menu.getTextDisplay());
+    }
+
+    @Test
+    void testGetTextDisplay_givenChildHidden_thenChildSkipped() {
+        SimpleMenu menu = new SimpleMenu("main");
+        MenuItem first = new MenuItem("first");
+        menu.addChild(first);
+        menu.addChild(new MenuItem("second"));
+        Assertions.assertEquals("1. First\n2. Second", menu.getTextDisplay());
+
+        first.toggleHidden();
+        Assertions.assertEquals("1. Second", menu.getTextDisplay());
+    }
+
+    @Test
+    void testGetVersion_givenSameTextDisplay_thenUnchanged() {
+        SimpleMenu menu = new SimpleMenu("main");
+        MenuItem child = new MenuItem("child");
+        menu.addChild(child);
+        long version = menu.getVersion();
+
+        child.setTextDisplay("child");
+        Assertions.assertEquals(version, menu.getVersion());
+        child.setTextDisplay("other");
+        Assertions.assertNotEquals(version, menu.getVersion());
+    }
+
+}
@@ -0,0 +1,68 @@
+package com.ethpalser.cli.menu.command;
+
+import com.ethpalser.cli.util.InputTokenizer;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class TestCommandGrammar {
+
+    private final CommandGrammar grammar = CommandGrammar.of(
+            CommandSpec.builder("move")
+                    .alias("mv")
+                    .flag("-f")
+                    .argument("x", ArgumentType.INTEGER)
+                    .argument("y", ArgumentType.INTEGER)
+                    .optionalArgument("label", ArgumentType.STRING)
+                    .build(),
+            CommandSpec.builder("save").flag("-y").flag("-n").build()
+    );
+
+    @Test
+    void testParse_givenValidCommand_thenTypedValues() {
+        ParsedCommand command = this.grammar.parse(new InputTokenizer().reset("MOVE 3 -f -4 home"));
+        Assertions.assertNotNull(command);
+        Assertions.assertTrue(command.isValid());
+        Assertions.assertEquals("move", command.getName());
+        Assertions.assertTrue(command.hasFlag("-f"));
+        Assertions.assertEquals(3, command.getInt("x"));
+        Assertions.assertEquals(-4, command.getInt("y"));
+        Assertions.assertEquals("home", command.getString("label"));
+    }
+
+    @Test
+    void testParse_givenAlias_thenSpecName() {
+        ParsedCommand command = this.grammar.parse(new InputTokenizer().reset("mv 1 2"));
+        Assertions.assertNotNull(command);
+        Assertions.assertEquals("move", command.getName());
+        Assertions.assertNull(command.get("label"));
+    }
+
+    @Test
+    void testParse_givenWrongTypeOrMissingArgument_thenInvalid() {
+        ParsedCommand wrongType = this.grammar.parse(new InputTokenizer().reset("move one 2"));
+        Assertions.assertNotNull(wrongType);
+        Assertions.assertFalse(wrongType.isValid());
+
+        ParsedCommand missing = this.grammar.parse(new InputTokenizer().reset("move 1"));
+        Assertions.assertNotNull(missing);
+        Assertions.assertFalse(missing.isValid());
+
+        ParsedCommand extra = this.grammar.parse(new InputTokenizer().reset("save now"));
+        Assertions.assertNotNull(extra);
+        Assertions.assertFalse(extra.isValid());
+    }
+
+    @Test
+    void testParse_givenUnknownCommand_thenNull() {
+        Assertions.assertNull(this.grammar.parse(new InputTokenizer().reset("jump 1 2")));
+        Assertions.assertNull(CommandGrammar.EMPTY.parse(new InputTokenizer().reset("move 1 2")));
+    }
+
+    @Test
+    void testParse_givenLineWithFlags_thenFlagsSet() {
+        ParsedCommand command = this.grammar.parse("save -y");
+        Assertions.assertTrue(command.hasFlag("-y"));
+        Assertions.assertFalse(command.hasFlag("-n"));
+    }
+
+}
@@ -0,0 +1,89 @@
+package com.ethpalser.cli.menu.event;
+
+import com.ethpalser.cli.menu.MenuItem;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class TestAsyncDispatcher {
+
+    @Test
+    void testDispatch_givenRunningListener_thenPendingUntilDelivered() {
+        Queue<Runnable> tasks = new ArrayDeque<>();
+        AsyncDispatcher dispatcher = new AsyncDispatcher(tasks::add);
+        List<String> calls = new ArrayList<>();
+        AsyncEventListener listener = AsyncEventListener.of(event -> calls.add("run"), event -> calls.add("complete"));
+
+        Result result = dispatcher.dispatch(listener, new Event(EventType.SELECT));
+        Assertions.assertEquals(Result.PENDING_MESSAGE, result.getMessage());
+        Assertions.assertEquals(1, dispatcher.getPendingCount());
+        Assertions.assertEquals(0, dispatcher.deliver(null));
+
+        tasks.poll().run();
+        Assertions.assertEquals(0, dispatcher.getPendingCount());
+        Assertions.assertEquals(List.of("run"), calls); // not completed until delivered
+
+        List<Result> delivered = new ArrayList<>();
+        Assertions.assertEquals(1, dispatcher.deliver(completion -> delivered.add(completion.getResult())));
+        Assertions.assertEquals(List.of("run", "complete"), calls);
+        Assertions.assertFalse(delivered.get(0).hasError());
+    }
+
+    @Test
+    void testDeliver_givenFailedListener_thenErrorResult() {
+        AsyncDispatcher dispatcher = new AsyncDispatcher(Runnable::run);
+        AsyncEventListener listener = (event, executor) -> CompletableFuture.failedFuture(new IllegalStateException(
+                "no save file"));
+
+        dispatcher.dispatch(listener, new Event(EventType.SELECT));
+        List<Result> delivered = new ArrayList<>();
+        dispatcher.deliver(completion -> delivered.add(completion.getResult()));
+
+        Assertions.assertEquals(1, delivered.size());
+        Assertions.assertTrue(delivered.get(0).hasError());
+        Assertions.assertTrue(delivered.get(0).getMessage().contains("no save file"));
+    }
+
+    @Test
+    void testDispatch_givenEventReusedBeforeCompletion_thenListenerSeesDispatchedState() {
+        Queue<Runnable> tasks = new ArrayDeque<>();
+        AsyncDispatcher dispatcher = new AsyncDispatcher(tasks::add);
+        List<Object> seen = new ArrayList<>();
+        AsyncEventListener listener = AsyncEventListener.of(
+                event -> seen.add(event.getTarget()),
+                event -> seen.add(event.getPhase()));
+        MenuItem first = new MenuItem("first");
+        MenuItem second = new MenuItem("second");
+        Event event = new Event(EventType.RENDER);
+        event.beginDispatch(first);
+        event.enterPhase(EventPhase.AT_TARGET, first);
+
+        dispatcher.dispatch(listener, event);
+        event.beginDispatch(second);
+        event.stopPropagation();
+        tasks.poll().run();
+        List<Event> delivered = new ArrayList<>();
+        dispatcher.deliver(completion -> delivered.add(completion.getEvent()));
+
+        Assertions.assertEquals(List.of(first, EventPhase.AT_TARGET), seen);
+        Assertions.assertNotSame(event, delivered.get(0));
+        Assertions.assertFalse(delivered.get(0).isPropagationStopped());
+    }
+
+    @Test
+    void testReceiveEvent_givenAsyncListenerWithoutDispatcher_thenRunsToCompletion() {
+        List<String> calls = new ArrayList<>();
+        MenuItem item = new MenuItem("load");
+        item.addEventListener(EventType.SELECT, AsyncEventListener.of(event -> calls.add("run"),
+                event -> calls.add("complete")));
+
+        Result result = item.receiveEvent(new Event(EventType.SELECT));
+        Assertions.assertEquals(Result.SUCCESS_MESSAGE, result.getMessage());
+        Assertions.assertEquals(List.of("run", "complete"), calls);
+    }
+
+}
@@ -0,0 +1,58 @@
+package com.ethpalser.cli.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class TestHistogram {
+
+    @Test
+    void testBucketOf_givenAnyValue_thenWithinBucketBounds() {
+        long[] values = {0, 1, 15, 16, 17, 31, 32, 1000, 123_456_789, Long.MAX_VALUE / 3, Long.MAX_VALUE};
+        for (long value : values) {
+            int bucket = Histogram.bucketOf(value);
+            Assertions.assertTrue(Histogram.lowestValueOf(bucket) <= value, "lowest of " + value);
+            Assertions.assertTrue(value <= Histogram.highestValueOf(bucket), "highest of " + value);
+        }
+        Assertions.assertEquals(Long.MAX_VALUE, Histogram.highestValueOf(Histogram.bucketOf(Long.MAX_VALUE)));
+    }
+
+    @Test
+    void testGetValueAtPercentile_givenUniformValues_thenWithinPrecision() {
+        Histogram histogram = new Histogram("test");
+        for (long i = 1; i <= 10_000; i++) {
+            histogram.record(i * 1000);
+        }
+
+        Assertions.assertEquals(10_000, histogram.getCount());
+        Assertions.assertEquals(10_000_000, histogram.getMax());
+        Assertions.assertEquals(5_000_500, histogram.getMean(), 0.1);
+        long p50 = histogram.getValueAtPercentile(50);
+        Assertions.assertTrue(p50 >= 5_000_000 && p50 <= 5_000_000 * 1.07, "p50 " + p50);
+        long p99 = histogram.getValueAtPercentile(99);
+        Assertions.assertTrue(p99 >= 9_900_000 && p99 <= 10_000_000, "p99 " + p99);
+        Assertions.assertEquals(10_000_000, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    void testRecord_givenManyThreads_thenNoValuesLost() throws InterruptedException {
+        Histogram histogram = new Histogram("test");
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 25_000; i++) {
+                    histogram.record(i);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Assertions.assertEquals(100_000, histogram.getCount());
+        Assertions.assertEquals(24_999, histogram.getMax());
+    }
+
+}
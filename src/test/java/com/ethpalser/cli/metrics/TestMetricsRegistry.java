@@ -0,0 +1,81 @@
+package com.ethpalser.cli.metrics;
+
+import com.ethpalser.cli.menu.Menu;
+import com.ethpalser.cli.menu.MenuItem;
+import com.ethpalser.cli.menu.event.Event;
+import com.ethpalser.cli.menu.event.EventType;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class TestMetricsRegistry {
+
+    @AfterEach
+    void afterEach() {
+        MetricsRegistry.disable();
+    }
+
+    @Test
+    void testReceiveEvent_givenMetricsEnabled_thenDispatchRecordedByTypeAndMenu() {
+        MetricsRegistry metrics = new MetricsRegistry();
+        MetricsRegistry.setActive(metrics);
+        Menu menu = new Menu("menu");
+        MenuItem item = new MenuItem("item");
+        menu.addChild(item);
+        menu.addEventListener(EventType.ON_CLOSE, event -> {
+            throw new IllegalStateException();
+        });
+
+        menu.receiveEvent(new Event(EventType.ON_CLOSE));
+        menu.receiveEvent(new Event(EventType.RENDER));
+        item.receiveEvent(new Event(EventType.RENDER));
+
+        Assertions.assertEquals(1, metrics.histogram(MetricsRegistry.DISPATCH_TYPE_GROUP, "ON_CLOSE").getCount());
+        Assertions.assertEquals(2, metrics.histogram(MetricsRegistry.DISPATCH_TYPE_GROUP, "RENDER").getCount());
+        Assertions.assertEquals(2, metrics.histogram(MetricsRegistry.DISPATCH_MENU_GROUP, "menu").getCount());
+        Assertions.assertFalse(metrics.getHistograms().containsKey(MetricsRegistry.DISPATCH_MENU_GROUP + ".item"));
+        Assertions.assertEquals(1L, metrics.getCounters().get("result.ON_CLOSE"));
+    }
+
+    @Test
+    void testHistogram_givenMoreNamesThanLimit_thenGroupBoundedWithOther() {
+        MetricsRegistry metrics = new MetricsRegistry();
+        MetricsRegistry.setActive(metrics);
+        Menu root = new Menu("root");
+        for (int i = 0; i < 1000; i++) {
+            Menu menu = new Menu("menu" + i);
+            root.addChild(menu);
+            menu.receiveEvent(new Event(EventType.RENDER));
+        }
+
+        long menus = metrics.getHistograms().keySet().stream()
+                .filter(name -> name.startsWith(MetricsRegistry.DISPATCH_MENU_GROUP + ".")).count();
+        Assertions.assertEquals(MetricsRegistry.DEFAULT_GROUP_LIMIT + 1, menus);
+        Assertions.assertEquals(1000 - MetricsRegistry.DEFAULT_GROUP_LIMIT, metrics.histogram(
+                MetricsRegistry.DISPATCH_MENU_GROUP, MetricsRegistry.OTHER_NAME).getCount());
+    }
+
+    @Test
+    void testReceiveEvent_givenMetricsDisabled_thenNothingRecorded() {
+        MetricsRegistry metrics = new MetricsRegistry();
+        MenuItem item = new MenuItem("item");
+        item.receiveEvent(new Event(EventType.RENDER));
+        Assertions.assertTrue(metrics.getHistograms().isEmpty());
+    }
+
+    @Test
+    void testDump_givenMetrics_thenOneLinePerMetric() {
+        MetricsRegistry metrics = new MetricsRegistry();
+        metrics.histogram(MetricsRegistry.CYCLE_GROUP, "render").record(100);
+        metrics.counter(MetricsRegistry.INPUT_GROUP, "invalid").add(3);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        metrics.dump(new PrintStream(bytes, true));
+        String dump = bytes.toString();
+        Assertions.assertTrue(dump.contains("cycle.render count=1"), dump);
+        Assertions.assertTrue(dump.contains("input.invalid 3"), dump);
+    }
+
+}
@@ -0,0 +1,51 @@
+package com.ethpalser.cli.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class TestInputTokenizer {
+
+    @Test
+    void testReset_givenCommandAndArguments_thenTokensSplitOnWhitespace() {
+        InputTokenizer tokenizer = new InputTokenizer().reset("  select\t-flag   text ");
+        Assertions.assertEquals(3, tokenizer.size());
+        Assertions.assertEquals("select", tokenizer.command());
+        Assertions.assertArrayEquals(new String[]{"-flag", "text"}, tokenizer.arguments());
+        Assertions.assertEquals(2, tokenizer.start(0));
+        Assertions.assertEquals(8, tokenizer.end(0));
+    }
+
+    @Test
+    void testReset_givenOnlyWhitespaceOrNull_thenEmpty() {
+        InputTokenizer tokenizer = new InputTokenizer();
+        Assertions.assertTrue(tokenizer.reset(" \t ").isEmpty());
+        Assertions.assertTrue(tokenizer.reset(null).isEmpty());
+        Assertions.assertEquals("", tokenizer.command());
+        Assertions.assertNull(tokenizer.arguments());
+    }
+
+    @Test
+    void testReset_givenManyTokens_thenAllKept() {
+        InputTokenizer tokenizer = new InputTokenizer().reset("a b c d e f g h i j k l");
+        Assertions.assertEquals(12, tokenizer.size());
+        Assertions.assertEquals("l", tokenizer.token(11));
+    }
+
+    @Test
+    void testParseInt_givenNonNumeric_thenFallback() {
+        InputTokenizer tokenizer = new InputTokenizer().reset("12 -3 x1 99999999999 -");
+        Assertions.assertEquals(12, tokenizer.parseInt(0, -1));
+        Assertions.assertEquals(-3, tokenizer.parseInt(1, 0));
+        Assertions.assertEquals(-1, tokenizer.parseInt(2, -1));
+        Assertions.assertEquals(-1, tokenizer.parseInt(3, -1));
+        Assertions.assertEquals(-1, tokenizer.parseInt(4, -1));
+    }
+
+    @Test
+    void testTokenEqualsIgnoreCase_givenDifferentCase_thenTrue() {
+        InputTokenizer tokenizer = new InputTokenizer().reset("EXIT now");
+        Assertions.assertTrue(tokenizer.tokenEqualsIgnoreCase(0, "exit"));
+        Assertions.assertFalse(tokenizer.tokenEqualsIgnoreCase(0, "exi"));
+    }
+
+}